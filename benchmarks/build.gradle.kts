@@ -0,0 +1,36 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+plugins {
+    java
+    id("me.champeau.jmh") version "0.7.0"
+}
+
+dependencies {
+    jmhImplementation(project(":extensions:policies"))
+    jmhImplementation(edc.policy.engine)
+    jmhImplementation(identityHub.spi.core)
+    jmhImplementation(libs.micrometer.core)
+}
+
+jmh {
+    jmhVersion.set("1.36")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+    // e.g. -PjmhIncludes=RegionConstraintFunctionBenchmark to run a single benchmark
+    project.findProperty("jmhIncludes")?.let { includes.set(listOf(it as String)) }
+}
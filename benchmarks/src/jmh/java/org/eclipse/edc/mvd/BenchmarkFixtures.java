@@ -0,0 +1,96 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.identityhub.spi.credentials.model.Credential;
+import org.eclipse.edc.identityhub.spi.credentials.model.CredentialSubject;
+import org.eclipse.edc.policy.model.Action;
+import org.eclipse.edc.policy.model.AtomicConstraint;
+import org.eclipse.edc.policy.model.LiteralExpression;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Claims and policies shaped like the ones exchanged in the MVD.
+ */
+final class BenchmarkFixtures {
+
+    static final String ABS_SPATIAL_POSITION = "ids:absoluteSpatialPosition";
+    static final Monitor NOOP_MONITOR = new Monitor() {
+    };
+
+    private static final Instant ISSUED = Instant.parse("2023-03-01T00:00:00Z");
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Claims holding the given number of verifiable credentials, the first one of which is the region credential.
+     */
+    static Map<String, Object> claims(int credentials, String region) {
+        var claims = new HashMap<String, Object>();
+        claims.put("vc-0", credential("vc-0", "region", region));
+        for (var i = 1; i < credentials; i++) {
+            claims.put("vc-" + i, credential("vc-" + i, "membership", "member-" + i));
+        }
+        return claims;
+    }
+
+    /**
+     * Right operand of a region constraint with the given operator.
+     */
+    static Object rightValue(Operator operator, String region) {
+        return operator == Operator.IN ? List.of("us", "ap", region) : region;
+    }
+
+    /**
+     * Policy of a contract definition granting use to participants matching the given region constraint.
+     */
+    static Policy regionPolicy(Operator operator, Object rightValue) {
+        var constraint = AtomicConstraint.Builder.newInstance()
+                .leftExpression(new LiteralExpression(ABS_SPATIAL_POSITION))
+                .operator(operator)
+                .rightExpression(new LiteralExpression(rightValue))
+                .build();
+        return Policy.Builder.newInstance()
+                .permission(Permission.Builder.newInstance()
+                        .action(Action.Builder.newInstance().type("USE").build())
+                        .constraint(constraint)
+                        .build())
+                .build();
+    }
+
+    private static Credential credential(String id, String claim, String value) {
+        return Credential.Builder.newInstance()
+                .id(id)
+                .context("https://www.w3.org/2018/credentials/v1")
+                .type("VerifiableCredential")
+                .issuer("did:web:gaiax-authority")
+                .issuanceDate(Date.from(ISSUED))
+                .credentialSubject(CredentialSubject.Builder.newInstance()
+                        .id("did:web:company1")
+                        .claim(claim, value)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.eclipse.edc.connector.contract.spi.offer.ContractDefinitionService;
+import org.eclipse.edc.policy.engine.PolicyEngineImpl;
+import org.eclipse.edc.policy.engine.RuleBindingRegistryImpl;
+import org.eclipse.edc.policy.engine.ScopeFilter;
+import org.eclipse.edc.policy.engine.spi.AtomicConstraintFunction;
+import org.eclipse.edc.policy.engine.spi.PolicyEngine;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.eclipse.edc.mvd.BenchmarkFixtures.ABS_SPATIAL_POSITION;
+import static org.eclipse.edc.mvd.BenchmarkFixtures.NOOP_MONITOR;
+import static org.eclipse.edc.mvd.BenchmarkFixtures.claims;
+import static org.eclipse.edc.mvd.BenchmarkFixtures.regionPolicy;
+import static org.eclipse.edc.mvd.BenchmarkFixtures.rightValue;
+import static org.eclipse.edc.policy.engine.spi.PolicyEngine.ALL_SCOPES;
+
+/**
+ * Evaluation of the policies of a set of contract definitions in the cataloging scope, as done for every catalog
+ * request. The policy engine is set up like the {@link SeedPoliciesExtension} does, with and without the policy decision
+ * cache and the deduplication of constraints per participant agent. Policies cycle through the region constraints of
+ * the MVD, so that many contract definitions share a constraint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CatalogPolicyEvaluationBenchmark {
+
+    private static final List<String> REGIONS = List.of("eu", "us", "ap");
+    private static final List<Operator> OPERATORS = List.of(Operator.EQ, Operator.NEQ, Operator.IN);
+
+    @Param({"10", "100", "1000"})
+    private int contractDefinitions;
+
+    @Param({"5"})
+    private int credentials;
+
+    @Param({"false", "true"})
+    private boolean decisionCache;
+
+    @Param({"false", "true"})
+    private boolean deduplicate;
+
+    private PolicyEngine policyEngine;
+    private List<Policy> policies;
+    private Map<String, Object> claims;
+
+    @Setup
+    public void setUp() {
+        var ruleBindingRegistry = new RuleBindingRegistryImpl();
+        ruleBindingRegistry.bind("USE", ALL_SCOPES);
+        ruleBindingRegistry.bind(ABS_SPATIAL_POSITION, ContractDefinitionService.CATALOGING_SCOPE);
+        policyEngine = new PolicyEngineImpl(new ScopeFilter(ruleBindingRegistry));
+
+        var regionConstraintFunction = new RegionConstraintFunction(NOOP_MONITOR);
+        policyEngine.registerPreValidator(ContractDefinitionService.CATALOGING_SCOPE, new RegionPolicyValidator(ABS_SPATIAL_POSITION, regionConstraintFunction));
+        AtomicConstraintFunction<Permission> regionFunction = regionConstraintFunction;
+        if (decisionCache) {
+            regionFunction = new CachingConstraintFunction(regionFunction, ABS_SPATIAL_POSITION, 4096, Duration.ofMinutes(5),
+                    Clock.systemUTC(), new CompositeMeterRegistry());
+        }
+        if (deduplicate) {
+            regionFunction = new DeduplicatingConstraintFunction(regionFunction);
+        }
+        policyEngine.registerFunction(ALL_SCOPES, Permission.class, ABS_SPATIAL_POSITION, regionFunction);
+
+        policies = new ArrayList<>();
+        for (var i = 0; i < contractDefinitions; i++) {
+            var operator = OPERATORS.get(i % OPERATORS.size());
+            var region = REGIONS.get((i / OPERATORS.size()) % REGIONS.size());
+            policies.add(regionPolicy(operator, rightValue(operator, region)));
+        }
+        claims = claims(credentials, "eu");
+    }
+
+    /**
+     * Evaluates all policies for one catalog request, i.e. for a participant agent created for the request.
+     */
+    @Benchmark
+    public int catalogRequest() {
+        var agent = new ParticipantAgent(claims, Map.of());
+        var permitted = 0;
+        for (var policy : policies) {
+            if (policyEngine.evaluate(ContractDefinitionService.CATALOGING_SCOPE, policy, agent).succeeded()) {
+                permitted++;
+            }
+        }
+        return permitted;
+    }
+}
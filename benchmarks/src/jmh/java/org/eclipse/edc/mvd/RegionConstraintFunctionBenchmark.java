@@ -0,0 +1,75 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.policy.engine.PolicyContextImpl;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.eclipse.edc.mvd.BenchmarkFixtures.NOOP_MONITOR;
+import static org.eclipse.edc.mvd.BenchmarkFixtures.claims;
+import static org.eclipse.edc.mvd.BenchmarkFixtures.rightValue;
+
+/**
+ * Evaluation of a single region constraint, for a participant seen before and for a participant seen the first time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RegionConstraintFunctionBenchmark {
+
+    private static final Permission PERMISSION = Permission.Builder.newInstance().build();
+
+    @Param({"1", "5", "10", "25", "50"})
+    private int credentials;
+
+    @Param({"EQ", "NEQ", "IN"})
+    private Operator operator;
+
+    private RegionConstraintFunction function;
+    private Object rightValue;
+    private Map<String, Object> claims;
+    private PolicyContextImpl context;
+
+    @Setup
+    public void setUp() {
+        function = new RegionConstraintFunction(NOOP_MONITOR);
+        rightValue = rightValue(operator, "eu");
+        claims = claims(credentials, "eu");
+        context = new PolicyContextImpl(new ParticipantAgent(claims, Map.of()), Map.of());
+    }
+
+    @Benchmark
+    public boolean knownAgent() {
+        return function.evaluate(operator, rightValue, PERMISSION, context);
+    }
+
+    @Benchmark
+    public boolean newAgent() {
+        return function.evaluate(operator, rightValue, PERMISSION, new PolicyContextImpl(new ParticipantAgent(claims, Map.of()), Map.of()));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.registration.spi.model.Participant;
+import org.eclipse.edc.registration.store.spi.ParticipantStore;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * View of the participants of a {@link ParticipantStore} ordered by DID, so that a page of the participant listing
+ * only reads its own slice instead of scanning all participants.
+ * <p>
+ * The view is rebuilt from the store when it is older than the refresh interval, so that paging through all
+ * participants lists the store once per interval rather than once per page. Participants registered or changed in
+ * the meantime show up with the next rebuild.
+ */
+class ParticipantKeysetView {
+
+    private final ParticipantStore participantStore;
+    private final Duration refreshInterval;
+    private final Clock clock;
+    private volatile Snapshot snapshot;
+
+    ParticipantKeysetView(ParticipantStore participantStore, Duration refreshInterval, Clock clock) {
+        this.participantStore = participantStore;
+        this.refreshInterval = refreshInterval;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns up to {@code limit} participants with a DID greater than {@code after}, in DID order.
+     *
+     * @param after the DID after which the slice starts, null to start with the first participant.
+     * @param limit maximum number of participants returned.
+     */
+    List<Participant> slice(@Nullable String after, int limit) {
+        var participants = current().participants;
+        var tail = after != null ? participants.tailMap(after, false) : participants;
+        var slice = new ArrayList<Participant>(Math.min(limit, tail.size()));
+        for (var participant : tail.values()) {
+            if (slice.size() == limit) {
+                break;
+            }
+            slice.add(participant);
+        }
+        return slice;
+    }
+
+    private Snapshot current() {
+        var now = clock.instant();
+        var current = snapshot;
+        if (current != null && now.isBefore(current.builtAt.plus(refreshInterval))) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || !now.isBefore(current.builtAt.plus(refreshInterval))) {
+                var participants = new TreeMap<String, Participant>();
+                participantStore.listParticipants().forEach(participant -> participants.put(participant.getDid(), participant));
+                current = new Snapshot(Collections.unmodifiableNavigableMap(participants), now);
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    private static class Snapshot {
+        private final NavigableMap<String, Participant> participants;
+        private final Instant builtAt;
+
+        Snapshot(NavigableMap<String, Participant> participants, Instant builtAt) {
+            this.participants = participants;
+            this.builtAt = builtAt;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import java.util.List;
+
+/**
+ * One page of dataspace participants, ordered by DID.
+ */
+public class ParticipantPage {
+
+    private final List<Entry> participants;
+    private final String nextCursor;
+
+    public ParticipantPage(List<Entry> participants, String nextCursor) {
+        this.participants = participants;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Entry> getParticipants() {
+        return participants;
+    }
+
+    /**
+     * Cursor to pass to get the next page, null on the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * A participant, in the same representation as returned by the participant listing of the Registration Service.
+     */
+    public static class Entry {
+        private final String did;
+        private final String status;
+
+        public Entry(String did, String status) {
+            this.did = did;
+            this.status = status;
+        }
+
+        public String getDid() {
+            return did;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+    }
+}
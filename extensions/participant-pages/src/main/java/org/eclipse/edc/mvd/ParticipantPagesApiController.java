@@ -0,0 +1,90 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.edc.registration.spi.model.Participant;
+
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Lists the dataspace participants page by page, for dataspaces too large to list in a single response.
+ * <p>
+ * Pages are ordered by DID and addressed by a cursor, the last DID of the previous page, so that participants
+ * registering while a client pages through the list neither shift nor duplicate entries. Pages are read from a
+ * {@link ParticipantKeysetView}, so that each page only looks at its own slice of the participants.
+ */
+@Produces({ MediaType.APPLICATION_JSON })
+@Path("/registry/participant-pages")
+public class ParticipantPagesApiController {
+
+    private static final String AUTHORIZED = "AUTHORIZED";
+    private static final String DENIED = "DENIED";
+    private static final String AUTHORIZING = "AUTHORIZING";
+
+    private final ParticipantKeysetView participantView;
+    private final int maxLimit;
+
+    ParticipantPagesApiController(ParticipantKeysetView participantView, int maxLimit) {
+        this.participantView = participantView;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Gets a page of participants.
+     *
+     * @param after DID after which the page starts, i.e. the cursor returned with the previous page. The first page
+     *              is returned if absent.
+     * @param limit maximum number of participants on the page, at most the configured maximum.
+     */
+    @GET
+    public ParticipantPage getParticipantPage(@QueryParam("after") String after, @QueryParam("limit") Integer limit) {
+        var pageSize = limit != null ? limit : maxLimit;
+        if (pageSize < 1 || pageSize > maxLimit) {
+            throw new BadRequestException(format("limit must be between 1 and %d but was %d", maxLimit, pageSize));
+        }
+
+        // one extra participant tells whether there is a next page
+        var page = participantView.slice(after, pageSize + 1);
+        var hasNext = page.size() > pageSize;
+        if (hasNext) {
+            page = page.subList(0, pageSize);
+        }
+
+        var entries = page.stream()
+                .map(participant -> new ParticipantPage.Entry(participant.getDid(), toStatus(participant)))
+                .collect(Collectors.toList());
+        return new ParticipantPage(entries, hasNext ? entries.get(entries.size() - 1).getDid() : null);
+    }
+
+    /**
+     * Maps the internal onboarding status to the status reported by the participant listing, which only distinguishes
+     * authorized, denied and in-progress participants.
+     */
+    private static String toStatus(Participant participant) {
+        var status = participant.getStatus() != null ? participant.getStatus().name() : null;
+        if (AUTHORIZED.equals(status) || DENIED.equals(status)) {
+            return status;
+        }
+        return AUTHORIZING;
+    }
+}
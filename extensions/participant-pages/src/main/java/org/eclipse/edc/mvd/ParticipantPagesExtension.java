@@ -0,0 +1,62 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.registration.store.spi.ParticipantStore;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.web.spi.WebService;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Extension exposing a paged participant listing next to the Registration Service API.
+ */
+public class ParticipantPagesExtension implements ServiceExtension {
+
+    @Setting(value = "Context alias of the web context exposing the paged participant listing. Must be the context of the Registration Service API, so that requests are authenticated the same way.")
+    private static final String PARTICIPANT_PAGES_CONTEXT = "registration.service.participant.pages.context";
+    private static final String PARTICIPANT_PAGES_CONTEXT_DEFAULT = "authority";
+
+    @Setting(value = "Maximum number of participants returned on one page.")
+    private static final String PARTICIPANT_PAGES_MAX_LIMIT = "registration.service.participant.pages.max.limit";
+    private static final int PARTICIPANT_PAGES_MAX_LIMIT_DEFAULT = 1_000;
+
+    @Setting(value = "Seconds the DID-ordered view of the participants is reused before it is rebuilt from the participant store.")
+    private static final String PARTICIPANT_PAGES_REFRESH_SECONDS = "registration.service.participant.pages.refresh.seconds";
+    private static final long PARTICIPANT_PAGES_REFRESH_SECONDS_DEFAULT = 10;
+
+    @Inject
+    private ParticipantStore participantStore;
+
+    @Inject
+    private WebService webService;
+
+    @Override
+    public String name() {
+        return "Participant Pages";
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        var participantView = new ParticipantKeysetView(participantStore,
+                Duration.ofSeconds(context.getSetting(PARTICIPANT_PAGES_REFRESH_SECONDS, PARTICIPANT_PAGES_REFRESH_SECONDS_DEFAULT)), Clock.systemUTC());
+        var controller = new ParticipantPagesApiController(participantView, context.getSetting(PARTICIPANT_PAGES_MAX_LIMIT, PARTICIPANT_PAGES_MAX_LIMIT_DEFAULT));
+        webService.registerResource(context.getSetting(PARTICIPANT_PAGES_CONTEXT, PARTICIPANT_PAGES_CONTEXT_DEFAULT), controller);
+    }
+}
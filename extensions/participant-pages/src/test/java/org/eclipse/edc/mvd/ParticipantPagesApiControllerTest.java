@@ -0,0 +1,104 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import jakarta.ws.rs.BadRequestException;
+import org.eclipse.edc.registration.spi.model.Participant;
+import org.eclipse.edc.registration.store.spi.ParticipantStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParticipantPagesApiControllerTest {
+
+    private final ParticipantStore participantStore = mock(ParticipantStore.class);
+    private final Clock clock = mock(Clock.class);
+    private final ParticipantPagesApiController controller = new ParticipantPagesApiController(new ParticipantKeysetView(participantStore, Duration.ofSeconds(10), clock), 100);
+
+    @BeforeEach
+    void setUp() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+    }
+
+    @Test
+    void getParticipantPage_pagesThroughAllParticipantsInDidOrder() {
+        var dids = List.of("did:web:e", "did:web:b", "did:web:d", "did:web:a", "did:web:c");
+        when(participantStore.listParticipants()).thenReturn(dids.stream().map(this::participant).collect(Collectors.toList()));
+
+        var received = new ArrayList<String>();
+        String cursor = null;
+        var pages = 0;
+        do {
+            var page = controller.getParticipantPage(cursor, 2);
+            assertThat(page.getParticipants()).hasSizeLessThanOrEqualTo(2);
+            page.getParticipants().forEach(entry -> received.add(entry.getDid()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(received).containsExactly("did:web:a", "did:web:b", "did:web:c", "did:web:d", "did:web:e");
+        assertThat(pages).isEqualTo(3);
+        verify(participantStore, times(1)).listParticipants();
+    }
+
+    @Test
+    void getParticipantPage_viewRebuiltAfterRefreshInterval() {
+        when(participantStore.listParticipants())
+                .thenReturn(Stream.of("did:web:a").map(this::participant).collect(Collectors.toList()))
+                .thenReturn(Stream.of("did:web:a", "did:web:b").map(this::participant).collect(Collectors.toList()));
+
+        assertThat(controller.getParticipantPage(null, 10).getParticipants()).hasSize(1);
+        when(clock.instant()).thenReturn(Instant.EPOCH.plusSeconds(9));
+        assertThat(controller.getParticipantPage(null, 10).getParticipants()).hasSize(1);
+        when(clock.instant()).thenReturn(Instant.EPOCH.plusSeconds(10));
+        assertThat(controller.getParticipantPage(null, 10).getParticipants()).hasSize(2);
+    }
+
+    @Test
+    void getParticipantPage_lastPageFull_hasNoCursor() {
+        when(participantStore.listParticipants()).thenReturn(Stream.of("did:web:a", "did:web:b").map(this::participant).collect(Collectors.toList()));
+
+        var page = controller.getParticipantPage(null, 2);
+
+        assertThat(page.getParticipants()).hasSize(2);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getParticipantPage_limitOutOfRange() {
+        assertThatThrownBy(() -> controller.getParticipantPage(null, 0)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> controller.getParticipantPage(null, 101)).isInstanceOf(BadRequestException.class);
+    }
+
+    private Participant participant(String did) {
+        var participant = mock(Participant.class);
+        when(participant.getDid()).thenReturn(did);
+        return participant;
+    }
+}
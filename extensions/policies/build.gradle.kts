@@ -19,8 +19,11 @@ plugins {
 dependencies {
     api(edc.spi.ids)
     api(edc.spi.contract)
+    implementation(edc.spi.policy)
     api(edc.core.connector)
     implementation(identityHub.spi.core)
+    implementation(libs.micrometer.core)
 
     testImplementation(edc.policy.engine)
+    testImplementation(edc.junit)
 }
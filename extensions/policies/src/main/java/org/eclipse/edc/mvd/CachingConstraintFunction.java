@@ -0,0 +1,194 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.eclipse.edc.identityhub.spi.credentials.model.Credential;
+import org.eclipse.edc.policy.engine.spi.AtomicConstraintFunction;
+import org.eclipse.edc.policy.engine.spi.PolicyContext;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Permission;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Caches the decisions of an {@link AtomicConstraintFunction} per operator, right operand and credentials of the
+ * participant, so that the same constraint is not evaluated again for every policy and every request.
+ * <p>
+ * Only functions whose decision depends on nothing but these three, like the {@link RegionConstraintFunction}, may be
+ * wrapped. Decisions are cached for the configured time to live, but never beyond the earliest expiration date of the
+ * participant's credentials. When full, the least recently used decision is evicted.
+ */
+class CachingConstraintFunction implements AtomicConstraintFunction<Permission> {
+
+    static final String HITS = "mvd.policy.decision.cache.hits";
+    static final String MISSES = "mvd.policy.decision.cache.misses";
+    static final String SIZE = "mvd.policy.decision.cache.size";
+
+    private final AtomicConstraintFunction<Permission> delegate;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<DecisionKey, Decision> decisions;
+    private final ParticipantAgentMemo<AgentCredentials> credentialsByAgent = new ParticipantAgentMemo<>(agent -> AgentCredentials.of(agent.getClaims()));
+    private final Counter hits;
+    private final Counter misses;
+
+    CachingConstraintFunction(AtomicConstraintFunction<Permission> delegate, String constraint, int maxEntries, Duration ttl, Clock clock, MeterRegistry registry) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1 but was " + maxEntries);
+        }
+        this.delegate = delegate;
+        this.ttl = ttl;
+        this.clock = clock;
+        decisions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DecisionKey, Decision> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        hits = Counter.builder(HITS)
+                .description("Constraint evaluations answered from the policy decision cache")
+                .tag("constraint", constraint)
+                .register(registry);
+        misses = Counter.builder(MISSES)
+                .description("Constraint evaluations not answered from the policy decision cache")
+                .tag("constraint", constraint)
+                .register(registry);
+        Gauge.builder(SIZE, this, CachingConstraintFunction::size)
+                .description("Number of cached policy decisions")
+                .tag("constraint", constraint)
+                .register(registry);
+    }
+
+    @Override
+    public boolean evaluate(Operator operator, Object rightValue, Permission rule, PolicyContext context) {
+        var credentials = credentialsByAgent.get(context.getParticipantAgent());
+        var key = new DecisionKey(operator, rightValue, credentials.fingerprint);
+        var now = clock.instant();
+        synchronized (this) {
+            var cached = decisions.get(key);
+            if (cached != null && now.isBefore(cached.expiresAt)) {
+                hits.increment();
+                return cached.result;
+            }
+            decisions.remove(key);
+        }
+
+        misses.increment();
+        var result = delegate.evaluate(operator, rightValue, rule, context);
+        var expiresAt = now.plus(ttl);
+        if (credentials.expiresAt != null && credentials.expiresAt.isBefore(expiresAt)) {
+            expiresAt = credentials.expiresAt;
+        }
+        if (now.isBefore(expiresAt)) {
+            synchronized (this) {
+                decisions.put(key, new Decision(result, expiresAt));
+            }
+        }
+        return result;
+    }
+
+    synchronized int size() {
+        return decisions.size();
+    }
+
+    /**
+     * Fingerprint of all claims of a participant and the earliest expiration date of its verifiable credentials.
+     */
+    private static class AgentCredentials {
+        private final String fingerprint;
+        private final Instant expiresAt;
+
+        private AgentCredentials(String fingerprint, @Nullable Instant expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        static AgentCredentials of(Map<String, Object> claims) {
+            var parts = new TreeSet<String>();
+            Instant expiresAt = null;
+            for (var claim : claims.entrySet()) {
+                if (claim.getValue() instanceof Credential) {
+                    var credential = (Credential) claim.getValue();
+                    parts.add(fingerprint(credential));
+                    var expirationDate = credential.getExpirationDate();
+                    if (expirationDate != null && (expiresAt == null || expirationDate.toInstant().isBefore(expiresAt))) {
+                        expiresAt = expirationDate.toInstant();
+                    }
+                } else {
+                    parts.add(claim.getKey() + "=" + claim.getValue());
+                }
+            }
+            return new AgentCredentials(String.join("\n", parts), expiresAt);
+        }
+
+        private static String fingerprint(Credential credential) {
+            var subject = credential.getCredentialSubject();
+            return String.join("|", "vc:" + credential.getId(), credential.getIssuer(),
+                    String.valueOf(credential.getExpirationDate() != null ? credential.getExpirationDate().getTime() : null),
+                    subject != null ? subject.getId() : null,
+                    subject != null && subject.getClaims() != null ? new TreeMap<>(subject.getClaims()).toString() : null);
+        }
+    }
+
+    private static class DecisionKey {
+        private final Operator operator;
+        private final Object rightValue;
+        private final String fingerprint;
+
+        DecisionKey(Operator operator, Object rightValue, String fingerprint) {
+            this.operator = operator;
+            this.rightValue = rightValue;
+            this.fingerprint = fingerprint;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DecisionKey)) {
+                return false;
+            }
+            var other = (DecisionKey) o;
+            return operator == other.operator && Objects.equals(rightValue, other.rightValue) && fingerprint.equals(other.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(operator, rightValue, fingerprint);
+        }
+    }
+
+    private static class Decision {
+        private final boolean result;
+        private final Instant expiresAt;
+
+        Decision(boolean result, Instant expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
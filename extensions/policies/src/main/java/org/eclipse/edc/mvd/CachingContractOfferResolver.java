@@ -0,0 +1,129 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.connector.contract.spi.offer.ContractOfferQuery;
+import org.eclipse.edc.connector.contract.spi.offer.ContractOfferResolver;
+import org.eclipse.edc.connector.contract.spi.types.offer.ContractOffer;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventSubscriber;
+import org.eclipse.edc.spi.event.asset.AssetCreated;
+import org.eclipse.edc.spi.event.asset.AssetDeleted;
+import org.eclipse.edc.spi.event.contractdefinition.ContractDefinitionCreated;
+import org.eclipse.edc.spi.event.contractdefinition.ContractDefinitionDeleted;
+import org.eclipse.edc.spi.event.policydefinition.PolicyDefinitionCreated;
+import org.eclipse.edc.spi.event.policydefinition.PolicyDefinitionDeleted;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Caches the contract offers generated for catalog requests, so that repeated requests of participants with the same
+ * relevant claims do not evaluate the access policies of all contract definitions again.
+ * <p>
+ * Offers are cached per {@link ClaimFingerprint} of the requesting participant and per query. The cache is cleared
+ * whenever an asset, contract definition or policy definition is created or deleted, and entries expire after a time to
+ * live, as offers carry the time of their generation.
+ */
+class CachingContractOfferResolver implements ContractOfferResolver, EventSubscriber {
+
+    private static final Set<Class<?>> CATALOG_CHANGES = Set.of(AssetCreated.class, AssetDeleted.class, ContractDefinitionCreated.class,
+            ContractDefinitionDeleted.class, PolicyDefinitionCreated.class, PolicyDefinitionDeleted.class);
+
+    private final ContractOfferResolver delegate;
+    private final ClaimFingerprint fingerprint;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Entry> entries;
+    private long generation;
+
+    CachingContractOfferResolver(ContractOfferResolver delegate, ClaimFingerprint fingerprint, Duration ttl, int maxEntries, Clock clock) {
+        this.delegate = delegate;
+        this.fingerprint = fingerprint;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Stream<ContractOffer> queryContractOffers(ContractOfferQuery query) {
+        var key = keyOf(query);
+        var now = clock.instant();
+        long queriedGeneration;
+        synchronized (this) {
+            var entry = entries.get(key);
+            if (entry != null && now.isBefore(entry.expiresAt)) {
+                return entry.offers.stream();
+            }
+            queriedGeneration = generation;
+        }
+
+        var offers = delegate.queryContractOffers(query).collect(Collectors.toList());
+        synchronized (this) {
+            // offers generated while the catalog changed may be outdated already
+            if (generation == queriedGeneration) {
+                entries.put(key, new Entry(offers, now.plus(ttl)));
+            }
+        }
+        return offers.stream();
+    }
+
+    @Override
+    public void on(Event<?> event) {
+        if (isCatalogChange(event)) {
+            invalidate();
+        }
+    }
+
+    private static boolean isCatalogChange(Event<?> event) {
+        return CATALOG_CHANGES.stream().anyMatch(type -> type.isInstance(event));
+    }
+
+    synchronized void invalidate() {
+        generation++;
+        entries.clear();
+    }
+
+    private String keyOf(ContractOfferQuery query) {
+        var claims = query.getClaimToken() != null ? fingerprint.of(query.getClaimToken().getClaims()) : "";
+        var criteria = query.getCriteria() != null ? query.getCriteria().stream()
+                .map(criterion -> criterion.getOperandLeft() + " " + criterion.getOperator() + " " + criterion.getOperandRight())
+                .collect(Collectors.joining(",")) : "";
+        var range = query.getRange() != null ? query.getRange().getFrom() + "-" + query.getRange().getTo() : "";
+        return String.join("|", claims, String.valueOf(query.getProvider()), String.valueOf(query.getConsumer()), criteria, range);
+    }
+
+    private static class Entry {
+        private final List<ContractOffer> offers;
+        private final Instant expiresAt;
+
+        Entry(List<ContractOffer> offers, Instant expiresAt) {
+            this.offers = offers;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.connector.contract.spi.offer.ContractOfferResolver;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.event.EventRouter;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Extension to cache the contract offers generated for catalog requests per relevant claims of the requester.
+ * <p>
+ * The caching resolver decorates the resolver of the contract core. The core resolver is injected before this
+ * extension is initialized, which boots it after the contract core, and {@link #initialize(ServiceExtensionContext)}
+ * registers the caching resolver in its place. As this extension declares that it provides the
+ * {@link ContractOfferResolver}, every extension injecting one is booted after it and receives the caching resolver.
+ */
+@Provides(ContractOfferResolver.class)
+public class CatalogCacheExtension implements ServiceExtension {
+
+    @Setting(value = "Seconds generated contract offers are cached for. 0 disables the cache.")
+    private static final String CATALOG_CACHE_TTL_SECONDS = "mvd.catalog.cache.ttl.seconds";
+    private static final long CATALOG_CACHE_TTL_SECONDS_DEFAULT = 60;
+
+    @Setting(value = "Maximum number of cached catalog responses.")
+    private static final String CATALOG_CACHE_MAX_ENTRIES = "mvd.catalog.cache.max.entries";
+    private static final int CATALOG_CACHE_MAX_ENTRIES_DEFAULT = 256;
+
+    @Setting(value = "Comma-separated credential subject claims policies are evaluated against. Only these claims of the requester's verifiable credentials are part of the cache key, so requesters that differ in other credential claims share cached catalogs: every claim a cataloging policy reads must be listed.")
+    private static final String CATALOG_CACHE_CLAIMS = "mvd.catalog.cache.claims";
+    private static final String CATALOG_CACHE_CLAIMS_DEFAULT = "region";
+
+    /**
+     * The resolver of the contract core, which the caching resolver decorates.
+     */
+    @Inject
+    private ContractOfferResolver contractOfferResolver;
+
+    @Inject
+    private EventRouter eventRouter;
+
+    @Inject
+    private Clock clock;
+
+    @Override
+    public String name() {
+        return "Catalog cache";
+    }
+
+    /**
+     * Registers the caching resolver in place of the core resolver, unless the cache is disabled.
+     */
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        var ttl = Duration.ofSeconds(context.getSetting(CATALOG_CACHE_TTL_SECONDS, CATALOG_CACHE_TTL_SECONDS_DEFAULT));
+        if (ttl.isZero()) {
+            return;
+        }
+        var claims = Arrays.stream(context.getSetting(CATALOG_CACHE_CLAIMS, CATALOG_CACHE_CLAIMS_DEFAULT).split(","))
+                .map(String::trim)
+                .filter(claim -> !claim.isEmpty())
+                .collect(Collectors.toSet());
+        var resolver = new CachingContractOfferResolver(contractOfferResolver, new ClaimFingerprint(claims), ttl,
+                context.getSetting(CATALOG_CACHE_MAX_ENTRIES, CATALOG_CACHE_MAX_ENTRIES_DEFAULT), clock);
+        eventRouter.register(resolver);
+        context.registerService(ContractOfferResolver.class, resolver);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.identityhub.spi.credentials.model.Credential;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Reduces the claims of a participant to the parts policies are evaluated against, so that participants with equal
+ * fingerprints are treated alike by all policies.
+ * <p>
+ * Of every verifiable credential, only the selected credential subject claims are taken into account, e.g. the region.
+ * Claims that are no verifiable credentials are taken into account as a whole.
+ */
+class ClaimFingerprint {
+
+    private final Set<String> subjectClaims;
+
+    ClaimFingerprint(Set<String> subjectClaims) {
+        this.subjectClaims = Set.copyOf(subjectClaims);
+    }
+
+    String of(Map<String, Object> claims) {
+        var parts = new TreeSet<String>();
+        claims.forEach((key, value) -> {
+            if (value instanceof Credential && ((Credential) value).getCredentialSubject() != null) {
+                var subject = ((Credential) value).getCredentialSubject().getClaims();
+                subjectClaims.stream()
+                        .filter(subject::containsKey)
+                        .forEach(claim -> parts.add("vc:" + claim + "=" + subject.get(claim)));
+            } else {
+                parts.add(key + "=" + value);
+            }
+        });
+        return String.join("\n", parts);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.policy.model.Operator;
+
+import java.util.Objects;
+
+/**
+ * Operator and right operand of an atomic constraint, which identify the constraint within the scope of one constraint
+ * function.
+ */
+class ConstraintKey {
+
+    private final Operator operator;
+    private final Object rightValue;
+
+    ConstraintKey(Operator operator, Object rightValue) {
+        this.operator = operator;
+        this.rightValue = rightValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ConstraintKey)) {
+            return false;
+        }
+        var other = (ConstraintKey) o;
+        return operator == other.operator && Objects.equals(rightValue, other.rightValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(operator, rightValue);
+    }
+}
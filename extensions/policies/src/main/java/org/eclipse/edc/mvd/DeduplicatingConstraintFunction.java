@@ -0,0 +1,64 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.policy.engine.spi.AtomicConstraintFunction;
+import org.eclipse.edc.policy.engine.spi.PolicyContext;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates every distinct constraint only once per {@link ParticipantAgent}.
+ * <p>
+ * The policies of all contract definitions are evaluated for the same participant agent when a catalog is generated,
+ * and identical constraints are shared by many of them. With this function, the cost of a catalog request scales with
+ * the number of distinct constraints rather than with the number of contract definitions. Only functions whose
+ * decision depends on nothing but the operator, the right operand and the participant agent may be wrapped.
+ * Evaluations that report a problem are not remembered, so that the problem is reported for every policy.
+ */
+class DeduplicatingConstraintFunction implements AtomicConstraintFunction<Permission> {
+
+    private final AtomicConstraintFunction<Permission> delegate;
+    private final ParticipantAgentMemo<Map<ConstraintKey, Boolean>> decisionsByAgent = new ParticipantAgentMemo<>(agent -> new ConcurrentHashMap<>());
+
+    DeduplicatingConstraintFunction(AtomicConstraintFunction<Permission> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean evaluate(Operator operator, Object rightValue, Permission rule, PolicyContext context) {
+        var agent = context.getParticipantAgent();
+        if (agent == null) {
+            return delegate.evaluate(operator, rightValue, rule, context);
+        }
+        var decisions = decisionsByAgent.get(agent);
+        var key = new ConstraintKey(operator, rightValue);
+        var decision = decisions.get(key);
+        if (decision != null) {
+            return decision;
+        }
+
+        var problems = context.getProblems().size();
+        var result = delegate.evaluate(operator, rightValue, rule, context);
+        if (context.getProblems().size() == problems) {
+            decisions.put(key, result);
+        }
+        return result;
+    }
+}
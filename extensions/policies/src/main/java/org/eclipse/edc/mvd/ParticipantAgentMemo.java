@@ -0,0 +1,46 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Values derived from a {@link ParticipantAgent}, computed once per agent and kept as long as the agent is referenced.
+ * <p>
+ * The participant agent of a request is shared by all policy evaluations of that request, so constraint functions
+ * keep what they derive from its claims here instead of deriving it again for every constraint they evaluate.
+ */
+class ParticipantAgentMemo<T> {
+
+    private final Map<ParticipantAgent, T> values = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Function<ParticipantAgent, T> derivation;
+
+    ParticipantAgentMemo(Function<ParticipantAgent, T> derivation) {
+        this.derivation = derivation;
+    }
+
+    /**
+     * Returns the value derived from the agent, deriving it on first use.
+     */
+    T get(ParticipantAgent agent) {
+        return values.computeIfAbsent(agent, derivation);
+    }
+}
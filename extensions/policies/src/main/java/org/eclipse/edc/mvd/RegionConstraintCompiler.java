@@ -0,0 +1,95 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.policy.model.Operator;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static java.lang.String.format;
+
+/**
+ * Compiles a region constraint into a predicate on the regions of a participant, so that its right operand is parsed
+ * once per policy instead of on every evaluation.
+ * <p>
+ * Regions are nominal values, so only {@code EQ}, {@code NEQ} and {@code IN} are meaningful. {@code EQ} and {@code NEQ}
+ * take a single region, {@code IN} takes a collection of regions. Any other operator or right operand is rejected.
+ */
+class RegionConstraintCompiler {
+
+    private RegionConstraintCompiler() {
+    }
+
+    static Predicate<Set<String>> compile(Operator operator, Object rightValue) {
+        if (operator == null) {
+            throw new IllegalArgumentException("Region constraints require an operator");
+        }
+        switch (operator) {
+            case EQ: {
+                var region = region(operator, rightValue);
+                return regions -> regions.contains(region);
+            }
+            case NEQ: {
+                var region = region(operator, rightValue);
+                return regions -> !regions.contains(region);
+            }
+            case IN: {
+                var allowed = regions(rightValue);
+                if (allowed.size() == 1) {
+                    var region = allowed.iterator().next();
+                    return regions -> regions.contains(region);
+                }
+                return regions -> intersects(allowed, regions);
+            }
+            default:
+                throw new IllegalArgumentException(format("Operator %s is not supported by region constraints, use EQ, NEQ or IN", operator));
+        }
+    }
+
+    private static String region(Operator operator, Object rightValue) {
+        if (!(rightValue instanceof String)) {
+            throw new IllegalArgumentException(format("Operator %s of region constraints requires a single region but was %s", operator, rightValue));
+        }
+        return ((String) rightValue).intern();
+    }
+
+    private static Set<String> regions(Object rightValue) {
+        if (!(rightValue instanceof Collection)) {
+            throw new IllegalArgumentException(format("Operator IN of region constraints requires a collection of regions but was %s", rightValue));
+        }
+        var regions = new HashSet<String>();
+        for (var region : (Collection<?>) rightValue) {
+            if (!(region instanceof String)) {
+                throw new IllegalArgumentException(format("Region constraints require regions to be strings but got %s", region));
+            }
+            regions.add(((String) region).intern());
+        }
+        return Set.copyOf(regions);
+    }
+
+    private static boolean intersects(Set<String> allowed, Set<String> regions) {
+        var smaller = allowed.size() <= regions.size() ? allowed : regions;
+        var larger = smaller == allowed ? regions : allowed;
+        for (var region : smaller) {
+            if (larger.contains(region)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -19,18 +19,28 @@ import org.eclipse.edc.policy.engine.spi.AtomicConstraintFunction;
 import org.eclipse.edc.policy.engine.spi.PolicyContext;
 import org.eclipse.edc.policy.model.Operator;
 import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
 import org.eclipse.edc.spi.monitor.Monitor;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import static java.lang.String.format;
 
 public class RegionConstraintFunction implements AtomicConstraintFunction<Permission> {
     
     private static final String REGION_KEY = "region";
+    private static final int MAX_INTERNED_REGION_SETS = 1024;
+    private static final int MAX_COMPILED_CONSTRAINTS = 1024;
     private final Monitor monitor;
+    private final ParticipantAgentMemo<Set<String>> regionsByAgent = new ParticipantAgentMemo<>(agent -> intern(getRegions(agent.getClaims())));
+    private final Map<Set<String>, Set<String>> internedRegionSets = new ConcurrentHashMap<>();
+    // constraints are compiled once per operator and right operand, which are shared by all evaluations of a policy
+    private final Map<ConstraintKey, Predicate<Set<String>>> compiledConstraints = new ConcurrentHashMap<>();
 
     public RegionConstraintFunction(Monitor monitor) {
         this.monitor = monitor;
@@ -38,36 +48,70 @@ public class RegionConstraintFunction implements AtomicConstraintFunction<Permis
 
     @Override
     public boolean evaluate(Operator operator, Object rightValue, Permission rule, PolicyContext context) {
-        var regions = getRegions(context.getParticipantAgent().getClaims());
-        switch (operator) {
-            case EQ:
-                return regions.contains(rightValue);
-            case NEQ:
-                return !regions.contains(rightValue);
-            case IN:
-                return !Collections.disjoint((Collection<?>) rightValue, regions);
-            default:
-                return false;
+        Predicate<Set<String>> constraint;
+        try {
+            constraint = compile(operator, rightValue);
+        } catch (IllegalArgumentException e) {
+            context.reportProblem(e.getMessage());
+            return false;
+        }
+        return constraint.test(regionsOf(context.getParticipantAgent()));
+    }
+
+    /**
+     * Returns the compiled form of a region constraint, compiling it on first use.
+     *
+     * @throws IllegalArgumentException if the operator or the right operand is not supported.
+     */
+    Predicate<Set<String>> compile(Operator operator, Object rightValue) {
+        var key = new ConstraintKey(operator, rightValue);
+        var constraint = compiledConstraints.get(key);
+        if (constraint != null) {
+            return constraint;
+        }
+        constraint = RegionConstraintCompiler.compile(operator, rightValue);
+        if (compiledConstraints.size() < MAX_COMPILED_CONSTRAINTS) {
+            compiledConstraints.putIfAbsent(key, constraint);
         }
+        return constraint;
     }
 
-    private List<String> getRegions(Map<String, Object> claims) {
-        List<String> regions = new ArrayList<>();
-        var verifiableCredentials = claims.values();
-        for (Object vc : verifiableCredentials) {
-            try {
-                var region = getRegion(vc);
-                regions.add(region);
-            } catch (ClassCastException | IllegalArgumentException e) {
-                monitor.warning("Failed getting region from verifiableCredential", e);
+    /**
+     * Returns the regions of the participant's verifiable credentials, as an immutable set shared by all participants
+     * with the same regions.
+     */
+    Set<String> regionsOf(ParticipantAgent agent) {
+        return regionsByAgent.get(agent);
+    }
+
+    private Set<String> getRegions(Map<String, Object> claims) {
+        var regions = new HashSet<String>();
+        for (var vc : claims.values()) {
+            // credentials without a region claim are common and simply do not contribute a region
+            var region = getRegionClaim(vc);
+            if (region instanceof String) {
+                regions.add(((String) region).intern());
+            } else if (region != null) {
+                monitor.warning(format("Ignoring region claim of verifiableCredential, expected a string but got %s", region.getClass().getSimpleName()));
             }
         }
         return regions;
     }
 
-    private String getRegion(Object object) {
-        var credential = (Credential) object;
-        var claims = credential.getCredentialSubject().getClaims();
-        return (String) claims.get(REGION_KEY);
+    @Nullable
+    private Object getRegionClaim(Object object) {
+        if (!(object instanceof Credential)) {
+            return null;
+        }
+        var subject = ((Credential) object).getCredentialSubject();
+        return subject != null && subject.getClaims() != null ? subject.getClaims().get(REGION_KEY) : null;
+    }
+
+    private Set<String> intern(Set<String> regions) {
+        var immutable = Set.copyOf(regions);
+        if (internedRegionSets.size() >= MAX_INTERNED_REGION_SETS) {
+            return internedRegionSets.getOrDefault(immutable, immutable);
+        }
+        return internedRegionSets.computeIfAbsent(immutable, r -> r);
     }
 }
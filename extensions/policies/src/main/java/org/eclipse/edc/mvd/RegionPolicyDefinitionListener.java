@@ -0,0 +1,59 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.connector.policy.spi.store.PolicyDefinitionStore;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventSubscriber;
+import org.eclipse.edc.spi.event.policydefinition.PolicyDefinitionCreated;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import static java.lang.String.format;
+
+/**
+ * Validates the region constraints of policy definitions as soon as they are created, so that an unsupported operator
+ * or right operand is reported when the policy is loaded, not when a catalog request first evaluates it.
+ * <p>
+ * Events are only delivered once the policy definition has been stored, so it cannot be refused here. The policy
+ * engine still rejects an invalid policy on every evaluation through the {@link RegionPolicyValidator}.
+ */
+class RegionPolicyDefinitionListener implements EventSubscriber {
+
+    private final PolicyDefinitionStore store;
+    private final RegionPolicyValidator validator;
+    private final Monitor monitor;
+
+    RegionPolicyDefinitionListener(PolicyDefinitionStore store, RegionPolicyValidator validator, Monitor monitor) {
+        this.store = store;
+        this.validator = validator;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void on(Event<?> event) {
+        if (!(event instanceof PolicyDefinitionCreated)) {
+            return;
+        }
+        var id = ((PolicyDefinitionCreated) event).getPayload().getPolicyDefinitionId();
+        var definition = store.findById(id);
+        if (definition == null) {
+            return;
+        }
+        var problems = validator.validate(definition.getPolicy());
+        if (!problems.isEmpty()) {
+            monitor.severe(format("Policy definition %s is invalid and will be rejected whenever it is evaluated: %s", id, String.join("; ", problems)));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.policy.engine.spi.PolicyContext;
+import org.eclipse.edc.policy.model.AtomicConstraint;
+import org.eclipse.edc.policy.model.Constraint;
+import org.eclipse.edc.policy.model.LiteralExpression;
+import org.eclipse.edc.policy.model.MultiplicityConstraint;
+import org.eclipse.edc.policy.model.Policy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.BiFunction;
+
+import static java.lang.String.format;
+
+/**
+ * Compiles the region constraints of a policy the first time it is validated or the policy engine evaluates it, and
+ * rejects the whole policy if any of them uses an unsupported operator or right operand, instead of letting the
+ * constraint evaluate to false on every request. Policy definitions are validated when they are created by the
+ * {@link RegionPolicyDefinitionListener}.
+ */
+class RegionPolicyValidator implements BiFunction<Policy, PolicyContext, Boolean> {
+
+    private final String leftOperand;
+    private final RegionConstraintFunction function;
+    // policies are compiled once, the verdict is kept as long as the policy itself
+    private final Map<Policy, List<String>> problemsByPolicy = Collections.synchronizedMap(new WeakHashMap<>());
+
+    RegionPolicyValidator(String leftOperand, RegionConstraintFunction function) {
+        this.leftOperand = leftOperand;
+        this.function = function;
+    }
+
+    @Override
+    public Boolean apply(Policy policy, PolicyContext context) {
+        var problems = validate(policy);
+        problems.forEach(context::reportProblem);
+        return problems.isEmpty();
+    }
+
+    /**
+     * Returns the problems of the region constraints of the policy, empty if the policy is valid.
+     */
+    List<String> validate(Policy policy) {
+        return problemsByPolicy.computeIfAbsent(policy, this::compile);
+    }
+
+    private List<String> compile(Policy policy) {
+        var problems = new ArrayList<String>();
+        policy.getPermissions().forEach(permission -> permission.getConstraints().forEach(constraint -> compile(constraint, problems)));
+        return List.copyOf(problems);
+    }
+
+    private void compile(Constraint constraint, List<String> problems) {
+        if (constraint instanceof MultiplicityConstraint) {
+            ((MultiplicityConstraint) constraint).getConstraints().forEach(child -> compile(child, problems));
+        } else if (constraint instanceof AtomicConstraint && isRegionConstraint((AtomicConstraint) constraint)) {
+            var atomic = (AtomicConstraint) constraint;
+            var rightValue = atomic.getRightExpression() instanceof LiteralExpression ? ((LiteralExpression) atomic.getRightExpression()).getValue() : null;
+            try {
+                function.compile(atomic.getOperator(), rightValue);
+            } catch (IllegalArgumentException e) {
+                problems.add(format("Invalid %s constraint: %s", leftOperand, e.getMessage()));
+            }
+        }
+    }
+
+    private boolean isRegionConstraint(AtomicConstraint constraint) {
+        return constraint.getLeftExpression() instanceof LiteralExpression &&
+                leftOperand.equals(((LiteralExpression) constraint.getLeftExpression()).getValue());
+    }
+}
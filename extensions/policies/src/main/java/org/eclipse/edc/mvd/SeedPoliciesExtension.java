@@ -14,16 +14,24 @@
 
 package org.eclipse.edc.mvd;
 
+import io.micrometer.core.instrument.Metrics;
 import org.eclipse.edc.connector.contract.spi.offer.ContractDefinitionService;
+import org.eclipse.edc.connector.policy.spi.store.PolicyDefinitionStore;
+import org.eclipse.edc.policy.engine.spi.AtomicConstraintFunction;
 import org.eclipse.edc.policy.engine.spi.PolicyEngine;
 import org.eclipse.edc.policy.engine.spi.RuleBindingRegistry;
 import org.eclipse.edc.policy.model.Permission;
 import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.event.EventRouter;
 import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.spi.types.TypeManager;
 
+import java.time.Clock;
+import java.time.Duration;
+
 import static org.eclipse.edc.policy.engine.spi.PolicyEngine.ALL_SCOPES;
 
 /**
@@ -33,6 +41,17 @@ public class SeedPoliciesExtension implements ServiceExtension {
 
     private static final String ABS_SPATIAL_POSITION = "ids:absoluteSpatialPosition";
 
+    @Setting(value = "Whether decisions of the ids:absoluteSpatialPosition constraint are cached per credentials of the participant.")
+    private static final String POLICY_DECISION_CACHE_ENABLED = "mvd.policy.decision.cache.enabled";
+
+    @Setting(value = "Maximum number of cached policy decisions.")
+    private static final String POLICY_DECISION_CACHE_MAX_ENTRIES = "mvd.policy.decision.cache.max.entries";
+    private static final int POLICY_DECISION_CACHE_MAX_ENTRIES_DEFAULT = 4096;
+
+    @Setting(value = "Seconds policy decisions are cached for at most. Decisions never outlive the participant's credentials.")
+    private static final String POLICY_DECISION_CACHE_TTL_SECONDS = "mvd.policy.decision.cache.ttl.seconds";
+    private static final long POLICY_DECISION_CACHE_TTL_SECONDS_DEFAULT = 300;
+
     /**
      * Registry that manages rule bindings to policy scopes.
      */
@@ -51,6 +70,15 @@ public class SeedPoliciesExtension implements ServiceExtension {
     @Inject
     private Monitor monitor;
 
+    @Inject
+    private Clock clock;
+
+    @Inject
+    private EventRouter eventRouter;
+
+    @Inject
+    private PolicyDefinitionStore policyDefinitionStore;
+
     @Override
     public String name() {
         return "Seed policies.";
@@ -66,7 +94,19 @@ public class SeedPoliciesExtension implements ServiceExtension {
         ruleBindingRegistry.bind("USE", ALL_SCOPES);
         ruleBindingRegistry.bind(ABS_SPATIAL_POSITION, ContractDefinitionService.CATALOGING_SCOPE);
 
-        policyEngine.registerFunction(ALL_SCOPES, Permission.class, ABS_SPATIAL_POSITION, new RegionConstraintFunction(monitor));
+        var regionConstraintFunction = new RegionConstraintFunction(monitor);
+        var regionPolicyValidator = new RegionPolicyValidator(ABS_SPATIAL_POSITION, regionConstraintFunction);
+        policyEngine.registerPreValidator(ContractDefinitionService.CATALOGING_SCOPE, regionPolicyValidator);
+        eventRouter.register(new RegionPolicyDefinitionListener(policyDefinitionStore, regionPolicyValidator, monitor));
+
+        AtomicConstraintFunction<Permission> regionFunction = regionConstraintFunction;
+        if (context.getSetting(POLICY_DECISION_CACHE_ENABLED, false)) {
+            regionFunction = new CachingConstraintFunction(regionFunction, ABS_SPATIAL_POSITION,
+                    context.getSetting(POLICY_DECISION_CACHE_MAX_ENTRIES, POLICY_DECISION_CACHE_MAX_ENTRIES_DEFAULT),
+                    Duration.ofSeconds(context.getSetting(POLICY_DECISION_CACHE_TTL_SECONDS, POLICY_DECISION_CACHE_TTL_SECONDS_DEFAULT)),
+                    clock, Metrics.globalRegistry);
+        }
+        policyEngine.registerFunction(ALL_SCOPES, Permission.class, ABS_SPATIAL_POSITION, new DeduplicatingConstraintFunction(regionFunction));
     }
 
 }
@@ -0,0 +1,129 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.edc.identityhub.spi.credentials.model.Credential;
+import org.eclipse.edc.identityhub.spi.credentials.model.CredentialSubject;
+import org.eclipse.edc.policy.engine.PolicyContextImpl;
+import org.eclipse.edc.policy.engine.spi.AtomicConstraintFunction;
+import org.eclipse.edc.policy.engine.spi.PolicyContext;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingConstraintFunctionTest {
+
+    private static final Instant NOW = Instant.parse("2023-03-01T10:00:00Z");
+    private static final Permission PERMISSION = Permission.Builder.newInstance().build();
+    private static final String CONSTRAINT = "ids:absoluteSpatialPosition";
+
+    @SuppressWarnings("unchecked")
+    private final AtomicConstraintFunction<Permission> delegate = mock(AtomicConstraintFunction.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Clock clock = mock(Clock.class);
+    private final CachingConstraintFunction function = new CachingConstraintFunction(delegate, CONSTRAINT, 2, Duration.ofMinutes(5), clock, registry);
+
+    @BeforeEach
+    void setUp() {
+        when(delegate.evaluate(any(), any(), any(), any())).thenReturn(true);
+        when(clock.instant()).thenReturn(NOW);
+    }
+
+    @Test
+    void evaluate_sameCredentials_answeredFromCache() {
+        assertThat(function.evaluate(Operator.EQ, "eu", PERMISSION, contextOf(credential("eu", null)))).isTrue();
+        assertThat(function.evaluate(Operator.EQ, "eu", PERMISSION, contextOf(credential("eu", null)))).isTrue();
+
+        verify(delegate, times(1)).evaluate(eq(Operator.EQ), eq("eu"), any(), any());
+        assertThat(registry.get(CachingConstraintFunction.HITS).counter().count()).isEqualTo(1);
+        assertThat(registry.get(CachingConstraintFunction.MISSES).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void evaluate_differentOperatorOrOperandOrCredentials_evaluatedAgain() {
+        function.evaluate(Operator.EQ, "eu", PERMISSION, contextOf(credential("eu", null)));
+        function.evaluate(Operator.NEQ, "eu", PERMISSION, contextOf(credential("eu", null)));
+        function.evaluate(Operator.EQ, "us", PERMISSION, contextOf(credential("eu", null)));
+        function.evaluate(Operator.EQ, "eu", PERMISSION, contextOf(credential("us", null)));
+
+        verify(delegate, times(4)).evaluate(any(), any(), any(), any());
+        assertThat(function.size()).isEqualTo(2);
+    }
+
+    @Test
+    void evaluate_expiresWithTtl() {
+        function.evaluate(Operator.EQ, "eu", PERMISSION, contextOf(credential("eu", null)));
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(5)));
+        function.evaluate(Operator.EQ, "eu", PERMISSION, contextOf(credential("eu", null)));
+
+        verify(delegate, times(2)).evaluate(any(), any(), any(), any());
+    }
+
+    @Test
+    void evaluate_expiresWithEarliestCredential() {
+        var expiration = NOW.plusSeconds(30);
+        function.evaluate(Operator.EQ, "eu", PERMISSION, contextOf(credential("eu", expiration)));
+        when(clock.instant()).thenReturn(NOW.plusSeconds(29));
+        function.evaluate(Operator.EQ, "eu", PERMISSION, contextOf(credential("eu", expiration)));
+        when(clock.instant()).thenReturn(expiration);
+        function.evaluate(Operator.EQ, "eu", PERMISSION, contextOf(credential("eu", expiration)));
+
+        verify(delegate, times(2)).evaluate(any(), any(), any(), any());
+    }
+
+    @Test
+    void evaluate_expiredCredential_notCached() {
+        var expiration = NOW.minusSeconds(1);
+        function.evaluate(Operator.EQ, "eu", PERMISSION, contextOf(credential("eu", expiration)));
+
+        assertThat(function.size()).isZero();
+    }
+
+    private PolicyContext contextOf(Credential credential) {
+        return new PolicyContextImpl(new ParticipantAgent(Map.of("vc", credential), Map.of()), Map.of());
+    }
+
+    private Credential credential(String region, Instant expiration) {
+        return Credential.Builder.newInstance()
+                .id("test")
+                .context("test")
+                .type("VerifiableCredential")
+                .issuer("did:web:issuer")
+                .issuanceDate(Date.from(NOW.minusSeconds(3600)))
+                .expirationDate(expiration != null ? Date.from(expiration) : null)
+                .credentialSubject(CredentialSubject.Builder.newInstance()
+                        .id("test")
+                        .claim("region", region)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.connector.contract.spi.offer.ContractOfferQuery;
+import org.eclipse.edc.connector.contract.spi.offer.ContractOfferResolver;
+import org.eclipse.edc.connector.contract.spi.types.offer.ContractOffer;
+import org.eclipse.edc.identityhub.spi.credentials.model.Credential;
+import org.eclipse.edc.identityhub.spi.credentials.model.CredentialSubject;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.spi.iam.ClaimToken;
+import org.eclipse.edc.spi.types.domain.asset.Asset;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingContractOfferResolverTest {
+
+    private final ContractOfferResolver delegate = mock(ContractOfferResolver.class);
+    private final Clock clock = mock(Clock.class);
+    private final CachingContractOfferResolver resolver = new CachingContractOfferResolver(delegate, new ClaimFingerprint(Set.of("region")), Duration.ofSeconds(60), 16, clock);
+
+    @Test
+    void queryContractOffers_sameRegion_servedFromCache() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        when(delegate.queryContractOffers(any())).thenAnswer(invocation -> Stream.of(offer()));
+
+        var first = resolver.queryContractOffers(query("eu")).toList();
+        var second = resolver.queryContractOffers(query("eu")).toList();
+
+        assertThat(second).isEqualTo(first);
+        verify(delegate, times(1)).queryContractOffers(any());
+    }
+
+    @Test
+    void queryContractOffers_differentRegion_evaluatedSeparately() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        when(delegate.queryContractOffers(any())).thenAnswer(invocation -> Stream.of(offer()));
+
+        resolver.queryContractOffers(query("eu")).toList();
+        resolver.queryContractOffers(query("us")).toList();
+
+        verify(delegate, times(2)).queryContractOffers(any());
+    }
+
+    @Test
+    void queryContractOffers_afterInvalidationOrExpiry_evaluatedAgain() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        when(delegate.queryContractOffers(any())).thenAnswer(invocation -> Stream.of(offer()));
+
+        resolver.queryContractOffers(query("eu")).toList();
+        resolver.invalidate();
+        resolver.queryContractOffers(query("eu")).toList();
+        when(clock.instant()).thenReturn(Instant.EPOCH.plusSeconds(60));
+        resolver.queryContractOffers(query("eu")).toList();
+
+        verify(delegate, times(3)).queryContractOffers(any());
+    }
+
+    private ContractOfferQuery query(String region) {
+        var credential = Credential.Builder.newInstance()
+                .id(UUID.randomUUID().toString())
+                .context("test")
+                .type("VerifiableCredential")
+                .issuer("did:web:" + UUID.randomUUID())
+                .issuanceDate(Date.from(Instant.EPOCH))
+                .credentialSubject(CredentialSubject.Builder.newInstance()
+                        .id("test")
+                        .claim("region", region)
+                        .build())
+                .build();
+        return ContractOfferQuery.builder()
+                .claimToken(ClaimToken.Builder.newInstance().claim(UUID.randomUUID().toString(), credential).build())
+                .build();
+    }
+
+    private ContractOffer offer() {
+        return ContractOffer.Builder.newInstance()
+                .id(UUID.randomUUID().toString())
+                .asset(Asset.Builder.newInstance().id("asset").build())
+                .policy(Policy.Builder.newInstance().build())
+                .contractStart(ZonedDateTime.now())
+                .contractEnd(ZonedDateTime.now().plusDays(1))
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.connector.contract.spi.offer.ContractOfferResolver;
+import org.eclipse.edc.junit.extensions.DependencyInjectionExtension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.spi.event.EventRouter;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.system.injection.ObjectFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Clock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(DependencyInjectionExtension.class)
+class CatalogCacheExtensionTest {
+
+    private final ContractOfferResolver coreResolver = mock(ContractOfferResolver.class);
+    private final EventRouter eventRouter = mock(EventRouter.class);
+    private CatalogCacheExtension extension;
+
+    @BeforeEach
+    void setUp(ServiceExtensionContext context, ObjectFactory factory) {
+        context.registerService(ContractOfferResolver.class, coreResolver);
+        context.registerService(EventRouter.class, eventRouter);
+        context.registerService(Clock.class, Clock.systemUTC());
+        extension = factory.constructInstance(CatalogCacheExtension.class);
+    }
+
+    @Test
+    void initialize_cachingResolverInjectedIntoConsumers(ServiceExtensionContext context, ObjectFactory factory) {
+        extension.initialize(context);
+
+        var consumer = factory.constructInstance(ResolverConsumer.class);
+
+        assertThat(consumer.resolver).isInstanceOf(CachingContractOfferResolver.class).isNotSameAs(coreResolver);
+        verify(eventRouter).register(isA(CachingContractOfferResolver.class));
+    }
+
+    @Test
+    void initialize_cacheDisabled_keepsCoreResolver(ServiceExtensionContext context, ObjectFactory factory) {
+        when(context.getSetting("mvd.catalog.cache.ttl.seconds", 60L)).thenReturn(0L);
+
+        extension.initialize(context);
+
+        assertThat(factory.constructInstance(ResolverConsumer.class).resolver).isSameAs(coreResolver);
+        verifyNoInteractions(eventRouter);
+    }
+
+    /**
+     * Stands in for the extensions injecting the contract offer resolver, such as the IDS catalog API.
+     */
+    public static class ResolverConsumer {
+        @Inject
+        private ContractOfferResolver resolver;
+    }
+}
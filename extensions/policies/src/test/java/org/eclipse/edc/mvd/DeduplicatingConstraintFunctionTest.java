@@ -0,0 +1,84 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.policy.engine.PolicyContextImpl;
+import org.eclipse.edc.policy.engine.spi.AtomicConstraintFunction;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeduplicatingConstraintFunctionTest {
+
+    private static final Permission PERMISSION = Permission.Builder.newInstance().build();
+
+    @SuppressWarnings("unchecked")
+    private final AtomicConstraintFunction<Permission> delegate = mock(AtomicConstraintFunction.class);
+    private final DeduplicatingConstraintFunction function = new DeduplicatingConstraintFunction(delegate);
+
+    @Test
+    void evaluate_sameAgent_evaluatesEachConstraintOnce() {
+        when(delegate.evaluate(any(), any(), any(), any())).thenReturn(true);
+        var agent = new ParticipantAgent(Map.of(), Map.of());
+
+        for (var i = 0; i < 3; i++) {
+            assertThat(function.evaluate(Operator.EQ, "eu", PERMISSION, contextOf(agent))).isTrue();
+            assertThat(function.evaluate(Operator.IN, List.of("eu", "us"), PERMISSION, contextOf(agent))).isTrue();
+        }
+
+        verify(delegate, times(2)).evaluate(any(), any(), any(), any());
+    }
+
+    @Test
+    void evaluate_otherAgent_evaluatedAgain() {
+        when(delegate.evaluate(any(), any(), any(), any())).thenReturn(true);
+
+        function.evaluate(Operator.EQ, "eu", PERMISSION, contextOf(new ParticipantAgent(Map.of(), Map.of())));
+        function.evaluate(Operator.EQ, "eu", PERMISSION, contextOf(new ParticipantAgent(Map.of(), Map.of())));
+
+        verify(delegate, times(2)).evaluate(any(), any(), any(), any());
+    }
+
+    @Test
+    void evaluate_problemReported_notRemembered() {
+        doAnswer(invocation -> {
+            invocation.<PolicyContextImpl>getArgument(3).reportProblem("unsupported");
+            return false;
+        }).when(delegate).evaluate(any(), any(), any(), any());
+        var agent = new ParticipantAgent(Map.of(), Map.of());
+        var second = contextOf(agent);
+
+        function.evaluate(Operator.GT, "eu", PERMISSION, contextOf(agent));
+        assertThat(function.evaluate(Operator.GT, "eu", PERMISSION, second)).isFalse();
+
+        assertThat(second.getProblems()).containsExactly("unsupported");
+    }
+
+    private PolicyContextImpl contextOf(ParticipantAgent agent) {
+        return new PolicyContextImpl(agent, Map.of());
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParticipantAgentMemoTest {
+
+    @Test
+    void get_derivesOncePerAgent() {
+        var derivations = new AtomicInteger();
+        var memo = new ParticipantAgentMemo<>(agent -> derivations.incrementAndGet());
+        var agent = new ParticipantAgent(Map.of(), Map.of());
+        var other = new ParticipantAgent(Map.of(), Map.of());
+
+        assertThat(memo.get(agent)).isEqualTo(1);
+        assertThat(memo.get(agent)).isEqualTo(1);
+        assertThat(memo.get(other)).isEqualTo(2);
+        assertThat(derivations).hasValue(2);
+    }
+}
@@ -29,10 +29,15 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 class RegionConstraintFunctionTest {
 
@@ -106,6 +111,70 @@ class RegionConstraintFunctionTest {
         assertThat(CONSTRAINT_FUNCTION.evaluate(Operator.IN, List.of(EXPECTED_REGION), PERMISSION, policyContext)).isFalse();
     }
 
+    @Test
+    void verifyPolicy_InOperatorNonCollectionRightValue() {
+        var claims = toMappedVerifiableCredentials(REGION_KEY, EXPECTED_REGION);
+        var policyContext = getPolicyContext(claims);
+        assertThat(CONSTRAINT_FUNCTION.evaluate(Operator.IN, EXPECTED_REGION, PERMISSION, policyContext)).isFalse();
+    }
+
+    @Test
+    void verifyPolicy_unsupportedOperator_reportsProblem() {
+        var policyContext = getPolicyContext(toMappedVerifiableCredentials(REGION_KEY, EXPECTED_REGION));
+        assertThat(CONSTRAINT_FUNCTION.evaluate(Operator.LEQ, EXPECTED_REGION, PERMISSION, policyContext)).isFalse();
+        assertThat(policyContext.getProblems()).anySatisfy(problem -> assertThat(problem).contains("LEQ"));
+    }
+
+    @Test
+    void compile_cachedPerOperatorAndRightValue() {
+        var function = new RegionConstraintFunction(MONITOR);
+
+        var constraint = function.compile(Operator.IN, List.of("eu", "us"));
+
+        assertThat(function.compile(Operator.IN, List.of("eu", "us"))).isSameAs(constraint);
+        assertThat(constraint.test(Set.of("us"))).isTrue();
+        assertThat(constraint.test(Set.of("ap"))).isFalse();
+        assertThat(function.compile(Operator.EQ, "eu")).isNotSameAs(function.compile(Operator.NEQ, "eu"));
+    }
+
+    @Test
+    void compile_invalidRightValue_throws() {
+        assertThatThrownBy(() -> CONSTRAINT_FUNCTION.compile(Operator.EQ, List.of(EXPECTED_REGION))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CONSTRAINT_FUNCTION.compile(Operator.IN, List.of(EXPECTED_REGION, 1))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void regionsOf_memoizedPerAgentAndInterned() {
+        var function = new RegionConstraintFunction(MONITOR);
+        var agent = new ParticipantAgent(toMappedVerifiableCredentials(REGION_KEY, EXPECTED_REGION), Map.of());
+        var other = new ParticipantAgent(toMappedVerifiableCredentials(REGION_KEY, EXPECTED_REGION), Map.of());
+
+        var regions = function.regionsOf(agent);
+
+        assertThat(regions).containsExactly(EXPECTED_REGION);
+        assertThat(function.regionsOf(agent)).isSameAs(regions);
+        assertThat(function.regionsOf(other)).isSameAs(regions);
+        assertThatThrownBy(() -> regions.add("us")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void regionsOf_credentialWithoutRegion_notWarned() {
+        var monitor = mock(Monitor.class);
+        var agent = new ParticipantAgent(toMappedVerifiableCredentials("membership", "gold"), Map.of());
+
+        assertThat(new RegionConstraintFunction(monitor).regionsOf(agent)).isEmpty();
+        verify(monitor, never()).warning(anyString());
+    }
+
+    @Test
+    void regionsOf_nonStringRegion_warned() {
+        var monitor = mock(Monitor.class);
+        var agent = new ParticipantAgent(toMappedVerifiableCredentials(REGION_KEY, List.of(EXPECTED_REGION)), Map.of());
+
+        assertThat(new RegionConstraintFunction(monitor).regionsOf(agent)).isEmpty();
+        verify(monitor).warning(anyString());
+    }
+
     private PolicyContext getPolicyContext(Map<String, Object> claims) {
         return new PolicyContextImpl(new ParticipantAgent(claims, Map.of()), Map.of());
     }
@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.connector.policy.spi.PolicyDefinition;
+import org.eclipse.edc.connector.policy.spi.store.PolicyDefinitionStore;
+import org.eclipse.edc.policy.model.Action;
+import org.eclipse.edc.policy.model.AtomicConstraint;
+import org.eclipse.edc.policy.model.LiteralExpression;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.spi.event.policydefinition.PolicyDefinitionCreated;
+import org.eclipse.edc.spi.event.policydefinition.PolicyDefinitionDeleted;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RegionPolicyDefinitionListenerTest {
+
+    private static final String ABS_SPATIAL_POSITION = "ids:absoluteSpatialPosition";
+    private static final String POLICY_ID = "region-policy";
+
+    private final PolicyDefinitionStore store = mock(PolicyDefinitionStore.class);
+    private final Monitor monitor = mock(Monitor.class);
+    private final RegionPolicyDefinitionListener listener = new RegionPolicyDefinitionListener(store,
+            new RegionPolicyValidator(ABS_SPATIAL_POSITION, new RegionConstraintFunction(monitor)), monitor);
+
+    @Test
+    void on_createdWithUnsupportedOperator_reportsPolicyDefinition() {
+        when(store.findById(POLICY_ID)).thenReturn(definition(Operator.GT, "eu"));
+
+        listener.on(PolicyDefinitionCreated.Builder.newInstance().policyDefinitionId(POLICY_ID).at(0).build());
+
+        verify(monitor).severe(contains(POLICY_ID));
+    }
+
+    @Test
+    void on_createdWithSupportedConstraint_reportsNothing() {
+        when(store.findById(POLICY_ID)).thenReturn(definition(Operator.EQ, "eu"));
+
+        listener.on(PolicyDefinitionCreated.Builder.newInstance().policyDefinitionId(POLICY_ID).at(0).build());
+
+        verify(monitor, never()).severe(anyString());
+    }
+
+    @Test
+    void on_otherEvent_ignored() {
+        listener.on(PolicyDefinitionDeleted.Builder.newInstance().policyDefinitionId(POLICY_ID).at(0).build());
+
+        verifyNoInteractions(store);
+    }
+
+    private PolicyDefinition definition(Operator operator, Object rightValue) {
+        var constraint = AtomicConstraint.Builder.newInstance()
+                .leftExpression(new LiteralExpression(ABS_SPATIAL_POSITION))
+                .operator(operator)
+                .rightExpression(new LiteralExpression(rightValue))
+                .build();
+        var permission = Permission.Builder.newInstance().action(Action.Builder.newInstance().type("USE").build()).constraint(constraint).build();
+        return PolicyDefinition.Builder.newInstance().id(POLICY_ID).policy(Policy.Builder.newInstance().permission(permission).build()).build();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.policy.engine.PolicyContextImpl;
+import org.eclipse.edc.policy.model.Action;
+import org.eclipse.edc.policy.model.AndConstraint;
+import org.eclipse.edc.policy.model.AtomicConstraint;
+import org.eclipse.edc.policy.model.Constraint;
+import org.eclipse.edc.policy.model.LiteralExpression;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RegionPolicyValidatorTest {
+
+    private static final String ABS_SPATIAL_POSITION = "ids:absoluteSpatialPosition";
+
+    private final RegionPolicyValidator validator = new RegionPolicyValidator(ABS_SPATIAL_POSITION, new RegionConstraintFunction(mock(Monitor.class)));
+
+    @Test
+    void apply_supportedConstraints() {
+        var policy = policy(constraint(ABS_SPATIAL_POSITION, Operator.EQ, "eu"), constraint(ABS_SPATIAL_POSITION, Operator.IN, List.of("eu", "us")));
+        var context = context();
+
+        assertThat(validator.apply(policy, context)).isTrue();
+        assertThat(context.getProblems()).isEmpty();
+    }
+
+    @Test
+    void apply_unsupportedOperator_rejectsPolicy() {
+        var policy = policy(AndConstraint.Builder.newInstance()
+                .constraint(constraint(ABS_SPATIAL_POSITION, Operator.GT, "eu"))
+                .build());
+        var context = context();
+
+        assertThat(validator.apply(policy, context)).isFalse();
+        assertThat(context.getProblems()).singleElement().satisfies(problem -> assertThat(problem).contains(ABS_SPATIAL_POSITION).contains("GT"));
+        assertThat(validator.apply(policy, context())).isFalse();
+    }
+
+    @Test
+    void apply_otherConstraintsIgnored() {
+        var policy = policy(constraint("ids:other", Operator.GT, "eu"));
+
+        assertThat(validator.apply(policy, context())).isTrue();
+    }
+
+    private Policy policy(Constraint... constraints) {
+        var permission = Permission.Builder.newInstance().action(Action.Builder.newInstance().type("USE").build());
+        for (var constraint : constraints) {
+            permission.constraint(constraint);
+        }
+        return Policy.Builder.newInstance().permission(permission.build()).build();
+    }
+
+    private AtomicConstraint constraint(String leftOperand, Operator operator, Object rightValue) {
+        return AtomicConstraint.Builder.newInstance()
+                .leftExpression(new LiteralExpression(leftOperand))
+                .operator(operator)
+                .rightExpression(new LiteralExpression(rightValue))
+                .build();
+    }
+
+    private PolicyContextImpl context() {
+        return new PolicyContextImpl(new ParticipantAgent(Map.of(), Map.of()), Map.of());
+    }
+}
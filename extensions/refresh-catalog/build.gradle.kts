@@ -5,8 +5,22 @@ plugins {
 dependencies {
     implementation(fcc.spi)
     implementation(edc.spi.ids)
+    implementation(edc.spi.contract)
+    implementation(edc.spi.web)
     implementation(edc.util)
     implementation(edc.identity.did.core)
     implementation(edc.identity.did.web)
     implementation(registrationService.core.client)
+    implementation(libs.okhttp)
+    implementation(libs.micrometer.core)
+    implementation(libs.jakarta.annotation.api)
+
+    testImplementation(edc.junit)
+
+    // JAX-RS runtime for building responses in unit tests
+    testRuntimeOnly(libs.glassfish.jersey.common)
+    // in-process JAX-RS server for requests through the real routes and filters
+    testImplementation(libs.glassfish.jersey.server)
+    testImplementation(libs.glassfish.jersey.jdkhttp)
+    testRuntimeOnly(libs.glassfish.jersey.hk2)
 }
@@ -0,0 +1,158 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Resolves did:web DID documents over HTTP and keeps them in a {@link DidDocumentCache}.
+ * <p>
+ * Cached documents are served without a request while they are fresh according to the Cache-Control header of the
+ * DID host. Stale documents are revalidated with a conditional GET using their ETag/Last-Modified validators; when the
+ * host answers 304 Not Modified, the already parsed document is reused.
+ */
+class CachingWebDidResolver {
+
+    private static final String DID_WEB_PREFIX = "did:web:";
+    private static final String DID_DOCUMENT = "did.json";
+    private static final String WELL_KNOWN = ".well-known";
+    private static final int NOT_MODIFIED = 304;
+
+    private final OkHttpClient httpClient;
+    private final TypeManager typeManager;
+    private final DidDocumentCache cache;
+    private final boolean useHttps;
+    private final Duration defaultMaxAge;
+    private final Clock clock;
+    private final Monitor monitor;
+
+    CachingWebDidResolver(OkHttpClient httpClient, TypeManager typeManager, DidDocumentCache cache, boolean useHttps, Duration defaultMaxAge, Clock clock, Monitor monitor) {
+        this.httpClient = httpClient;
+        this.typeManager = typeManager;
+        this.cache = cache;
+        this.useHttps = useHttps;
+        this.defaultMaxAge = defaultMaxAge;
+        this.clock = clock;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Converts a did:web DID into the URL of its DID document, e.g. {@code did:web:example.com:user:alice} into
+     * {@code https://example.com/user/alice/did.json}.
+     */
+    static String toDocumentUrl(String did, boolean useHttps) {
+        var segments = did.substring(DID_WEB_PREFIX.length()).split(":");
+        var host = URLDecoder.decode(segments[0], UTF_8);
+        var path = segments.length == 1 ? WELL_KNOWN : Arrays.stream(segments, 1, segments.length)
+                .map(segment -> URLDecoder.decode(segment, UTF_8))
+                .collect(Collectors.joining("/"));
+        return format("%s://%s/%s/%s", useHttps ? "https" : "http", host, path, DID_DOCUMENT);
+    }
+
+    /**
+     * Returns the host (including the port, if any) serving the DID document of the given did:web DID, e.g.
+     * {@code localhost:8080} for {@code did:web:localhost%3A8080:user:alice}, or null if the DID is not a did:web DID.
+     */
+    @Nullable
+    static String hostOf(String did) {
+        if (!isWebDid(did)) {
+            return null;
+        }
+        var end = did.indexOf(':', DID_WEB_PREFIX.length());
+        return URLDecoder.decode(did.substring(DID_WEB_PREFIX.length(), end < 0 ? did.length() : end), UTF_8);
+    }
+
+    boolean canResolve(String did) {
+        return isWebDid(did);
+    }
+
+    private static boolean isWebDid(String did) {
+        return did != null && did.startsWith(DID_WEB_PREFIX) && did.length() > DID_WEB_PREFIX.length();
+    }
+
+    /**
+     * Resolves the DID document of the given did:web DID, from the cache if possible.
+     */
+    Result<DidDocumentCache.Entry> resolve(String did) {
+        var cached = cache.get(did);
+        var now = clock.instant();
+        if (cached != null && cached.isFresh(now)) {
+            return Result.success(cached);
+        }
+
+        var url = toDocumentUrl(did, useHttps);
+        var requestBuilder = new Request.Builder().url(url).get();
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                requestBuilder.header("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                requestBuilder.header("If-Modified-Since", cached.getLastModified());
+            }
+        }
+
+        try (var response = httpClient.newCall(requestBuilder.build()).execute()) {
+            if (response.code() == NOT_MODIFIED && cached != null) {
+                monitor.debug(() -> format("DID document of %s not modified, reusing cached document", did));
+                var revalidated = cached.revalidated(freshUntil(response, now));
+                cache.put(did, revalidated);
+                return Result.success(revalidated);
+            }
+            if (!response.isSuccessful() || response.body() == null) {
+                return Result.failure(format("Failed to fetch DID document of %s from %s: HTTP %d", did, url, response.code()));
+            }
+
+            var document = typeManager.readValue(response.body().string(), DidDocument.class);
+            var entry = new DidDocumentCache.Entry(document, response.header("ETag"), response.header("Last-Modified"), freshUntil(response, now));
+            if (response.cacheControl().noStore()) {
+                cache.remove(did);
+            } else {
+                cache.put(did, entry);
+            }
+            return Result.success(entry);
+        } catch (IOException | RuntimeException ex) {
+            return Result.failure(format("Failed to fetch DID document of %s from %s: %s", did, url, ex.getMessage()));
+        }
+    }
+
+    private Instant freshUntil(Response response, Instant now) {
+        var cacheControl = response.cacheControl();
+        if (cacheControl.noCache() || cacheControl.noStore()) {
+            return now;
+        }
+        if (cacheControl.maxAgeSeconds() >= 0) {
+            return now.plusSeconds(cacheControl.maxAgeSeconds());
+        }
+        return now.plus(defaultMaxAge);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Notification a provider posts to its subscribers when its catalog changed.
+ */
+public class CatalogChangeNotification {
+
+    /**
+     * Header carrying the token of the subscription a notification is sent for.
+     */
+    public static final String TOKEN_HEADER = "X-Catalog-Subscription-Token";
+
+    private final String targetUrl;
+
+    @JsonCreator
+    public CatalogChangeNotification(@JsonProperty("targetUrl") String targetUrl) {
+        this.targetUrl = targetUrl;
+    }
+
+    /**
+     * Target URL of the changed provider's node, as given by the consumer when subscribing.
+     */
+    public String getTargetUrl() {
+        return targetUrl;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.eclipse.edc.spi.event.Event;
+import org.eclipse.edc.spi.event.EventSubscriber;
+import org.eclipse.edc.spi.event.asset.AssetCreated;
+import org.eclipse.edc.spi.event.asset.AssetDeleted;
+import org.eclipse.edc.spi.event.contractdefinition.ContractDefinitionCreated;
+import org.eclipse.edc.spi.event.contractdefinition.ContractDefinitionDeleted;
+import org.eclipse.edc.spi.event.policydefinition.PolicyDefinitionCreated;
+import org.eclipse.edc.spi.event.policydefinition.PolicyDefinitionDeleted;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.lang.String.format;
+
+/**
+ * Notifies the subscribers in a {@link CatalogSubscriptionRegistry} when the assets, policies or contract definitions
+ * of this connector change, so that they re-crawl its catalog.
+ * <p>
+ * Changes are coalesced: the first change schedules a notification after the debounce delay, and all further changes
+ * up to then are covered by it. Notifications are posted asynchronously and are not retried, a subscriber that misses
+ * one still picks up the change with its next periodic crawl.
+ */
+class CatalogChangeNotifier implements EventSubscriber {
+
+    private static final Set<Class<?>> CATALOG_CHANGES = Set.of(AssetCreated.class, AssetDeleted.class, ContractDefinitionCreated.class,
+            ContractDefinitionDeleted.class, PolicyDefinitionCreated.class, PolicyDefinitionDeleted.class);
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private final CatalogSubscriptionRegistry registry;
+    private final OkHttpClient httpClient;
+    private final ObjectMapper mapper;
+    private final ScheduledExecutorService executor;
+    private final Duration debounce;
+    private final Monitor monitor;
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    CatalogChangeNotifier(CatalogSubscriptionRegistry registry, OkHttpClient httpClient, ObjectMapper mapper, ScheduledExecutorService executor, Duration debounce, Monitor monitor) {
+        this.registry = registry;
+        this.httpClient = httpClient;
+        this.mapper = mapper;
+        this.executor = executor;
+        this.debounce = debounce;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void on(Event<?> event) {
+        if (isCatalogChange(event) && pending.compareAndSet(false, true)) {
+            executor.schedule(this::notifySubscribers, debounce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static boolean isCatalogChange(Event<?> event) {
+        return CATALOG_CHANGES.stream().anyMatch(type -> type.isInstance(event));
+    }
+
+    void notifySubscribers() {
+        pending.set(false);
+        var subscriptions = registry.getActive();
+        monitor.debug(() -> format("CatalogChangeNotifier: notifying %d subscriber(s) of a catalog change", subscriptions.size()));
+        subscriptions.forEach(this::notify);
+    }
+
+    private void notify(CatalogSubscription subscription) {
+        Request request;
+        try {
+            request = new Request.Builder()
+                    .url(subscription.getCallbackUrl())
+                    .header(CatalogChangeNotification.TOKEN_HEADER, subscription.getToken())
+                    .post(RequestBody.create(mapper.writeValueAsBytes(new CatalogChangeNotification(subscription.getTargetUrl())), JSON))
+                    .build();
+        } catch (IllegalArgumentException | JsonProcessingException ex) {
+            monitor.warning(format("CatalogChangeNotifier: cannot notify %s: %s", subscription.getCallbackUrl(), ex.getMessage()));
+            return;
+        }
+        httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        monitor.debug(() -> format("CatalogChangeNotifier: %s answered notification with HTTP %d", subscription.getCallbackUrl(), response.code()));
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException ex) {
+                monitor.debug(() -> format("CatalogChangeNotifier: failed to notify %s: %s", subscription.getCallbackUrl(), ex.getMessage()));
+            }
+        });
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.eclipse.edc.connector.contract.spi.types.offer.ContractOffer;
+import org.eclipse.edc.spi.EdcException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Computes a content hash over the contract offers crawled from one node, so that an unchanged catalog can be told
+ * apart from a changed one.
+ * <p>
+ * Only the parts of an offer that are defined by the provider are hashed: the stable part of the offer id, the asset
+ * properties and the policy. The contract validity period is left out, as providers compute it from the time of the
+ * request, and so is the random part of the offer id, as providers issue a new one with every catalog request.
+ */
+class CatalogContentHasher {
+
+    private final ObjectMapper mapper;
+
+    CatalogContentHasher(ObjectMapper mapper) {
+        this.mapper = mapper.copy().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    }
+
+    String hash(Collection<ContractOffer> offers) {
+        var digest = sha256();
+        offers.stream()
+                .sorted(Comparator.comparing(CatalogContentHasher::stableIdOf))
+                .forEach(offer -> {
+                    digest.update(stableIdOf(offer).getBytes(UTF_8));
+                    if (offer.getAsset() != null) {
+                        var properties = new TreeMap<>(offer.getAsset().getProperties());
+                        properties.remove(NodeAwareFederatedCacheStore.PROPERTY_ORIGINATOR);
+                        digest.update(toJson(properties));
+                    }
+                    digest.update(toJson(offer.getPolicy()));
+                });
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Returns the part of an offer's identity that stays the same across catalog requests.
+     * <p>
+     * Providers issue offer ids as {@code <contract definition id>:<random UUID>}, with a new UUID for every catalog
+     * request. As a contract definition covers many assets, its id is combined with the asset id of the offer.
+     */
+    static String stableIdOf(ContractOffer offer) {
+        var definitionId = String.valueOf(offer.getId());
+        var separator = definitionId.lastIndexOf(':');
+        if (separator >= 0 && isUuid(definitionId.substring(separator + 1))) {
+            definitionId = definitionId.substring(0, separator);
+        }
+        var assetId = offer.getAsset() != null ? offer.getAsset().getId() : null;
+        return assetId != null ? definitionId + ":" + assetId : definitionId;
+    }
+
+    /**
+     * Combines the hashes of the single offers of a catalog, keyed by stable offer id, into a hash of the whole catalog.
+     */
+    String combine(Map<String, String> offerHashes) {
+        var digest = sha256();
+        new TreeMap<>(offerHashes).forEach((id, hash) -> {
+            digest.update(id.getBytes(UTF_8));
+            digest.update(hash.getBytes(UTF_8));
+        });
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static boolean isUuid(String value) {
+        try {
+            UUID.fromString(value);
+            return value.length() == 36;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException ex) {
+            throw new EdcException(ex);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new EdcException(ex);
+        }
+    }
+}
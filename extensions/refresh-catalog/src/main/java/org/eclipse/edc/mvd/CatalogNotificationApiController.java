@@ -0,0 +1,51 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.ForbiddenException;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * API receiving the catalog change notifications of the providers this connector subscribed to.
+ */
+@Consumes({ MediaType.APPLICATION_JSON })
+@Produces({ MediaType.APPLICATION_JSON })
+@Path("/catalog-notifications")
+public class CatalogNotificationApiController {
+
+    private final CatalogSubscriber subscriber;
+    private final CrawlScheduler scheduler;
+
+    CatalogNotificationApiController(CatalogSubscriber subscriber, CrawlScheduler scheduler) {
+        this.subscriber = subscriber;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Makes the changed node due for crawling in the next crawler run.
+     */
+    @POST
+    public void notifyChange(CatalogChangeNotification notification, @HeaderParam(CatalogChangeNotification.TOKEN_HEADER) String token) {
+        if (notification == null || !subscriber.verify(notification.getTargetUrl(), token)) {
+            throw new ForbiddenException("Unknown catalog subscription");
+        }
+        scheduler.markDue(notification.getTargetUrl());
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.spi.iam.TokenParameters;
+import org.eclipse.edc.spi.iam.TokenRepresentation;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Subscribes this connector to the catalog change notifications of all federated cache nodes, and renews the
+ * subscriptions every time it runs.
+ * <p>
+ * Subscriptions are authenticated with a token of this connector's identity, issued for the node's IDS endpoint.
+ * Every node gets its own random token, which the provider sends back with its notifications, so that notifications
+ * can be checked to come from the subscribed provider. Nodes that accepted the subscription are crawled at the maximum
+ * interval of the {@link CrawlScheduler} as a safety net, and re-crawled as soon as they announce a change. Nodes that
+ * do not offer subscriptions keep being crawled at adaptive intervals.
+ */
+class CatalogSubscriber implements Runnable {
+
+    static final String SUBSCRIPTIONS_PATH = "catalog-subscriptions";
+    private static final String IDS_DATA_PATH = "/data";
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private final Supplier<List<FederatedCacheNode>> nodes;
+    private final String callbackUrl;
+    private final Function<TokenParameters, Result<TokenRepresentation>> credentialsProvider;
+    private final OkHttpClient httpClient;
+    private final ObjectMapper mapper;
+    private final CrawlScheduler scheduler;
+    private final Monitor monitor;
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Creates a subscriber.
+     *
+     * @param nodes               supplies the nodes to subscribe to.
+     * @param callbackUrl         URL of this connector's catalog notification API, as reachable by the providers.
+     * @param credentialsProvider obtains the tokens authenticating this connector to the providers.
+     * @param httpClient          client sending the subscriptions.
+     * @param mapper              mapper serializing the subscriptions.
+     * @param scheduler           scheduler the crawls of the subscribed nodes are scheduled by.
+     * @param monitor             monitor.
+     */
+    CatalogSubscriber(Supplier<List<FederatedCacheNode>> nodes, String callbackUrl, Function<TokenParameters, Result<TokenRepresentation>> credentialsProvider,
+                      OkHttpClient httpClient, ObjectMapper mapper, CrawlScheduler scheduler, Monitor monitor) {
+        this.nodes = nodes;
+        this.callbackUrl = callbackUrl;
+        this.credentialsProvider = credentialsProvider;
+        this.httpClient = httpClient;
+        this.mapper = mapper;
+        this.scheduler = scheduler;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Returns the URL of the subscription API of the connector with the given IDS endpoint, e.g.
+     * {@code http://company1:8282/api/v1/ids/catalog-subscriptions} for {@code http://company1:8282/api/v1/ids/data}.
+     */
+    static String subscriptionUrl(String targetUrl) {
+        var base = targetUrl.endsWith("/") ? targetUrl.substring(0, targetUrl.length() - 1) : targetUrl;
+        if (base.endsWith(IDS_DATA_PATH)) {
+            base = base.substring(0, base.length() - IDS_DATA_PATH.length());
+        }
+        return base + "/" + SUBSCRIPTIONS_PATH;
+    }
+
+    @Override
+    public void run() {
+        try {
+            var current = nodes.get();
+            var targetUrls = current.stream().map(FederatedCacheNode::getTargetUrl).collect(Collectors.toSet());
+            tokens.keySet().retainAll(targetUrls);
+            current.forEach(this::subscribe);
+        } catch (Exception ex) {
+            monitor.warning("CatalogSubscriber: failed to subscribe to federated cache nodes", ex);
+        }
+    }
+
+    /**
+     * Checks whether a notification for the node with the given target URL carries the token of its subscription.
+     */
+    boolean verify(String targetUrl, String token) {
+        var expected = targetUrl != null ? tokens.get(targetUrl) : null;
+        return expected != null && token != null && MessageDigest.isEqual(expected.getBytes(UTF_8), token.getBytes(UTF_8));
+    }
+
+    private void subscribe(FederatedCacheNode node) {
+        var targetUrl = node.getTargetUrl();
+        var token = tokens.computeIfAbsent(targetUrl, url -> newToken());
+        var credentials = credentialsProvider.apply(TokenParameters.Builder.newInstance().audience(targetUrl).build());
+        if (credentials.failed()) {
+            scheduler.setSubscribed(targetUrl, false);
+            monitor.debug(() -> format("CatalogSubscriber: failed to obtain credentials for %s: %s", targetUrl, credentials.getFailureDetail()));
+            return;
+        }
+        Request request;
+        try {
+            request = new Request.Builder()
+                    .url(subscriptionUrl(targetUrl))
+                    .header("Authorization", "Bearer " + credentials.getContent().getToken())
+                    .post(RequestBody.create(mapper.writeValueAsBytes(new CatalogSubscription(callbackUrl, targetUrl, token)), JSON))
+                    .build();
+        } catch (IllegalArgumentException | JsonProcessingException ex) {
+            scheduler.setSubscribed(targetUrl, false);
+            return;
+        }
+        httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                try (response) {
+                    scheduler.setSubscribed(targetUrl, response.isSuccessful());
+                    if (!response.isSuccessful()) {
+                        monitor.debug(() -> format("CatalogSubscriber: %s declined subscription with HTTP %d", request.url(), response.code()));
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException ex) {
+                scheduler.setSubscribed(targetUrl, false);
+                monitor.debug(() -> format("CatalogSubscriber: failed to subscribe at %s: %s", request.url(), ex.getMessage()));
+            }
+        });
+    }
+
+    private String newToken() {
+        var bytes = new byte[32];
+        random.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+}
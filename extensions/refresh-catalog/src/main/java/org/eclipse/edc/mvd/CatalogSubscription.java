@@ -0,0 +1,56 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A consumer's subscription to catalog change notifications of a provider.
+ */
+public class CatalogSubscription {
+
+    private final String callbackUrl;
+    private final String targetUrl;
+    private final String token;
+
+    /**
+     * Creates a subscription.
+     *
+     * @param callbackUrl URL the provider posts its notifications to.
+     * @param targetUrl   target URL of the provider's node in the consumer's directory, sent back with every notification.
+     * @param token       secret sent back with every notification, so that the consumer can tell it came from the provider.
+     */
+    @JsonCreator
+    public CatalogSubscription(@JsonProperty("callbackUrl") String callbackUrl,
+                               @JsonProperty("targetUrl") String targetUrl,
+                               @JsonProperty("token") String token) {
+        this.callbackUrl = callbackUrl;
+        this.targetUrl = targetUrl;
+        this.token = token;
+    }
+
+    public String getCallbackUrl() {
+        return callbackUrl;
+    }
+
+    public String getTargetUrl() {
+        return targetUrl;
+    }
+
+    public String getToken() {
+        return token;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ClientErrorException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.ForbiddenException;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.NotAuthorizedException;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.spi.iam.IdentityService;
+import org.eclipse.edc.spi.iam.TokenRepresentation;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * API through which consumers subscribe to catalog change notifications of this connector.
+ * <p>
+ * Callers authenticate with the same DID-signed token as for IDS requests, and are identified by the issuer claim of
+ * the token as verified by the {@link IdentityService}. A participant can only subscribe callback
+ * URLs on the origin (scheme, host and port) of its node registered in the node directory, so that notifications are
+ * never posted to arbitrary hosts, and can only remove its own subscriptions. Subscriptions expire unless they are
+ * renewed by subscribing again within the lease time.
+ */
+@Consumes({ MediaType.APPLICATION_JSON })
+@Produces({ MediaType.APPLICATION_JSON })
+@Path("/catalog-subscriptions")
+public class CatalogSubscriptionApiController {
+
+    private static final String BEARER = "Bearer ";
+    private static final String ISSUER_CLAIM = "iss";
+
+    private final CatalogSubscriptionRegistry registry;
+    private final IdentityService identityService;
+    private final String audience;
+    private final Function<String, FederatedCacheNode> registeredNodes;
+
+    /**
+     * Creates a controller.
+     *
+     * @param registry        the subscriptions.
+     * @param identityService service verifying the callers' tokens.
+     * @param audience        audience the callers' tokens must be issued for, the IDS endpoint of this connector.
+     * @param registeredNodes looks up the registered node of a participant by its DID, null for unknown participants.
+     */
+    CatalogSubscriptionApiController(CatalogSubscriptionRegistry registry, IdentityService identityService, String audience,
+                                     Function<String, FederatedCacheNode> registeredNodes) {
+        this.registry = registry;
+        this.identityService = identityService;
+        this.audience = audience;
+        this.registeredNodes = registeredNodes;
+    }
+
+    /**
+     * Adds or renews a subscription of the calling participant.
+     */
+    @POST
+    public void subscribe(@HeaderParam(HttpHeaders.AUTHORIZATION) String authorization, CatalogSubscription subscription) {
+        var participant = authenticate(authorization);
+        if (subscription == null || !isHttpUrl(subscription.getCallbackUrl()) || isBlank(subscription.getTargetUrl()) || isBlank(subscription.getToken())) {
+            throw new BadRequestException("A subscription needs an http(s) callbackUrl, a targetUrl and a token");
+        }
+        var node = registeredNodes.apply(participant);
+        if (node == null) {
+            throw new ForbiddenException("Not a registered participant: " + participant);
+        }
+        if (!isSameOrigin(subscription.getCallbackUrl(), node.getTargetUrl())) {
+            throw new ForbiddenException("The callbackUrl must be on the origin of the registered endpoint " + node.getTargetUrl());
+        }
+        if (!registry.subscribe(participant, subscription)) {
+            throw new ClientErrorException("Maximum number of catalog subscriptions reached", Response.Status.TOO_MANY_REQUESTS);
+        }
+    }
+
+    /**
+     * Removes a subscription of the calling participant.
+     */
+    @DELETE
+    public void unsubscribe(@HeaderParam(HttpHeaders.AUTHORIZATION) String authorization,
+                            @QueryParam("callbackUrl") String callbackUrl, @QueryParam("targetUrl") String targetUrl) {
+        var participant = authenticate(authorization);
+        if (!registry.unsubscribe(participant, callbackUrl, targetUrl)) {
+            throw new NotFoundException("No catalog subscription for " + callbackUrl);
+        }
+    }
+
+    /**
+     * Verifies the caller's token and returns the DID it was issued by, as reported in the claims of the verified token.
+     */
+    private String authenticate(@Nullable String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER)) {
+            throw new NotAuthorizedException("A bearer token is required", BEARER.trim());
+        }
+        var token = authorization.substring(BEARER.length()).trim();
+        var verification = identityService.verifyJwtToken(TokenRepresentation.Builder.newInstance().token(token).build(), audience);
+        var issuer = verification.succeeded() && verification.getContent().getClaims() != null ? verification.getContent().getClaims().get(ISSUER_CLAIM) : null;
+        if (!(issuer instanceof String)) {
+            throw new NotAuthorizedException("Invalid token", BEARER.trim());
+        }
+        return (String) issuer;
+    }
+
+    static boolean isSameOrigin(String url, String registeredUrl) {
+        try {
+            var uri = new URI(url);
+            var registered = new URI(registeredUrl);
+            return uri.getScheme() != null && uri.getHost() != null &&
+                    uri.getScheme().equalsIgnoreCase(registered.getScheme()) &&
+                    uri.getHost().toLowerCase(Locale.ROOT).equals(Objects.toString(registered.getHost(), "").toLowerCase(Locale.ROOT)) &&
+                    portOf(uri) == portOf(registered);
+        } catch (URISyntaxException ex) {
+            return false;
+        }
+    }
+
+    private static int portOf(URI uri) {
+        if (uri.getPort() != -1) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    private static boolean isHttpUrl(String url) {
+        if (isBlank(url)) {
+            return false;
+        }
+        try {
+            var scheme = new URI(url).getScheme();
+            return "http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme);
+        } catch (URISyntaxException ex) {
+            return false;
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
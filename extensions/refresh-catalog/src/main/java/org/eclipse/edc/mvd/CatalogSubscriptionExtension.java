@@ -0,0 +1,116 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import okhttp3.OkHttpClient;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.event.EventRouter;
+import org.eclipse.edc.spi.iam.IdentityService;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ExecutorInstrumentation;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.eclipse.edc.web.spi.WebService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Extension that lets other connectors subscribe to changes of the catalog of this connector, and notifies them when
+ * its assets, policies or contract definitions change.
+ */
+public class CatalogSubscriptionExtension implements ServiceExtension {
+
+    @Setting(value = "Whether other connectors may subscribe to notifications about changes of the catalog of this connector.")
+    private static final String SUBSCRIPTIONS_ENABLED = "mvd.catalog.subscriptions.enabled";
+
+    @Setting(value = "Seconds after which a catalog change subscription expires unless it is renewed.")
+    private static final String SUBSCRIPTION_LEASE_SECONDS = "mvd.catalog.subscriptions.lease.seconds";
+    private static final long SUBSCRIPTION_LEASE_SECONDS_DEFAULT = 900;
+
+    @Setting(value = "Maximum number of catalog change subscriptions accepted.")
+    private static final String SUBSCRIPTIONS_MAX = "mvd.catalog.subscriptions.max";
+    private static final int SUBSCRIPTIONS_MAX_DEFAULT = 1000;
+
+    @Setting(value = "Audience the tokens of subscribing connectors must be issued for. Defaults to the IDS endpoint of this connector, ids.webhook.address + '/api/v1/ids/data'.")
+    private static final String SUBSCRIPTIONS_AUDIENCE = "mvd.catalog.subscriptions.audience";
+    private static final String IDS_WEBHOOK_ADDRESS = "ids.webhook.address";
+    private static final String IDS_WEBHOOK_ADDRESS_DEFAULT = "http://localhost";
+    private static final String IDS_DATA_PATH = "/api/v1/ids/data";
+
+    @Setting(value = "Milliseconds catalog changes are collected before subscribers are notified of them.")
+    private static final String NOTIFICATION_DEBOUNCE_MILLIS = "mvd.catalog.subscriptions.notification.debounce.millis";
+    private static final long NOTIFICATION_DEBOUNCE_MILLIS_DEFAULT = 1_000;
+
+    @Setting(value = "Context alias of the web context exposing the catalog subscription API to other connectors.")
+    private static final String SUBSCRIPTION_API_CONTEXT = "mvd.catalog.subscriptions.api.context";
+    private static final String SUBSCRIPTION_API_CONTEXT_DEFAULT = "ids";
+
+    @Inject
+    private Monitor monitor;
+
+    @Inject
+    private TypeManager typeManager;
+
+    @Inject
+    private IdentityService identityService;
+
+    @Inject
+    private ExecutorInstrumentation executorInstrumentation;
+
+    @Inject
+    private Clock clock;
+
+    @Inject
+    private OkHttpClient httpClient;
+
+    @Inject
+    private WebService webService;
+
+    @Inject
+    private EventRouter eventRouter;
+
+    @Inject
+    private RegisteredNodeLookup registeredNodes;
+
+    private ScheduledExecutorService notificationExecutor;
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        if (!context.getSetting(SUBSCRIPTIONS_ENABLED, false)) {
+            return;
+        }
+        notificationExecutor = executorInstrumentation.instrument(Executors.newSingleThreadScheduledExecutor(), "CatalogChangeNotifier");
+        var registry = new CatalogSubscriptionRegistry(
+                Duration.ofSeconds(context.getSetting(SUBSCRIPTION_LEASE_SECONDS, SUBSCRIPTION_LEASE_SECONDS_DEFAULT)),
+                context.getSetting(SUBSCRIPTIONS_MAX, SUBSCRIPTIONS_MAX_DEFAULT), clock);
+        eventRouter.register(new CatalogChangeNotifier(registry, httpClient, typeManager.getMapper(), notificationExecutor,
+                Duration.ofMillis(context.getSetting(NOTIFICATION_DEBOUNCE_MILLIS, NOTIFICATION_DEBOUNCE_MILLIS_DEFAULT)), monitor));
+        var audience = context.getSetting(SUBSCRIPTIONS_AUDIENCE, context.getSetting(IDS_WEBHOOK_ADDRESS, IDS_WEBHOOK_ADDRESS_DEFAULT) + IDS_DATA_PATH);
+        webService.registerResource(context.getSetting(SUBSCRIPTION_API_CONTEXT, SUBSCRIPTION_API_CONTEXT_DEFAULT),
+                new CatalogSubscriptionApiController(registry, identityService, audience, registeredNodes::getRegisteredNode));
+    }
+
+    @Override
+    public void shutdown() {
+        if (notificationExecutor != null) {
+            notificationExecutor.shutdownNow();
+        }
+    }
+}
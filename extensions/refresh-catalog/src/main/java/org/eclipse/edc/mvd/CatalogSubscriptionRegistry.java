@@ -0,0 +1,102 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The subscriptions to catalog change notifications of this connector, keyed by the subscribing participant, callback
+ * and target URL.
+ * <p>
+ * Subscriptions are leased: a subscription expires unless the consumer renews it within the lease time, so that
+ * consumers that went away are not notified forever. The number of subscriptions is capped.
+ */
+class CatalogSubscriptionRegistry {
+
+    private final Duration lease;
+    private final int maxSubscriptions;
+    private final Clock clock;
+    private final Map<String, Lease> subscriptions = new LinkedHashMap<>();
+
+    CatalogSubscriptionRegistry(Duration lease, int maxSubscriptions, Clock clock) {
+        if (lease.isZero() || lease.isNegative()) {
+            throw new IllegalArgumentException("lease must be positive but was " + lease);
+        }
+        this.lease = lease;
+        this.maxSubscriptions = maxSubscriptions;
+        this.clock = clock;
+    }
+
+    Duration getLease() {
+        return lease;
+    }
+
+    /**
+     * Adds or renews a subscription of a participant.
+     *
+     * @return false if the subscription is new and the maximum number of subscriptions is reached.
+     */
+    synchronized boolean subscribe(String participant, CatalogSubscription subscription) {
+        var now = clock.instant();
+        prune(now);
+        var key = keyOf(participant, subscription.getCallbackUrl(), subscription.getTargetUrl());
+        if (!subscriptions.containsKey(key) && subscriptions.size() >= maxSubscriptions) {
+            return false;
+        }
+        subscriptions.put(key, new Lease(subscription, now.plus(lease)));
+        return true;
+    }
+
+    /**
+     * Removes a subscription of a participant.
+     *
+     * @return false if the participant had no such subscription.
+     */
+    synchronized boolean unsubscribe(String participant, String callbackUrl, String targetUrl) {
+        return subscriptions.remove(keyOf(participant, callbackUrl, targetUrl)) != null;
+    }
+
+    /**
+     * Lists the subscriptions whose lease has not expired.
+     */
+    synchronized List<CatalogSubscription> getActive() {
+        prune(clock.instant());
+        return subscriptions.values().stream().map(l -> l.subscription).collect(Collectors.toList());
+    }
+
+    private void prune(Instant now) {
+        subscriptions.values().removeIf(l -> !now.isBefore(l.expiresAt));
+    }
+
+    private static String keyOf(String participant, String callbackUrl, String targetUrl) {
+        return participant + " " + callbackUrl + " " + targetUrl;
+    }
+
+    private static class Lease {
+        private final CatalogSubscription subscription;
+        private final Instant expiresAt;
+
+        Lease(CatalogSubscription subscription, Instant expiresAt) {
+            this.subscription = subscription;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
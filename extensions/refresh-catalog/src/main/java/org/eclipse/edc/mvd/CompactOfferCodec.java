@@ -0,0 +1,124 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.connector.contract.spi.types.offer.ContractOffer;
+import org.eclipse.edc.spi.EdcException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes contract offers into a compact form: their JSON representation, deflate-compressed. The compressed bytes are
+ * kept either on the heap or in direct buffers outside of it, and are decoded again whenever the offer is accessed.
+ */
+class CompactOfferCodec {
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private final ObjectMapper mapper;
+    private final boolean offHeap;
+
+    /**
+     * Creates a codec.
+     *
+     * @param mapper  the mapper serializing the offers.
+     * @param offHeap whether the compressed bytes are kept in direct buffers outside of the heap.
+     */
+    CompactOfferCodec(ObjectMapper mapper, boolean offHeap) {
+        this.mapper = mapper;
+        this.offHeap = offHeap;
+    }
+
+    StoredOffer encode(ContractOffer offer) {
+        byte[] compressed;
+        try {
+            compressed = deflate(mapper.writeValueAsBytes(offer));
+        } catch (IOException ex) {
+            throw new EdcException("Failed to encode contract offer " + offer.getId(), ex);
+        }
+        var buffer = offHeap ? ByteBuffer.allocateDirect(compressed.length) : ByteBuffer.allocate(compressed.length);
+        buffer.put(compressed).flip();
+        return new CompactOffer(buffer.asReadOnlyBuffer());
+    }
+
+    private ContractOffer decode(ByteBuffer buffer) {
+        var compressed = new byte[buffer.remaining()];
+        buffer.duplicate().get(compressed);
+        try {
+            return mapper.readValue(inflate(compressed), ContractOffer.class);
+        } catch (IOException | DataFormatException ex) {
+            throw new EdcException("Failed to decode contract offer", ex);
+        }
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        var deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            var out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            var buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes) throws DataFormatException {
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+            var out = new ByteArrayOutputStream(bytes.length * 4);
+            var buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                var inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated contract offer");
+                }
+                out.write(buffer, 0, inflated);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private class CompactOffer implements StoredOffer {
+        private final ByteBuffer buffer;
+
+        CompactOffer(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public ContractOffer materialize() {
+            return decode(buffer);
+        }
+
+        @Override
+        public int byteSize() {
+            return buffer.capacity();
+        }
+    }
+}
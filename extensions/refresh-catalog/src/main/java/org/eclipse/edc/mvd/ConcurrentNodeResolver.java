@@ -0,0 +1,348 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.registration.client.models.ParticipantDto;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+import static java.lang.String.format;
+
+/**
+ * Resolves the {@link FederatedCacheNode}s of many participants concurrently.
+ * <p>
+ * At most {@code parallelism} DIDs are resolved at the same time. Every single resolution is bounded by a per-DID
+ * timeout, and the whole run is bounded by a deadline: participants whose resolution did not complete in time are
+ * left out of the result, so that one slow DID host cannot hold up the others. A resolution that misses its timeout
+ * gives up its worker slot right away and its thread is interrupted; the HTTP client used for resolving DIDs is
+ * expected to enforce the same timeout on its calls, so that the abandoned resolution does not keep a thread of the
+ * executor busy for longer.
+ * <p>
+ * Participants are grouped by the host serving their DID document and scheduled round-robin across hosts, with at most
+ * {@code maxRequestsPerHost} resolutions in flight per host. This keeps a single large DID host from occupying all
+ * workers and lets consecutive resolutions for a host reuse the pooled keep-alive (or multiplexed HTTP/2) connection
+ * of the underlying HTTP client instead of opening a burst of new ones.
+ */
+class ConcurrentNodeResolver {
+
+    private final FederatedCacheNodeResolver resolver;
+    private final Executor executor;
+    private final int parallelism;
+    private final Duration didTimeout;
+    private final Duration deadline;
+    private final int maxRequestsPerHost;
+    private final Clock clock;
+    private final Monitor monitor;
+
+    ConcurrentNodeResolver(FederatedCacheNodeResolver resolver, Executor executor, int parallelism, Duration didTimeout, Duration deadline, Clock clock, Monitor monitor) {
+        this(resolver, executor, parallelism, didTimeout, deadline, 0, clock, monitor);
+    }
+
+    /**
+     * Creates a resolver that additionally caps the resolutions in flight per DID host.
+     *
+     * @param maxRequestsPerHost maximum number of concurrent resolutions per DID host, 0 for no per-host cap.
+     */
+    ConcurrentNodeResolver(FederatedCacheNodeResolver resolver, Executor executor, int parallelism, Duration didTimeout, Duration deadline, int maxRequestsPerHost, Clock clock, Monitor monitor) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1 but was " + parallelism);
+        }
+        if (maxRequestsPerHost < 0) {
+            throw new IllegalArgumentException("maxRequestsPerHost must not be negative but was " + maxRequestsPerHost);
+        }
+        this.resolver = resolver;
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        this.didTimeout = didTimeout;
+        this.deadline = deadline;
+        this.clock = clock;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Resolves the nodes of the given participants.
+     *
+     * @param participants participants to resolve.
+     * @return the resolution results keyed by DID, in participant order. Participants that missed the per-DID timeout
+     *         or the deadline have no entry.
+     */
+    Map<String, Result<FederatedCacheNode>> resolve(List<ParticipantDto> participants) {
+        return resolve(participants, (did, result) -> {
+        }).getResults();
+    }
+
+    /**
+     * Resolves the nodes of the given participants, passing every result to a callback as soon as it is available.
+     *
+     * @param participants participants to resolve.
+     * @param onResult     called with the DID and the result of every resolution that completed within its timeout, on
+     *                     the thread that completed it.
+     * @return the resolution results, together with the participants whose resolution was started at all.
+     */
+    Resolutions resolve(List<ParticipantDto> participants, BiConsumer<String, Result<FederatedCacheNode>> onResult) {
+        var deadlineMillis = clock.millis() + deadline.toMillis();
+        var permits = new Semaphore(parallelism);
+        var lanes = new HostLanes(groupByHost(participants));
+        var futures = new HashMap<String, CompletableFuture<Result<FederatedCacheNode>>>();
+
+        for (var scheduled = 0; scheduled < participants.size(); scheduled++) {
+            var participant = acquire(permits, lanes, deadlineMillis);
+            if (participant == null) {
+                monitor.warning(format("Node resolution deadline of %s exceeded, %d participant(s) not scheduled", deadline, participants.size() - scheduled));
+                break;
+            }
+            var host = hostOf(participant);
+            var future = new CompletableFuture<Result<FederatedCacheNode>>();
+            futures.put(participant.getDid(), future);
+            // the worker slot is freed when the resolution completes or misses its timeout, whichever happens first
+            var released = new AtomicBoolean();
+            Runnable release = () -> {
+                if (released.compareAndSet(false, true)) {
+                    lanes.release(host);
+                    permits.release();
+                }
+            };
+            // a resolution that misses its timeout is interrupted, so that its thread does not stay blocked
+            var worker = new ResolutionWorker();
+            future.orTimeout(didTimeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((result, failure) -> {
+                if (failure != null) {
+                    worker.cancel();
+                    release.run();
+                }
+            });
+            try {
+                executor.execute(() -> {
+                    worker.start();
+                    try {
+                        var result = resolver.toFederatedCacheNode(participant);
+                        if (future.complete(result)) {
+                            onResult.accept(participant.getDid(), result);
+                        }
+                    } catch (Exception ex) {
+                        future.complete(Result.failure(format("Failed to resolve participant %s: %s", participant.getDid(), ex.getMessage())));
+                    } finally {
+                        worker.finish();
+                        release.run();
+                    }
+                });
+            } catch (Exception ex) {
+                release.run();
+                future.complete(Result.failure(format("Failed to schedule resolution of participant %s: %s", participant.getDid(), ex.getMessage())));
+            }
+        }
+
+        awaitAll(futures.values(), deadlineMillis);
+
+        var results = new LinkedHashMap<String, Result<FederatedCacheNode>>();
+        var missed = new ArrayList<String>();
+        for (var participant : participants) {
+            var future = futures.get(participant.getDid());
+            if (future == null) {
+                continue;
+            }
+            var result = completedResult(future);
+            if (result != null) {
+                results.put(participant.getDid(), result);
+            } else {
+                missed.add(participant.getDid());
+            }
+        }
+        if (!missed.isEmpty()) {
+            monitor.warning(format("Resolution of %d participant(s) timed out: %s", missed.size(), missed));
+        }
+        return new Resolutions(results, futures.keySet());
+    }
+
+    /**
+     * Groups the given participants by the host serving their DID document, keeping the participant order within a
+     * host and the order of first appearance across hosts. Participants that do not use did:web form a group of their
+     * own.
+     */
+    static Map<String, List<ParticipantDto>> groupByHost(List<ParticipantDto> participants) {
+        var groups = new LinkedHashMap<String, List<ParticipantDto>>();
+        participants.forEach(participant -> groups.computeIfAbsent(hostOf(participant), host -> new ArrayList<>()).add(participant));
+        return groups;
+    }
+
+    private static String hostOf(ParticipantDto participant) {
+        return Objects.requireNonNullElse(CachingWebDidResolver.hostOf(participant.getDid()), participant.getDid());
+    }
+
+    /**
+     * Waits for a free worker and for a host below its in-flight cap, returning the next participant of that host, or
+     * null if the deadline passed first.
+     */
+    @Nullable
+    private ParticipantDto acquire(Semaphore permits, HostLanes lanes, long deadlineMillis) {
+        try {
+            if (!permits.tryAcquire(Math.max(0, deadlineMillis - clock.millis()), TimeUnit.MILLISECONDS)) {
+                return null;
+            }
+            var participant = lanes.next(deadlineMillis);
+            if (participant == null) {
+                permits.release();
+            }
+            return participant;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void awaitAll(Iterable<CompletableFuture<Result<FederatedCacheNode>>> futures, long deadlineMillis) {
+        var all = new ArrayList<CompletableFuture<?>>();
+        futures.forEach(all::add);
+        try {
+            CompletableFuture.allOf(all.toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, deadlineMillis - clock.millis()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            // individual timeouts and the deadline are handled per future
+        }
+    }
+
+    @Nullable
+    private Result<FederatedCacheNode> completedResult(CompletableFuture<Result<FederatedCacheNode>> future) {
+        if (!future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        return future.join();
+    }
+
+    /**
+     * The thread running a single resolution, which is interrupted if the resolution is cancelled while it runs.
+     */
+    private static class ResolutionWorker {
+        private Thread thread;
+
+        synchronized void start() {
+            thread = Thread.currentThread();
+        }
+
+        /**
+         * Detaches the resolution from its thread, clearing an interrupt meant for it, so that it does not hit the
+         * next task of the thread.
+         */
+        synchronized void finish() {
+            thread = null;
+            Thread.interrupted();
+        }
+
+        synchronized void cancel() {
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Results of a resolution run. Participants that were never scheduled because the deadline passed before their
+     * turn were not contacted at all, unlike participants whose resolution was started but missed its timeout.
+     */
+    static class Resolutions {
+        private final Map<String, Result<FederatedCacheNode>> results;
+        private final Set<String> scheduled;
+
+        Resolutions(Map<String, Result<FederatedCacheNode>> results, Set<String> scheduled) {
+            this.results = results;
+            this.scheduled = scheduled;
+        }
+
+        /**
+         * Returns the resolution results keyed by DID, in participant order. Participants that missed the per-DID
+         * timeout or the deadline have no entry.
+         */
+        Map<String, Result<FederatedCacheNode>> getResults() {
+            return results;
+        }
+
+        /**
+         * Returns whether the resolution of the participant with the given DID was started.
+         */
+        boolean isScheduled(String did) {
+            return scheduled.contains(did);
+        }
+    }
+
+    /**
+     * Pending participants per DID host together with the number of resolutions in flight for every host.
+     */
+    private class HostLanes {
+        private final Map<String, Deque<ParticipantDto>> pending = new LinkedHashMap<>();
+        private final Map<String, Integer> inFlight = new HashMap<>();
+
+        HostLanes(Map<String, List<ParticipantDto>> groups) {
+            groups.forEach((host, participants) -> pending.put(host, new ArrayDeque<>(participants)));
+        }
+
+        /**
+         * Returns the next participant of the first host below its cap and moves that host to the end of the rotation,
+         * waiting for a resolution to complete if all hosts with pending participants are at their cap.
+         */
+        @Nullable
+        synchronized ParticipantDto next(long deadlineMillis) throws InterruptedException {
+            while (!pending.isEmpty()) {
+                var host = pending.keySet().stream()
+                        .filter(candidate -> maxRequestsPerHost < 1 || inFlight.getOrDefault(candidate, 0) < maxRequestsPerHost)
+                        .findFirst()
+                        .orElse(null);
+                if (host != null) {
+                    var queue = pending.remove(host);
+                    var participant = queue.poll();
+                    if (!queue.isEmpty()) {
+                        pending.put(host, queue);
+                    }
+                    inFlight.merge(host, 1, Integer::sum);
+                    return participant;
+                }
+                var remaining = deadlineMillis - clock.millis();
+                if (remaining <= 0) {
+                    return null;
+                }
+                wait(remaining);
+            }
+            return null;
+        }
+
+        synchronized void release(String host) {
+            inFlight.merge(host, -1, Integer::sum);
+            notifyAll();
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.edc.spi.EdcException;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Adds conditional responses to the federated catalog API, so that clients polling an unchanged catalog neither
+ * download it again nor make the connector query and serialize it again.
+ * <p>
+ * Every catalog response is tagged with a weak ETag made of the version of the federated catalog cache and a hash of
+ * the request (method, path, query parameters, body and the caller's credentials). A GET request whose If-None-Match
+ * header carries the current ETag is answered with 304 Not Modified; other requests are processed as usual and only
+ * tagged. Clients revalidate through the GET route of the {@link FederatedCatalogPageApiController}, as the catalog
+ * query of the federated catalog itself only accepts POST. Otherwise the serialized response body is kept for the current version, and the same request of the same
+ * caller is answered with the pre-serialized body, gzip-compressed if the client accepts it, until the cache version
+ * changes.
+ * <p>
+ * The filter runs after the authentication filters of the web context, so that cached bodies are only handed to
+ * authenticated callers.
+ */
+@Priority(Priorities.USER + 1)
+public class ConditionalCatalogResponseFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    static final String CATALOG_PATH = "federatedcatalog";
+    private static final String GZIP = "gzip";
+    private static final List<String> CREDENTIAL_HEADERS = List.of(HttpHeaders.AUTHORIZATION, "X-Api-Key");
+    private static final String KEY_PROPERTY = ConditionalCatalogResponseFilter.class.getName() + ".key";
+    private static final String VERSION_PROPERTY = ConditionalCatalogResponseFilter.class.getName() + ".version";
+    private static final int OK = 200;
+
+    private final LongSupplier version;
+    private final ObjectMapper mapper;
+    private final boolean gzip;
+    private final Map<String, CachedBody> bodies;
+    private long bodiesVersion = -1;
+
+    /**
+     * Creates a filter.
+     *
+     * @param version         supplies the current version of the federated catalog cache.
+     * @param mapper          the mapper serializing response bodies.
+     * @param gzip            whether bodies are gzip-compressed for clients accepting it.
+     * @param maxCachedBodies maximum number of distinct requests whose response bodies are kept per version.
+     */
+    public ConditionalCatalogResponseFilter(LongSupplier version, ObjectMapper mapper, boolean gzip, int maxCachedBodies) {
+        if (maxCachedBodies < 1) {
+            throw new IllegalArgumentException("maxCachedBodies must be at least 1 but was " + maxCachedBodies);
+        }
+        this.version = version;
+        this.mapper = mapper;
+        this.gzip = gzip;
+        this.bodies = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedBody> eldest) {
+                return size() > maxCachedBodies;
+            }
+        };
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request) throws IOException {
+        if (!isCatalogRequest(request)) {
+            return;
+        }
+        var body = request.hasEntity() ? request.getEntityStream().readAllBytes() : new byte[0];
+        request.setEntityStream(new ByteArrayInputStream(body));
+
+        var currentVersion = version.getAsLong();
+        var key = requestKey(request, body);
+        var etag = etag(currentVersion, key);
+        if (HttpMethod.GET.equals(request.getMethod()) && matches(request.getHeaderString(HttpHeaders.IF_NONE_MATCH), etag)) {
+            request.abortWith(Response.notModified(etag).build());
+            return;
+        }
+        var cached = cachedBody(currentVersion, key);
+        if (cached != null) {
+            var compressed = acceptsGzip(request) && cached.gzipped != null;
+            var response = Response.ok(compressed ? cached.gzipped : cached.json, MediaType.APPLICATION_JSON_TYPE)
+                    .tag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (compressed) {
+                response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+            }
+            request.abortWith(response.build());
+            return;
+        }
+        request.setProperty(KEY_PROPERTY, key);
+        request.setProperty(VERSION_PROPERTY, currentVersion);
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) throws IOException {
+        var key = (String) request.getProperty(KEY_PROPERTY);
+        if (key == null || response.getStatus() != OK || !response.hasEntity()) {
+            return;
+        }
+        var requestVersion = (long) request.getProperty(VERSION_PROPERTY);
+        var json = mapper.writeValueAsBytes(response.getEntity());
+        var body = new CachedBody(json, gzip ? compress(json) : null);
+        // a body serialized while the cache changed may already contain newer offers and is not kept
+        if (version.getAsLong() == requestVersion) {
+            cacheBody(requestVersion, key, body);
+        }
+
+        var compressed = acceptsGzip(request) && body.gzipped != null;
+        response.getHeaders().putSingle(HttpHeaders.ETAG, etag(requestVersion, key));
+        response.getHeaders().putSingle(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (compressed) {
+            response.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        response.setEntity(compressed ? body.gzipped : body.json, new Annotation[0], MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    private static boolean isCatalogRequest(ContainerRequestContext request) {
+        var method = request.getMethod();
+        return (HttpMethod.GET.equals(method) || HttpMethod.POST.equals(method)) &&
+                request.getUriInfo().getPath().replaceAll("^/+", "").startsWith(CATALOG_PATH);
+    }
+
+    /**
+     * Checks whether an If-None-Match header lists the given ETag, comparing weakly as only used for GET.
+     */
+    static boolean matches(@Nullable String ifNoneMatch, EntityTag etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        var expected = "\"" + etag.getValue() + "\"";
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(expected));
+    }
+
+    private static EntityTag etag(long version, String key) {
+        return new EntityTag(version + "-" + key, true);
+    }
+
+    private static String requestKey(ContainerRequestContext request, byte[] body) {
+        var digest = sha256();
+        var uri = request.getUriInfo().getRequestUri();
+        digest.update(request.getMethod().getBytes(UTF_8));
+        digest.update(uri.getRawPath().getBytes(UTF_8));
+        if (uri.getRawQuery() != null) {
+            digest.update(uri.getRawQuery().getBytes(UTF_8));
+        }
+        digest.update(body);
+        // responses are only shared between requests with the same credentials
+        for (var header : CREDENTIAL_HEADERS) {
+            var credentials = request.getHeaderString(header);
+            digest.update((byte) 0);
+            if (credentials != null) {
+                digest.update(credentials.getBytes(UTF_8));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    private static boolean acceptsGzip(ContainerRequestContext request) {
+        var acceptEncoding = request.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && Arrays.stream(acceptEncoding.split(","))
+                .map(encoding -> encoding.trim().toLowerCase())
+                .anyMatch(encoding -> encoding.equals(GZIP) || (encoding.startsWith(GZIP + ";") && !encoding.replace(" ", "").endsWith("q=0")));
+    }
+
+    @Nullable
+    private synchronized CachedBody cachedBody(long currentVersion, String key) {
+        return bodiesVersion == currentVersion ? bodies.get(key) : null;
+    }
+
+    private synchronized void cacheBody(long currentVersion, String key, CachedBody body) {
+        if (bodiesVersion != currentVersion) {
+            bodies.clear();
+            bodiesVersion = currentVersion;
+        }
+        bodies.put(key, body);
+    }
+
+    private static byte[] compress(byte[] json) throws IOException {
+        var out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (var gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new EdcException(ex);
+        }
+    }
+
+    private static class CachedBody {
+        private final byte[] json;
+        private final byte[] gzipped;
+
+        CachedBody(byte[] json, @Nullable byte[] gzipped) {
+            this.json = json;
+            this.gzipped = gzipped;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.spi.EdcException;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Consistent hash ring assigning keys to members.
+ * <p>
+ * Every member is placed on the ring at a number of virtual node positions; a key belongs to the member owning the
+ * first position at or after the hash of the key. When a member joins or leaves, only the keys between its positions
+ * and their predecessors move, i.e. about {@code 1/n} of all keys.
+ */
+class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+    private final Set<String> members;
+
+    ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be at least 1 but was " + virtualNodes);
+        }
+        this.members = Set.copyOf(new TreeSet<>(members));
+        for (var member : this.members) {
+            for (var i = 0; i < virtualNodes; i++) {
+                // on a (very unlikely) collision the lexicographically greater member wins, independent of the order of members
+                ring.merge(hash(member + "#" + i), member, (existing, added) -> existing.compareTo(added) >= 0 ? existing : added);
+            }
+        }
+    }
+
+    Set<String> getMembers() {
+        return members;
+    }
+
+    /**
+     * Returns the member owning the given key, or null if the ring has no members.
+     */
+    @Nullable
+    String ownerOf(String key) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        var entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    private static long hash(String value) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new EdcException(ex);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.connector.contract.spi.types.offer.ContractOffer;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.types.domain.asset.Asset;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Secondary indexes over cached {@link ContractOffer}s, maintained incrementally as offers are saved and deleted.
+ * <p>
+ * Offers are kept ordered by originator and stable offer id, which is also the order in which queries return them,
+ * so that pages of a query are stable. Offers are indexed by asset id (for exact and prefix matches), by originator and by the
+ * values of a configurable set of asset properties. A query is answered from the smallest candidate set any of its
+ * criteria selects; the candidates are then matched against all criteria, so an index only ever narrows down which
+ * offers are looked at. Queries without an indexable criterion scan all offers.
+ * <p>
+ * Offers are held as {@link StoredOffer}s, which may be kept in a compact serialized form and are only materialized
+ * when a query looks at them. The indexed values of every offer are kept alongside, so that an offer can be unindexed
+ * without materializing it.
+ * <p>
+ * Not thread-safe, callers synchronize access.
+ */
+class ContractOfferIndex {
+
+    private static final String EQUAL = "=";
+    private static final String IN = "in";
+    private static final String LIKE = "like";
+    private static final String WILDCARD = "%";
+
+    private final NavigableMap<OfferKey, Entry> offers = new TreeMap<>();
+    private final NavigableMap<String, NavigableSet<OfferKey>> byAssetId = new TreeMap<>();
+    private final Map<String, NavigableSet<OfferKey>> byOriginator = new HashMap<>();
+    private final Map<String, Map<String, NavigableSet<OfferKey>>> byProperty = new HashMap<>();
+
+    /**
+     * Creates an index.
+     *
+     * @param indexedProperties asset properties whose values are indexed, in addition to the asset id and originator.
+     */
+    ContractOfferIndex(Set<String> indexedProperties) {
+        indexedProperties.stream()
+                .filter(property -> !Asset.PROPERTY_ID.equals(property) && !NodeAwareFederatedCacheStore.PROPERTY_ORIGINATOR.equals(property))
+                .forEach(property -> byProperty.put(property, new HashMap<>()));
+    }
+
+    /**
+     * Adds an offer crawled from the given originator, replacing any offer with the same
+     * {@linkplain CatalogContentHasher#stableIdOf stable id} from the same originator.
+     *
+     * @param originator the originator.
+     * @param offer      the offer, to read the indexed values from.
+     * @param stored     the form the offer is held in.
+     * @return the replaced offer, or null if there was none.
+     */
+    @Nullable
+    StoredOffer put(String originator, ContractOffer offer, StoredOffer stored) {
+        var key = new OfferKey(originator, CatalogContentHasher.stableIdOf(offer));
+        var entry = new Entry(stored, offer, byProperty.keySet());
+        var previous = offers.put(key, entry);
+        if (previous != null) {
+            unindex(key, previous);
+        }
+        index(key, entry);
+        return previous != null ? previous.offer : null;
+    }
+
+    /**
+     * Removes the offer with the given stable id crawled from the given originator, if any.
+     *
+     * @return the removed offer, or null if there was none.
+     */
+    @Nullable
+    StoredOffer remove(String originator, String offerId) {
+        var key = new OfferKey(originator, offerId);
+        var previous = offers.remove(key);
+        if (previous != null) {
+            unindex(key, previous);
+        }
+        return previous != null ? previous.offer : null;
+    }
+
+    /**
+     * Returns the offers crawled from the given originator, ordered by stable offer id.
+     */
+    List<ContractOffer> getOffers(String originator) {
+        var keys = byOriginator.get(originator);
+        return keys != null ? keys.stream().map(key -> offers.get(key).offer.materialize()).collect(Collectors.toList()) : List.of();
+    }
+
+    int size() {
+        return offers.size();
+    }
+
+    /**
+     * Returns a page of the offers matching all criteria, ordered by originator and stable offer id.
+     *
+     * @param criteria  the criteria.
+     * @param predicate the criteria converted into a predicate.
+     * @param offset    number of matching offers skipped.
+     * @param limit     maximum number of offers returned.
+     */
+    List<ContractOffer> query(List<Criterion> criteria, Predicate<ContractOffer> predicate, int offset, int limit) {
+        var keys = criteria.stream()
+                .map(this::candidates)
+                .filter(Objects::nonNull)
+                .min(Comparator.comparingInt(Set::size))
+                .orElse(null);
+        Iterable<Entry> candidates = keys != null ? () -> keys.stream().map(offers::get).iterator() : offers.values();
+
+        var page = new ArrayList<ContractOffer>();
+        var skipped = 0;
+        for (var entry : candidates) {
+            if (page.size() >= limit) {
+                break;
+            }
+            var offer = entry.offer.materialize();
+            if (predicate.test(offer)) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    page.add(offer);
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Returns the keys of all offers that may match the criterion, or null if no index covers it.
+     */
+    @Nullable
+    private NavigableSet<OfferKey> candidates(Criterion criterion) {
+        if (!(criterion.getOperandLeft() instanceof String)) {
+            return null;
+        }
+        var property = (String) criterion.getOperandLeft();
+        var operator = criterion.getOperator() != null ? criterion.getOperator().toLowerCase() : null;
+        var values = operandValues(operator, criterion.getOperandRight());
+
+        if (Asset.PROPERTY_ID.equals(property)) {
+            if (LIKE.equals(operator)) {
+                return prefixCandidates(criterion.getOperandRight());
+            }
+            return values != null ? union(values, byAssetId::get) : null;
+        }
+        if (NodeAwareFederatedCacheStore.PROPERTY_ORIGINATOR.equals(property)) {
+            return values != null ? union(values, byOriginator::get) : null;
+        }
+        var propertyIndex = byProperty.get(property);
+        return propertyIndex != null && values != null ? union(values, propertyIndex::get) : null;
+    }
+
+    /**
+     * Returns the string values an equality or membership criterion matches, or null if the criterion is neither or
+     * compares against anything but strings.
+     */
+    @Nullable
+    private static List<String> operandValues(String operator, Object operandRight) {
+        if (EQUAL.equals(operator) && operandRight instanceof String) {
+            return List.of((String) operandRight);
+        }
+        if (IN.equals(operator) && operandRight instanceof Collection) {
+            var values = new ArrayList<String>();
+            for (var value : (Collection<?>) operandRight) {
+                if (!(value instanceof String)) {
+                    return null;
+                }
+                values.add((String) value);
+            }
+            return values;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the keys of all offers whose asset id starts with the literal prefix of a LIKE pattern such as
+     * {@code abc%}, or null if the pattern has wildcards anywhere but at its end.
+     */
+    @Nullable
+    private NavigableSet<OfferKey> prefixCandidates(Object pattern) {
+        if (!(pattern instanceof String) || !((String) pattern).endsWith(WILDCARD)) {
+            return null;
+        }
+        var prefix = ((String) pattern).substring(0, ((String) pattern).length() - WILDCARD.length());
+        if (prefix.contains(WILDCARD)) {
+            return null;
+        }
+        var keys = new TreeSet<OfferKey>();
+        for (var entry : byAssetId.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            keys.addAll(entry.getValue());
+        }
+        return keys;
+    }
+
+    private static NavigableSet<OfferKey> union(List<String> values, Function<String, NavigableSet<OfferKey>> lookup) {
+        if (values.size() == 1) {
+            var keys = lookup.apply(values.get(0));
+            return keys != null ? keys : new TreeSet<>();
+        }
+        var keys = new TreeSet<OfferKey>();
+        for (var value : values) {
+            var matching = lookup.apply(value);
+            if (matching != null) {
+                keys.addAll(matching);
+            }
+        }
+        return keys;
+    }
+
+    private void index(OfferKey key, Entry entry) {
+        byOriginator.computeIfAbsent(key.originator, o -> new TreeSet<>()).add(key);
+        if (entry.assetId != null) {
+            byAssetId.computeIfAbsent(entry.assetId, id -> new TreeSet<>()).add(key);
+        }
+        entry.propertyValues.forEach((property, value) -> byProperty.get(property).computeIfAbsent(value, v -> new TreeSet<>()).add(key));
+    }
+
+    private void unindex(OfferKey key, Entry entry) {
+        removeKey(byOriginator, key.originator, key);
+        if (entry.assetId != null) {
+            removeKey(byAssetId, entry.assetId, key);
+        }
+        entry.propertyValues.forEach((property, value) -> removeKey(byProperty.get(property), value, key));
+    }
+
+    private static void removeKey(Map<String, NavigableSet<OfferKey>> index, String value, OfferKey key) {
+        var keys = index.get(value);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            index.remove(value);
+        }
+    }
+
+    /**
+     * A stored offer and its indexed values.
+     */
+    private static final class Entry {
+        private final StoredOffer offer;
+        private final String assetId;
+        private final Map<String, String> propertyValues;
+
+        Entry(StoredOffer offer, ContractOffer materialized, Set<String> indexedProperties) {
+            this.offer = offer;
+            var asset = materialized.getAsset();
+            this.assetId = asset != null ? asset.getId() : null;
+            this.propertyValues = new HashMap<>();
+            if (asset != null) {
+                indexedProperties.forEach(property -> {
+                    var value = asset.getProperty(property);
+                    if (value != null) {
+                        propertyValues.put(property, value.toString());
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Identifies an offer by the node it was crawled from and its stable id, as offer ids are only unique per node.
+     */
+    private static final class OfferKey implements Comparable<OfferKey> {
+        private static final Comparator<OfferKey> ORDER = Comparator.<OfferKey, String>comparing(key -> key.originator)
+                .thenComparing(key -> key.offerId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        private final String originator;
+        private final String offerId;
+
+        OfferKey(String originator, String offerId) {
+            this.originator = originator;
+            this.offerId = offerId;
+        }
+
+        @Override
+        public int compareTo(OfferKey other) {
+            return ORDER.compare(this, other);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof OfferKey && compareTo((OfferKey) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(originator, offerId);
+        }
+    }
+}
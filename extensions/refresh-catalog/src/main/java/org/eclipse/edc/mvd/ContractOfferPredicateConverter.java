@@ -0,0 +1,39 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.connector.contract.spi.types.offer.ContractOffer;
+import org.eclipse.edc.spi.query.BaseCriterionToPredicateConverter;
+import org.eclipse.edc.util.reflection.ReflectionUtil;
+
+/**
+ * Converts query criteria into predicates on {@link ContractOffer}s. Criteria on asset properties, e.g.
+ * {@code asset:prop:id = 123}, are matched against the offered asset; any other operand left is resolved as a
+ * (nested) field of the offer, e.g. {@code policy.target}.
+ */
+class ContractOfferPredicateConverter extends BaseCriterionToPredicateConverter<ContractOffer> {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <R> R property(String key, Object object) {
+        if (object instanceof ContractOffer) {
+            var asset = ((ContractOffer) object).getAsset();
+            if (asset != null && asset.getProperties().containsKey(key)) {
+                return (R) asset.getProperty(key);
+            }
+        }
+        return ReflectionUtil.getFieldValueSilent(object, key);
+    }
+}
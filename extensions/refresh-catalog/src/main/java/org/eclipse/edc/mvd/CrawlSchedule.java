@@ -0,0 +1,63 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import java.time.Instant;
+
+/**
+ * The crawl schedule of a federated cache node, as maintained by the {@link CrawlScheduler}.
+ */
+public class CrawlSchedule {
+
+    private final String targetUrl;
+    private final String contentHash;
+    private final long intervalSeconds;
+    private final int unchangedCrawls;
+    private final Instant nextCrawlAt;
+
+    public CrawlSchedule(String targetUrl, String contentHash, long intervalSeconds, int unchangedCrawls, Instant nextCrawlAt) {
+        this.targetUrl = targetUrl;
+        this.contentHash = contentHash;
+        this.intervalSeconds = intervalSeconds;
+        this.unchangedCrawls = unchangedCrawls;
+        this.nextCrawlAt = nextCrawlAt;
+    }
+
+    public String getTargetUrl() {
+        return targetUrl;
+    }
+
+    /**
+     * Hash of the catalog returned by the last crawl of the node.
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public long getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    /**
+     * Number of consecutive crawls that returned an unchanged catalog.
+     */
+    public int getUnchangedCrawls() {
+        return unchangedCrawls;
+    }
+
+    public Instant getNextCrawlAt() {
+        return nextCrawlAt;
+    }
+}
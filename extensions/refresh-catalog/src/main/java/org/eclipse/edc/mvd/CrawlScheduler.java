@@ -0,0 +1,167 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Decides per {@link FederatedCacheNode} whether it is due for crawling, based on how often its catalog changed.
+ * <p>
+ * Every node starts with the minimum crawl interval. Whenever a crawl returns the same catalog content hash as the
+ * previous one, the interval of the node doubles, up to the maximum interval; whenever the catalog changed, the interval
+ * is halved again, down to the minimum. Nodes are keyed by their target URL, which is also the originator of the offers
+ * crawled from them.
+ * <p>
+ * Nodes that notify this connector of catalog changes are crawled at the maximum interval only, as a safety net, and
+ * made due through {@link #markDue(String)} whenever they announce a change.
+ */
+public class CrawlScheduler {
+
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final Clock clock;
+    private final Monitor monitor;
+    private final Map<String, NodeSchedule> schedules = new ConcurrentHashMap<>();
+    private final Set<String> subscribed = ConcurrentHashMap.newKeySet();
+    private volatile Set<String> round = Set.of();
+
+    public CrawlScheduler(Duration minInterval, Duration maxInterval, Clock clock, Monitor monitor) {
+        if (minInterval.isZero() || minInterval.isNegative()) {
+            throw new IllegalArgumentException("minInterval must be positive but was " + minInterval);
+        }
+        if (maxInterval.compareTo(minInterval) < 0) {
+            throw new IllegalArgumentException(format("maxInterval %s must not be shorter than minInterval %s", maxInterval, minInterval));
+        }
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.clock = clock;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Selects the nodes that are due for crawling and remembers them as the current crawl round. Nodes seen for the
+     * first time are always due; schedules of nodes that are no longer part of the directory are dropped.
+     *
+     * @param nodes all nodes of the directory.
+     * @return the due nodes, in the order of {@code nodes}.
+     */
+    public List<FederatedCacheNode> selectDue(List<FederatedCacheNode> nodes) {
+        var now = clock.instant();
+        var targetUrls = nodes.stream().map(FederatedCacheNode::getTargetUrl).collect(Collectors.toSet());
+        schedules.keySet().retainAll(targetUrls);
+        subscribed.retainAll(targetUrls);
+
+        var due = nodes.stream()
+                .filter(node -> {
+                    var schedule = schedules.get(node.getTargetUrl());
+                    return schedule == null || !now.isBefore(schedule.nextCrawlAt);
+                })
+                .collect(Collectors.toList());
+        round = due.stream().map(FederatedCacheNode::getTargetUrl).collect(Collectors.toUnmodifiableSet());
+        monitor.debug(() -> format("CrawlScheduler: %d of %d node(s) due for crawling", due.size(), nodes.size()));
+        return due;
+    }
+
+    /**
+     * Target URLs of the nodes selected by the last call to {@link #selectDue(List)}.
+     */
+    public Set<String> getRound() {
+        return round;
+    }
+
+    /**
+     * Records the content hash of the catalog just crawled from a node and schedules its next crawl accordingly.
+     */
+    public void recordCatalog(String targetUrl, String contentHash) {
+        var now = clock.instant();
+        schedules.compute(targetUrl, (url, previous) -> {
+            if (subscribed.contains(url)) {
+                var unchanged = previous != null && Objects.equals(previous.contentHash, contentHash);
+                return new NodeSchedule(contentHash, maxInterval, now, unchanged ? previous.unchangedCrawls + 1 : 0);
+            }
+            if (previous == null) {
+                return new NodeSchedule(contentHash, minInterval, now, 0);
+            }
+            if (Objects.equals(previous.contentHash, contentHash)) {
+                return new NodeSchedule(contentHash, clamp(previous.interval.multipliedBy(2)), now, previous.unchangedCrawls + 1);
+            }
+            return new NodeSchedule(contentHash, clamp(previous.interval.dividedBy(2)), now, 0);
+        });
+    }
+
+    /**
+     * Makes a node due for crawling in the next round, e.g. because it announced a catalog change.
+     */
+    public void markDue(String targetUrl) {
+        schedules.computeIfPresent(targetUrl, (url, schedule) -> new NodeSchedule(schedule.contentHash, minInterval, clock.instant().minus(minInterval), 0));
+    }
+
+    /**
+     * Records whether a node notifies this connector of its catalog changes, which takes effect from its next crawl.
+     */
+    public void setSubscribed(String targetUrl, boolean isSubscribed) {
+        if (isSubscribed) {
+            subscribed.add(targetUrl);
+        } else {
+            subscribed.remove(targetUrl);
+        }
+    }
+
+    /**
+     * Lists the crawl schedules of all known nodes, the ones crawled next first.
+     */
+    public List<CrawlSchedule> getSchedules() {
+        return schedules.entrySet().stream()
+                .map(entry -> new CrawlSchedule(entry.getKey(), entry.getValue().contentHash, entry.getValue().interval.toSeconds(),
+                        entry.getValue().unchangedCrawls, entry.getValue().nextCrawlAt))
+                .sorted(Comparator.comparing(CrawlSchedule::getNextCrawlAt))
+                .collect(Collectors.toList());
+    }
+
+    private Duration clamp(Duration interval) {
+        if (interval.compareTo(minInterval) < 0) {
+            return minInterval;
+        }
+        return interval.compareTo(maxInterval) > 0 ? maxInterval : interval;
+    }
+
+    private static class NodeSchedule {
+        private final String contentHash;
+        private final Duration interval;
+        private final Instant nextCrawlAt;
+        private final int unchangedCrawls;
+
+        NodeSchedule(String contentHash, Duration interval, Instant lastCrawl, int unchangedCrawls) {
+            this.contentHash = contentHash;
+            this.interval = interval;
+            this.nextCrawlAt = lastCrawl.plus(interval);
+            this.unchangedCrawls = unchangedCrawls;
+        }
+    }
+}
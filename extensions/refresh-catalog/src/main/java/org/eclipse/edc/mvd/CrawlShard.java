@@ -0,0 +1,91 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+
+/**
+ * The share of crawl targets a consumer connector replica is responsible for, so that horizontally scaled replicas
+ * split the crawling among themselves instead of each crawling every participant.
+ * <p>
+ * Crawl targets are assigned to replicas by a {@link ConsistentHashRing} over the current replica membership, which is
+ * looked up on every assignment round, so that replicas joining or leaving only move a minimal share of the targets.
+ * Without members, the replica owns all targets.
+ */
+public class CrawlShard {
+
+    private final String replicaId;
+    private final Supplier<Set<String>> membership;
+    private final int virtualNodes;
+    private final Monitor monitor;
+    private volatile ConsistentHashRing ring;
+
+    /**
+     * Creates the shard of a replica.
+     *
+     * @param replicaId    id of this replica.
+     * @param membership   ids of all replicas, including this one.
+     * @param virtualNodes number of positions of every replica on the hash ring. More positions spread the targets
+     *                     more evenly.
+     * @param monitor      monitor.
+     */
+    public CrawlShard(String replicaId, Supplier<Set<String>> membership, int virtualNodes, Monitor monitor) {
+        this.replicaId = replicaId;
+        this.membership = membership;
+        this.virtualNodes = virtualNodes;
+        this.monitor = monitor;
+        this.ring = new ConsistentHashRing(Set.of(), virtualNodes);
+    }
+
+    /**
+     * Returns a predicate telling whether this replica owns a target, evaluated against the replica membership as of
+     * now. The returned predicate is meant to be used for one assignment round, e.g. one directory refresh.
+     */
+    public ShardFilter currentAssignment() {
+        var current = currentRing();
+        if (current.getMembers().isEmpty()) {
+            return key -> true;
+        }
+        return key -> replicaId.equals(current.ownerOf(key));
+    }
+
+    private ConsistentHashRing currentRing() {
+        var members = membership.get();
+        var current = ring;
+        if (!current.getMembers().equals(members)) {
+            current = new ConsistentHashRing(members, virtualNodes);
+            ring = current;
+            if (!members.isEmpty() && !members.contains(replicaId)) {
+                monitor.warning(format("CrawlShard: replica %s is not a member of %s and owns no crawl targets", replicaId, members));
+            } else {
+                monitor.info(format("CrawlShard: replica %s sharding crawl targets across %s", replicaId, members));
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Tells whether this replica owns a crawl target.
+     */
+    @FunctionalInterface
+    public interface ShardFilter {
+        boolean owns(String key);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded cache of resolved {@link DidDocument}s keyed by DID. When full, the least recently used entry is evicted.
+ */
+class DidDocumentCache {
+
+    private final Map<String, Entry> entries;
+
+    DidDocumentCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1 but was " + maxSize);
+        }
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Nullable
+    synchronized Entry get(String did) {
+        return entries.get(did);
+    }
+
+    synchronized void put(String did, Entry entry) {
+        entries.put(did, entry);
+    }
+
+    synchronized void remove(String did) {
+        entries.remove(did);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * A cached DID document together with the validators needed to revalidate it against the DID host, and the
+     * IDS messaging endpoint extracted from it.
+     */
+    static class Entry {
+        private final DidDocument document;
+        private final String idsUrl;
+        private final String etag;
+        private final String lastModified;
+        private final Instant freshUntil;
+
+        Entry(DidDocument document, @Nullable String etag, @Nullable String lastModified, Instant freshUntil) {
+            this(document, FederatedCacheNodeResolver.getIdsMessagingUrl(document).orElse(null), etag, lastModified, freshUntil);
+        }
+
+        private Entry(DidDocument document, @Nullable String idsUrl, @Nullable String etag, @Nullable String lastModified, Instant freshUntil) {
+            this.document = document;
+            this.idsUrl = idsUrl;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.freshUntil = freshUntil;
+        }
+
+        DidDocument getDocument() {
+            return document;
+        }
+
+        Optional<String> getIdsUrl() {
+            return Optional.ofNullable(idsUrl);
+        }
+
+        @Nullable
+        String getEtag() {
+            return etag;
+        }
+
+        @Nullable
+        String getLastModified() {
+            return lastModified;
+        }
+
+        boolean isFresh(Instant now) {
+            return now.isBefore(freshUntil);
+        }
+
+        /**
+         * Returns a copy of this entry that is fresh until the given instant, keeping the parsed document.
+         */
+        Entry revalidated(Instant freshUntil) {
+            return new Entry(document, idsUrl, etag, lastModified, freshUntil);
+        }
+    }
+}
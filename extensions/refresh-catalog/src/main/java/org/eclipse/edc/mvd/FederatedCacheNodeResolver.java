@@ -22,6 +22,7 @@ import org.eclipse.edc.protocol.ids.spi.types.MessageProtocol;
 import org.eclipse.edc.registration.client.models.ParticipantDto;
 import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.result.Result;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.Optional;
@@ -30,6 +31,9 @@ import static java.lang.String.format;
 
 /**
  * Resolves the {@link FederatedCacheNode}s from the Participant's Did Document.
+ * <p>
+ * did:web DIDs are resolved through the {@link CachingWebDidResolver}, if one is configured, so that unchanged DID
+ * documents are neither downloaded nor parsed again. All other DIDs go through the {@link DidResolverRegistry}.
  */
 class FederatedCacheNodeResolver {
 
@@ -38,30 +42,63 @@ class FederatedCacheNodeResolver {
 
     private final DidResolverRegistry resolver;
     private final Monitor monitor;
+    private final CachingWebDidResolver webDidResolver;
+    private final NodeDirectoryMetrics metrics;
 
     FederatedCacheNodeResolver(DidResolverRegistry resolver, Monitor monitor) {
+        this(resolver, null, monitor, NodeDirectoryMetrics.noop());
+    }
+
+    FederatedCacheNodeResolver(DidResolverRegistry resolver, @Nullable CachingWebDidResolver webDidResolver, Monitor monitor, NodeDirectoryMetrics metrics) {
         this.resolver = resolver;
+        this.webDidResolver = webDidResolver;
         this.monitor = monitor;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the endpoint of the first IDS messaging service of the given DID document, if any.
+     */
+    static Optional<String> getIdsMessagingUrl(DidDocument didDocument) {
+        return didDocument
+                .getService().stream()
+                .filter(service -> service.getType().equals(IDS_MESSAGING))
+                .map(Service::getServiceEndpoint)
+                .findFirst();
     }
 
     public Result<FederatedCacheNode> toFederatedCacheNode(ParticipantDto participant) {
-        var did = participant.getDid();
+        var start = System.nanoTime();
+        var result = resolve(participant.getDid());
+        metrics.recordDidResolution(start, result.succeeded());
+        return result;
+    }
+
+    private Result<FederatedCacheNode> resolve(String did) {
         monitor.debug(format("Resolving Did Document for did %s.", did));
+        if (webDidResolver != null && webDidResolver.canResolve(did)) {
+            var entry = webDidResolver.resolve(did);
+            if (entry.failed()) {
+                return resolutionFailure(did, entry.getFailureDetail());
+            }
+            return toNode(did, entry.getContent().getDocument(), entry.getContent().getIdsUrl());
+        }
+
         var didDocument = resolver.resolve(did);
         if (didDocument.failed()) {
-            monitor.severe(() -> format("Failed to resolve DID Document for %s. %s", did, didDocument.getFailureDetail()));
-            return Result.failure("Can't resolve Did Document for participant: " + did);
+            return resolutionFailure(did, didDocument.getFailureDetail());
         }
-        return getUrl(didDocument.getContent())
-                .map(url -> Result.success(new FederatedCacheNode(didDocument.getContent().getId(), url, SUPPORTED_PROTOCOLS)))
-                .orElseGet(() -> Result.failure(format("Can't resolve Did Document for participant: %s", did)));
+        return toNode(did, didDocument.getContent(), getIdsMessagingUrl(didDocument.getContent()));
     }
 
-    private Optional<String> getUrl(DidDocument didDocument) {
-        return didDocument
-                .getService().stream()
-                .filter(service -> service.getType().equals(IDS_MESSAGING))
-                .map(Service::getServiceEndpoint)
-                .findFirst();
+    private Result<FederatedCacheNode> resolutionFailure(String did, String failureDetail) {
+        monitor.severe(() -> format("Failed to resolve DID Document for %s. %s", did, failureDetail));
+        return Result.failure("Can't resolve Did Document for participant: " + did);
+    }
+
+    private Result<FederatedCacheNode> toNode(String did, DidDocument didDocument, Optional<String> idsUrl) {
+        return idsUrl
+                .map(url -> Result.success(new FederatedCacheNode(didDocument.getId(), url, SUPPORTED_PROTOCOLS)))
+                .orElseGet(() -> Result.failure(format("Can't resolve Did Document for participant: %s", did)));
     }
 }
@@ -0,0 +1,98 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.edc.connector.contract.spi.types.offer.ContractOffer;
+import org.eclipse.edc.spi.query.Criterion;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * API querying the federated catalog cache page by page, answered from the indexes of the
+ * {@link NodeAwareFederatedCacheStore}.
+ * <p>
+ * Besides the POST query taking arbitrary criteria, pages can be fetched with GET and equality filters as query
+ * parameters. GET requests can be revalidated with If-None-Match, which the {@link ConditionalCatalogResponseFilter}
+ * answers with 304 Not Modified while the catalog is unchanged.
+ */
+@Consumes({ MediaType.APPLICATION_JSON })
+@Produces({ MediaType.APPLICATION_JSON })
+@Path("/federatedcatalog/pages")
+public class FederatedCatalogPageApiController {
+
+    static final int DEFAULT_LIMIT = 100;
+
+    private final NodeAwareFederatedCacheStore store;
+    private final int maxLimit;
+
+    public FederatedCatalogPageApiController(NodeAwareFederatedCacheStore store, int maxLimit) {
+        this.store = store;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Returns a page of the cached offers matching all criteria, ordered by originator and offer id.
+     *
+     * @param criteria the criteria, all offers if absent.
+     * @param offset   number of matching offers skipped, 0 if absent.
+     * @param limit    maximum number of offers returned, {@value DEFAULT_LIMIT} (or the maximum page size, if lower) if absent.
+     */
+    @POST
+    public List<ContractOffer> getCatalogPage(List<Criterion> criteria, @QueryParam("offset") Integer offset, @QueryParam("limit") Integer limit) {
+        var from = offset != null ? offset : 0;
+        var size = limit != null ? limit : Math.min(DEFAULT_LIMIT, maxLimit);
+        if (from < 0) {
+            throw new BadRequestException("offset must not be negative but was " + from);
+        }
+        if (size < 1 || size > maxLimit) {
+            throw new BadRequestException(format("limit must be between 1 and %d but was %d", maxLimit, size));
+        }
+        return store.query(criteria != null ? criteria : List.of(), from, size);
+    }
+
+    /**
+     * Returns a page of the cached offers matching all filters, ordered by originator and offer id.
+     *
+     * @param filters equality filters of the form {@code property=value}, e.g. {@code asset:prop:id=asset1}.
+     * @param offset  number of matching offers skipped, 0 if absent.
+     * @param limit   maximum number of offers returned, {@value DEFAULT_LIMIT} (or the maximum page size, if lower) if absent.
+     */
+    @GET
+    public List<ContractOffer> getFilteredCatalogPage(@QueryParam("filter") List<String> filters, @QueryParam("offset") Integer offset, @QueryParam("limit") Integer limit) {
+        var criteria = filters == null ? List.<Criterion>of() : filters.stream()
+                .map(FederatedCatalogPageApiController::toCriterion)
+                .collect(Collectors.toList());
+        return getCatalogPage(criteria, offset, limit);
+    }
+
+    private static Criterion toCriterion(String filter) {
+        var separator = filter.indexOf('=');
+        if (separator < 1) {
+            throw new BadRequestException(format("filter must be of the form property=value but was '%s'", filter));
+        }
+        return new Criterion(filter.substring(0, separator), "=", filter.substring(separator + 1));
+    }
+}
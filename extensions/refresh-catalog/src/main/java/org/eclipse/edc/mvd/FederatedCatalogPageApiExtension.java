@@ -0,0 +1,61 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.eclipse.edc.web.spi.WebService;
+
+/**
+ * Extension adding the paged query API to the federated catalog API, and answering unchanged federated catalog
+ * queries from a cache of serialized responses, or with 304 Not Modified to clients that already have them.
+ */
+public class FederatedCatalogPageApiExtension implements ServiceExtension {
+
+    @Setting(value = "Context alias of the web context exposing the federated catalog API, to which the paged query API and conditional responses are added.")
+    private static final String API_CONTEXT = "mvd.federated.catalog.api.context";
+    private static final String API_CONTEXT_DEFAULT = "management";
+
+    @Setting(value = "Maximum number of contract offers returned per page of the paged federated catalog query API.")
+    private static final String PAGE_MAX_LIMIT = "mvd.federated.catalog.page.max.limit";
+    private static final int PAGE_MAX_LIMIT_DEFAULT = 1000;
+
+    @Setting(value = "Whether unchanged federated catalog responses are served gzip-compressed to clients accepting it.")
+    private static final String RESPONSE_GZIP = "mvd.federated.catalog.response.gzip";
+
+    @Setting(value = "Maximum number of distinct federated catalog requests whose serialized responses are kept until the catalog changes.")
+    private static final String RESPONSE_CACHE_SIZE = "mvd.federated.catalog.response.cache.size";
+    private static final int RESPONSE_CACHE_SIZE_DEFAULT = 64;
+
+    @Inject
+    private WebService webService;
+
+    @Inject
+    private TypeManager typeManager;
+
+    @Inject
+    private NodeAwareFederatedCacheStore federatedCacheStore;
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        var apiContext = context.getSetting(API_CONTEXT, API_CONTEXT_DEFAULT);
+        webService.registerResource(apiContext, new FederatedCatalogPageApiController(federatedCacheStore, context.getSetting(PAGE_MAX_LIMIT, PAGE_MAX_LIMIT_DEFAULT)));
+        webService.registerResource(apiContext, new ConditionalCatalogResponseFilter(federatedCacheStore::getVersion, typeManager.getMapper(),
+                context.getSetting(RESPONSE_GZIP, true), context.getSetting(RESPONSE_CACHE_SIZE, RESPONSE_CACHE_SIZE_DEFAULT)));
+    }
+}
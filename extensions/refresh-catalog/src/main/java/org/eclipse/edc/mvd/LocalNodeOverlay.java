@@ -0,0 +1,110 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe set of {@link FederatedCacheNode}s that were inserted locally instead of coming from the Registration
+ * Service, e.g. partner connectors in the same cluster or nodes loaded from a configuration file.
+ * <p>
+ * Nodes are keyed by name, and may expire after a time-to-live. Reads never block writers and vice versa.
+ */
+public class LocalNodeOverlay {
+
+    private final Map<String, OverlayEntry> entries = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public LocalNodeOverlay(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Adds or replaces a node.
+     *
+     * @param node the node.
+     * @param ttl  time after which the node is removed, null or {@link Duration#ZERO} to keep it until it is removed.
+     */
+    public void put(FederatedCacheNode node, @Nullable Duration ttl) {
+        var expiresAt = ttl == null || ttl.isZero() || ttl.isNegative() ? null : clock.instant().plus(ttl);
+        entries.put(node.getName(), new OverlayEntry(node, expiresAt));
+    }
+
+    /**
+     * Removes the node with the given name.
+     *
+     * @return whether there was such a node.
+     */
+    public boolean remove(String name) {
+        return entries.remove(name) != null;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Returns the nodes that have not expired, dropping the expired ones.
+     */
+    public List<FederatedCacheNode> getNodes() {
+        var now = clock.instant();
+        var nodes = new ArrayList<FederatedCacheNode>(entries.size());
+        entries.forEach((name, entry) -> {
+            if (entry.isExpired(now)) {
+                entries.remove(name, entry);
+            } else {
+                nodes.add(entry.node);
+            }
+        });
+        return nodes;
+    }
+
+    /**
+     * Merges the overlay into the given nodes. Overlay nodes replace nodes with the same name.
+     */
+    List<FederatedCacheNode> mergeInto(List<FederatedCacheNode> nodes) {
+        if (entries.isEmpty()) {
+            return nodes;
+        }
+        var merged = new LinkedHashMap<String, FederatedCacheNode>();
+        nodes.forEach(node -> merged.put(node.getName(), node));
+        getNodes().forEach(node -> merged.put(node.getName(), node));
+        return List.copyOf(merged.values());
+    }
+
+    private static class OverlayEntry {
+        private final FederatedCacheNode node;
+        private final Instant expiresAt;
+
+        OverlayEntry(FederatedCacheNode node, @Nullable Instant expiresAt) {
+            this.node = node;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(Instant now) {
+            return expiresAt != null && !now.isBefore(expiresAt);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheStore;
+import org.eclipse.edc.connector.contract.spi.types.offer.ContractOffer;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.query.Criterion;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * In-memory {@link FederatedCacheStore} that keeps the crawled contract offers grouped by the node they originate from.
+ * <p>
+ * Like the default store, offers that were not saved again between {@link #expireAll()} and {@link #deleteExpired()}
+ * are deleted. When a {@link CrawlScheduler} is set, this only applies to the nodes crawled in the current round: the
+ * offers of nodes the scheduler skipped are kept, and the content hash of every crawled node's catalog is reported
+ * back to the scheduler. When a {@link NodeHealthTracker} is set, every crawled node that delivered offers is recorded
+ * as a successful crawl.
+ * <p>
+ * Queries are answered through a {@link ContractOfferIndex} over asset id, originator and a configurable set of asset
+ * properties, which is updated with every saved and deleted offer instead of being rebuilt after a crawl. Offers are
+ * identified by their {@linkplain CatalogContentHasher#stableIdOf stable id}, so that an offer crawled again under a
+ * new random offer id replaces the one crawled before. Results are ordered by originator and stable offer id and can
+ * be queried page by page.
+ * <p>
+ * The store keeps a version that changes whenever an offer is added, deleted or saved with different content, so
+ * that clients can tell whether the cache changed since their last query. Like the catalog content hash, an offer's
+ * content leaves out its contract validity period.
+ * <p>
+ * With a {@link CompactOfferCodec}, offers are held in a compact serialized form and only materialized when a query
+ * looks at them. The compact forms of all offers are then kept within a byte budget: when it is exceeded, the catalogs
+ * of the nodes saved least recently are evicted, until they are crawled again.
+ */
+public class NodeAwareFederatedCacheStore implements FederatedCacheStore {
+
+    /**
+     * Asset property the crawler sets to the target URL of the node an offer was crawled from.
+     */
+    public static final String PROPERTY_ORIGINATOR = "asset:prop:originator";
+    private static final String NO_ORIGINATOR = "";
+
+    private final Map<String, NodeCatalog> catalogs = new HashMap<>();
+    private final ContractOfferIndex index;
+    private final AtomicLong version = new AtomicLong();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ContractOfferPredicateConverter converter = new ContractOfferPredicateConverter();
+    private final CatalogContentHasher hasher;
+    private final CrawlScheduler scheduler;
+    private final NodeHealthTracker healthTracker;
+    private final CompactOfferCodec codec;
+    private final long maxBytes;
+    private final Monitor monitor;
+    private long storedBytes;
+    private long saves;
+
+    NodeAwareFederatedCacheStore(CatalogContentHasher hasher, @Nullable CrawlScheduler scheduler, @Nullable NodeHealthTracker healthTracker, Monitor monitor) {
+        this(hasher, scheduler, healthTracker, Set.of(), monitor);
+    }
+
+    /**
+     * Creates a store.
+     *
+     * @param indexedProperties asset properties whose values are indexed for queries, in addition to the asset id and originator.
+     */
+    NodeAwareFederatedCacheStore(CatalogContentHasher hasher, @Nullable CrawlScheduler scheduler, @Nullable NodeHealthTracker healthTracker,
+                                 Set<String> indexedProperties, Monitor monitor) {
+        this(hasher, scheduler, healthTracker, indexedProperties, null, 0, monitor);
+    }
+
+    /**
+     * Creates a store.
+     *
+     * @param indexedProperties asset properties whose values are indexed for queries, in addition to the asset id and originator.
+     * @param codec             codec encoding the offers into a compact form, null to hold them as they are.
+     * @param maxBytes          maximum number of bytes of all compact offers together, 0 for no limit.
+     */
+    NodeAwareFederatedCacheStore(CatalogContentHasher hasher, @Nullable CrawlScheduler scheduler, @Nullable NodeHealthTracker healthTracker,
+                                 Set<String> indexedProperties, @Nullable CompactOfferCodec codec, long maxBytes, Monitor monitor) {
+        this.index = new ContractOfferIndex(indexedProperties);
+        this.hasher = hasher;
+        this.scheduler = scheduler;
+        this.healthTracker = healthTracker;
+        this.codec = codec;
+        this.maxBytes = maxBytes;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void save(ContractOffer contractOffer) {
+        var originator = originatorOf(contractOffer);
+        var contentHash = hasher.hash(List.of(contractOffer));
+        var stored = codec != null ? codec.encode(contractOffer) : StoredOffer.of(contractOffer);
+        lock.writeLock().lock();
+        try {
+            var catalog = catalogs.computeIfAbsent(originator, o -> new NodeCatalog());
+            catalog.lastSaved = ++saves;
+            var offerId = CatalogContentHasher.stableIdOf(contractOffer);
+            if (catalog.save(offerId, contentHash)) {
+                version.incrementAndGet();
+            }
+            var previous = index.put(originator, contractOffer, stored);
+            storedBytes += stored.byteSize() - (previous != null ? previous.byteSize() : 0);
+            enforceBudget(originator, offerId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<ContractOffer> query(List<Criterion> query) {
+        return query(query, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a page of the offers matching all criteria, ordered by originator and stable offer id.
+     *
+     * @param query  the criteria.
+     * @param offset number of matching offers skipped.
+     * @param limit  maximum number of offers returned.
+     */
+    public List<ContractOffer> query(List<Criterion> query, int offset, int limit) {
+        var predicate = query.stream().map(converter::convert).reduce(offer -> true, Predicate::and);
+        lock.readLock().lock();
+        try {
+            return index.query(query, predicate, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteExpired() {
+        lock.writeLock().lock();
+        try {
+            var crawled = scheduler != null ? scheduler.getRound() : new HashSet<>(catalogs.keySet());
+            for (var originator : crawled) {
+                var catalog = catalogs.get(originator);
+                if (catalog != null) {
+                    if (healthTracker != null && catalog.isRefreshed()) {
+                        healthTracker.recordCrawl(originator, true);
+                    }
+                    var stale = catalog.deleteStale();
+                    stale.forEach(offerId -> remove(originator, offerId));
+                    if (!stale.isEmpty()) {
+                        version.incrementAndGet();
+                    }
+                    if (catalog.contentHashes.isEmpty()) {
+                        catalogs.remove(originator);
+                    }
+                }
+                if (scheduler != null) {
+                    scheduler.recordCatalog(originator, hasher.combine(catalog != null ? catalog.contentHashes : Map.of()));
+                }
+            }
+            monitor.debug(() -> format("NodeAwareFederatedCacheStore: %d node catalog(s) crawled, %d cached", crawled.size(), catalogs.size()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void expireAll() {
+        lock.writeLock().lock();
+        try {
+            catalogs.values().forEach(NodeCatalog::expire);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the current version of the cache contents, which changes whenever an offer is added, deleted or changed.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Returns the number of bytes taken up by the compact forms of all offers.
+     */
+    public long getStoredBytes() {
+        lock.readLock().lock();
+        try {
+            return storedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the offers crawled from the node with the given target URL.
+     */
+    List<ContractOffer> getOffers(String originator) {
+        lock.readLock().lock();
+        try {
+            return index.getOffers(originator);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Evicts node catalogs, least recently saved first, until the compact offers fit into the byte budget again. If
+     * the catalog of the node just saved does not fit on its own, the offer just saved is dropped instead.
+     */
+    private void enforceBudget(String savedOriginator, String savedOfferId) {
+        if (maxBytes <= 0) {
+            return;
+        }
+        while (storedBytes > maxBytes) {
+            var victim = catalogs.entrySet().stream()
+                    .filter(entry -> !entry.getKey().equals(savedOriginator))
+                    .min(Comparator.comparingLong(entry -> entry.getValue().lastSaved))
+                    .map(Map.Entry::getKey)
+                    .orElse(null);
+            if (victim == null) {
+                monitor.warning(format("NodeAwareFederatedCacheStore: catalog of %s exceeds the budget of %d bytes, dropping offer %s", savedOriginator, maxBytes, savedOfferId));
+                catalogs.get(savedOriginator).remove(savedOfferId);
+                remove(savedOriginator, savedOfferId);
+                version.incrementAndGet();
+                // the budget was kept before this offer was saved
+                return;
+            } else {
+                monitor.warning(format("NodeAwareFederatedCacheStore: byte budget of %d bytes exceeded, evicting catalog of %s", maxBytes, victim));
+                catalogs.remove(victim).contentHashes.keySet().forEach(offerId -> remove(victim, offerId));
+            }
+            version.incrementAndGet();
+        }
+    }
+
+    private void remove(String originator, String offerId) {
+        var removed = index.remove(originator, offerId);
+        if (removed != null) {
+            storedBytes -= removed.byteSize();
+        }
+    }
+
+    private static String originatorOf(ContractOffer offer) {
+        var originator = offer.getAsset() != null ? offer.getAsset().getProperty(PROPERTY_ORIGINATOR) : null;
+        return originator != null ? originator.toString() : NO_ORIGINATOR;
+    }
+
+    /**
+     * The stable ids and content hashes of the offers crawled from one node, and the ids saved again since the last expiry.
+     * The offers themselves are held by the index.
+     */
+    private static class NodeCatalog {
+        private final Map<String, String> contentHashes = new HashMap<>();
+        private final Set<String> refreshed = new HashSet<>();
+        private long lastSaved;
+
+        /**
+         * Saves an offer.
+         *
+         * @return true if the offer is new or its content changed.
+         */
+        boolean save(String offerId, String contentHash) {
+            refreshed.add(offerId);
+            return !contentHash.equals(contentHashes.put(offerId, contentHash));
+        }
+
+        void remove(String offerId) {
+            contentHashes.remove(offerId);
+        }
+
+        boolean isRefreshed() {
+            return !refreshed.isEmpty();
+        }
+
+        void expire() {
+            refreshed.clear();
+        }
+
+        /**
+         * Deletes the offers not saved again since the last expiry.
+         *
+         * @return the ids of the deleted offers.
+         */
+        List<String> deleteStale() {
+            var stale = contentHashes.keySet().stream().filter(id -> !refreshed.contains(id)).collect(Collectors.toList());
+            stale.forEach(contentHashes::remove);
+            return stale;
+        }
+    }
+}
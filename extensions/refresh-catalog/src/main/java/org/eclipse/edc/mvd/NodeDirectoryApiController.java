@@ -0,0 +1,112 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Management API exposing the state of the federated cache node directory to operators.
+ */
+@Consumes({ MediaType.APPLICATION_JSON })
+@Produces({ MediaType.APPLICATION_JSON })
+@Path("/node-directory")
+public class NodeDirectoryApiController {
+
+    private final ParticipantQuarantine quarantine;
+    private final LocalNodeOverlay overlay;
+    private final CrawlScheduler crawlScheduler;
+    private final NodeHealthTracker healthTracker;
+
+    public NodeDirectoryApiController(ParticipantQuarantine quarantine, LocalNodeOverlay overlay, @Nullable CrawlScheduler crawlScheduler,
+                                      @Nullable NodeHealthTracker healthTracker) {
+        this.quarantine = quarantine;
+        this.overlay = overlay;
+        this.crawlScheduler = crawlScheduler;
+        this.healthTracker = healthTracker;
+    }
+
+    /**
+     * Lists the participants whose DID failed to resolve, with their circuit breaker state and next retry time.
+     */
+    @GET
+    @Path("/quarantine")
+    public List<QuarantinedParticipant> getQuarantinedParticipants() {
+        return quarantine.getQuarantined();
+    }
+
+    /**
+     * Lists the crawl schedule of every node, empty if adaptive crawl scheduling is disabled.
+     */
+    @GET
+    @Path("/schedule")
+    public List<CrawlSchedule> getCrawlSchedules() {
+        return crawlScheduler != null ? crawlScheduler.getSchedules() : List.of();
+    }
+
+    /**
+     * Lists the health and latency score of every node, best first, empty if health probing is disabled.
+     */
+    @GET
+    @Path("/health")
+    public List<NodeHealth> getNodeHealth() {
+        return healthTracker != null ? healthTracker.getHealth() : List.of();
+    }
+
+    /**
+     * Lists the locally inserted nodes.
+     */
+    @GET
+    @Path("/nodes")
+    public List<FederatedCacheNode> getLocalNodes() {
+        return overlay.getNodes();
+    }
+
+    /**
+     * Inserts a node into the local overlay, replacing any local node with the same name.
+     *
+     * @param node       the node.
+     * @param ttlSeconds seconds after which the node expires. Never expires if absent or 0.
+     */
+    @POST
+    @Path("/nodes")
+    public void insertLocalNode(FederatedCacheNode node, @QueryParam("ttlSeconds") Long ttlSeconds) {
+        overlay.put(node, ttlSeconds != null ? Duration.ofSeconds(ttlSeconds) : null);
+    }
+
+    /**
+     * Removes a locally inserted node.
+     */
+    @DELETE
+    @Path("/nodes/{name}")
+    public void removeLocalNode(@PathParam("name") String name) {
+        if (!overlay.remove(name)) {
+            throw new NotFoundException("No local node named " + name);
+        }
+    }
+}
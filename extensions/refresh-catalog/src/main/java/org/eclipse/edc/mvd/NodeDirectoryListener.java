@@ -0,0 +1,51 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+
+/**
+ * Listener notified when a directory refresh changes the set of {@link FederatedCacheNode}s.
+ */
+public interface NodeDirectoryListener {
+
+    /**
+     * A participant joined the dataspace, or its node was resolved for the first time.
+     *
+     * @param did  the DID of the participant.
+     * @param node the participant's node.
+     */
+    default void added(String did, FederatedCacheNode node) {
+    }
+
+    /**
+     * A participant left the dataspace, or its node can no longer be resolved.
+     *
+     * @param did  the DID of the participant.
+     * @param node the node the participant had before.
+     */
+    default void removed(String did, FederatedCacheNode node) {
+    }
+
+    /**
+     * The node of a participant changed, e.g. because its IDS endpoint moved.
+     *
+     * @param did      the DID of the participant.
+     * @param previous the node the participant had before.
+     * @param current  the participant's current node.
+     */
+    default void changed(String did, FederatedCacheNode previous, FederatedCacheNode current) {
+    }
+}
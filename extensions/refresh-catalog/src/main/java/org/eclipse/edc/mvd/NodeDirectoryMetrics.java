@@ -0,0 +1,101 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micrometer meters of the federated cache node directory.
+ */
+public class NodeDirectoryMetrics {
+
+    static final String LIST_PARTICIPANTS = "mvd.node.directory.list.participants";
+    static final String DID_RESOLUTION = "mvd.node.directory.did.resolution";
+    static final String NODES = "mvd.node.directory.nodes";
+    static final String REFRESH_FAILURES = "mvd.node.directory.refresh.failures";
+    static final String SINCE_LAST_SUCCESS = "mvd.node.directory.refresh.since.last.success";
+
+    private final Timer listParticipants;
+    private final Timer didResolutionSuccess;
+    private final Timer didResolutionFailure;
+    private final Counter refreshFailures;
+    private final AtomicInteger nodes = new AtomicInteger();
+    private final AtomicLong lastSuccessMillis = new AtomicLong(-1);
+    private final Clock clock;
+
+    public NodeDirectoryMetrics(MeterRegistry registry, Clock clock) {
+        this.clock = clock;
+        listParticipants = Timer.builder(LIST_PARTICIPANTS)
+                .description("Latency of listing the participants from the Registration Service")
+                .register(registry);
+        didResolutionSuccess = didResolutionTimer(registry, "success");
+        didResolutionFailure = didResolutionTimer(registry, "failure");
+        refreshFailures = Counter.builder(REFRESH_FAILURES)
+                .description("Directory refreshes that failed, e.g. because the Registration Service was unavailable")
+                .register(registry);
+        Gauge.builder(NODES, nodes, AtomicInteger::get)
+                .description("Number of federated cache nodes resolved by the last refresh")
+                .register(registry);
+        Gauge.builder(SINCE_LAST_SUCCESS, this, NodeDirectoryMetrics::secondsSinceLastSuccess)
+                .description("Seconds since the last successful directory refresh")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    /**
+     * Metrics that are not published anywhere.
+     */
+    public static NodeDirectoryMetrics noop() {
+        return new NodeDirectoryMetrics(new CompositeMeterRegistry(), Clock.systemUTC());
+    }
+
+    void recordListParticipants(long startNanos) {
+        listParticipants.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordDidResolution(long startNanos, boolean succeeded) {
+        (succeeded ? didResolutionSuccess : didResolutionFailure).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordRefreshSuccess(int nodeCount) {
+        nodes.set(nodeCount);
+        lastSuccessMillis.set(clock.millis());
+    }
+
+    void recordRefreshFailure() {
+        refreshFailures.increment();
+    }
+
+    private double secondsSinceLastSuccess() {
+        var last = lastSuccessMillis.get();
+        return last < 0 ? Double.NaN : (clock.millis() - last) / 1000.0;
+    }
+
+    private static Timer didResolutionTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder(DID_RESOLUTION)
+                .description("Latency of resolving a participant's DID to a federated cache node")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
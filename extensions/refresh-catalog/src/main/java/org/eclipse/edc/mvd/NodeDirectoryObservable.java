@@ -0,0 +1,23 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.spi.observe.ObservableImpl;
+
+/**
+ * Holds the {@link NodeDirectoryListener}s of the {@link RegistrationServiceNodeDirectory}.
+ */
+public class NodeDirectoryObservable extends ObservableImpl<NodeDirectoryListener> {
+}
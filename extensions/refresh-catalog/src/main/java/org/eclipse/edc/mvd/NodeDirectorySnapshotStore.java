@@ -0,0 +1,138 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.lang.String.format;
+
+/**
+ * Persists the last good node list of the {@link RegistrationServiceNodeDirectory} as a gzipped JSON file, so that a
+ * restarted connector can serve it before the first refresh has completed.
+ */
+class NodeDirectorySnapshotStore {
+
+    private static final TypeReference<List<Entry>> ENTRIES = new TypeReference<>() {
+    };
+
+    private final Path path;
+    private final ObjectMapper mapper;
+    private final Monitor monitor;
+
+    NodeDirectorySnapshotStore(Path path, ObjectMapper mapper, Monitor monitor) {
+        this.path = path;
+        this.mapper = mapper;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Loads the snapshot. Returns an empty list if there is none or it cannot be read.
+     */
+    List<Entry> load() {
+        if (!Files.isRegularFile(path)) {
+            return List.of();
+        }
+        try (var in = new GZIPInputStream(Files.newInputStream(path))) {
+            var entries = mapper.readValue(in, ENTRIES);
+            monitor.info(format("Loaded %d federated cache node(s) from snapshot %s", entries.size(), path));
+            return entries;
+        } catch (IOException ex) {
+            monitor.warning(format("Failed to load node directory snapshot %s, starting empty", path), ex);
+            return List.of();
+        }
+    }
+
+    /**
+     * Replaces the snapshot. The file is written next to the target and moved into place, so that a crash never leaves
+     * a partial snapshot behind.
+     */
+    void save(List<Entry> entries) {
+        try {
+            var parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            var temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            try (var out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                mapper.writeValue(out, entries);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            monitor.warning(format("Failed to write node directory snapshot %s", path), ex);
+        }
+    }
+
+    /**
+     * A resolved participant node as stored in the snapshot.
+     */
+    static class Entry {
+        private final String did;
+        private final String status;
+        private final String name;
+        private final String targetUrl;
+        private final List<String> supportedProtocols;
+        private final Instant resolvedAt;
+
+        @JsonCreator
+        Entry(@JsonProperty("did") String did,
+              @JsonProperty("status") String status,
+              @JsonProperty("name") String name,
+              @JsonProperty("targetUrl") String targetUrl,
+              @JsonProperty("supportedProtocols") List<String> supportedProtocols,
+              @JsonProperty("resolvedAt") Instant resolvedAt) {
+            this.did = did;
+            this.status = status;
+            this.name = name;
+            this.targetUrl = targetUrl;
+            this.supportedProtocols = supportedProtocols;
+            this.resolvedAt = resolvedAt;
+        }
+
+        public String getDid() {
+            return did;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getTargetUrl() {
+            return targetUrl;
+        }
+
+        public List<String> getSupportedProtocols() {
+            return supportedProtocols;
+        }
+
+        public Instant getResolvedAt() {
+            return resolvedAt;
+        }
+    }
+}
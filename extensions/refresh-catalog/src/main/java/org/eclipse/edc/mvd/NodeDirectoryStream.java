@@ -0,0 +1,33 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+
+import java.util.concurrent.Flow;
+
+/**
+ * Streaming view of the federated cache node directory, for consumers that want to start working on nodes while the
+ * remaining ones are still being resolved.
+ */
+@FunctionalInterface
+public interface NodeDirectoryStream {
+
+    /**
+     * Returns a publisher emitting every node of the directory as soon as it is known. Each subscription gets its own
+     * stream of nodes, which completes once all nodes have been emitted.
+     */
+    Flow.Publisher<FederatedCacheNode> stream();
+}
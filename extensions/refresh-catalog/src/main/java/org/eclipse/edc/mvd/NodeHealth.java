@@ -0,0 +1,72 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import java.time.Instant;
+
+/**
+ * The health and latency score of a federated cache node, as maintained by the {@link NodeHealthTracker}.
+ */
+public class NodeHealth {
+
+    private final String targetUrl;
+    private final double health;
+    private final double latencyMillis;
+    private final int consecutiveUnhealthyProbes;
+    private final boolean excluded;
+    private final Instant lastProbeAt;
+
+    public NodeHealth(String targetUrl, double health, double latencyMillis, int consecutiveUnhealthyProbes, boolean excluded, Instant lastProbeAt) {
+        this.targetUrl = targetUrl;
+        this.health = health;
+        this.latencyMillis = latencyMillis;
+        this.consecutiveUnhealthyProbes = consecutiveUnhealthyProbes;
+        this.excluded = excluded;
+        this.lastProbeAt = lastProbeAt;
+    }
+
+    public String getTargetUrl() {
+        return targetUrl;
+    }
+
+    /**
+     * Moving average of probe and crawl outcomes, from 0 (always failing) to 1 (always succeeding).
+     */
+    public double getHealth() {
+        return health;
+    }
+
+    /**
+     * Moving average of the probe round trip times.
+     */
+    public double getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public int getConsecutiveUnhealthyProbes() {
+        return consecutiveUnhealthyProbes;
+    }
+
+    /**
+     * Whether the node is currently left out of the node list.
+     */
+    public boolean isExcluded() {
+        return excluded;
+    }
+
+    public Instant getLastProbeAt() {
+        return lastProbeAt;
+    }
+}
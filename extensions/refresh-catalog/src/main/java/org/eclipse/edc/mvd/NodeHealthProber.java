@@ -0,0 +1,99 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+
+/**
+ * Probes the IDS endpoints of all federated cache nodes and records the outcome and round trip time in a
+ * {@link NodeHealthTracker}.
+ * <p>
+ * A node counts as healthy if its endpoint answers with any status below 500 within the probe timeout: the IDS
+ * endpoint typically rejects a plain GET, but answering at all shows that the connector is up. Probes are sent
+ * asynchronously, so one slow node does not delay the probes of the others.
+ */
+class NodeHealthProber implements Runnable {
+
+    private static final int SERVER_ERROR = 500;
+
+    private final Supplier<List<FederatedCacheNode>> nodes;
+    private final OkHttpClient httpClient;
+    private final NodeHealthTracker tracker;
+    private final Monitor monitor;
+
+    /**
+     * Creates a prober.
+     *
+     * @param nodes      supplies the nodes to probe.
+     * @param httpClient client sending the probes, its call timeout bounds every probe.
+     * @param tracker    tracker recording the probe outcomes.
+     * @param monitor    monitor.
+     */
+    NodeHealthProber(Supplier<List<FederatedCacheNode>> nodes, OkHttpClient httpClient, NodeHealthTracker tracker, Monitor monitor) {
+        this.nodes = nodes;
+        this.httpClient = httpClient;
+        this.tracker = tracker;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void run() {
+        try {
+            nodes.get().forEach(this::probe);
+        } catch (Exception ex) {
+            monitor.warning("NodeHealthProber: failed to probe federated cache nodes", ex);
+        }
+    }
+
+    private void probe(FederatedCacheNode node) {
+        var targetUrl = node.getTargetUrl();
+        Request request;
+        try {
+            request = new Request.Builder().url(targetUrl).get().build();
+        } catch (IllegalArgumentException ex) {
+            tracker.recordProbe(targetUrl, false, Duration.ZERO);
+            return;
+        }
+        var start = System.nanoTime();
+        httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                try (response) {
+                    tracker.recordProbe(targetUrl, response.code() < SERVER_ERROR, Duration.ofNanos(System.nanoTime() - start));
+                }
+            }
+
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException ex) {
+                monitor.debug(() -> format("NodeHealthProber: probe of %s failed: %s", targetUrl, ex.getMessage()));
+                tracker.recordProbe(targetUrl, false, Duration.ofNanos(System.nanoTime() - start));
+            }
+        });
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a rolling health and latency score per {@link FederatedCacheNode}, fed by probes of the node's IDS endpoint and
+ * by crawl outcomes, and orders node lists by it.
+ * <p>
+ * Health is an exponentially weighted moving average of the success (1) or failure (0) of probes and crawls, latency an
+ * exponentially weighted moving average of the probe round trip times. Nodes are ordered by their expected cost, i.e.
+ * latency divided by health, so that slow or failing nodes come last; nodes without samples come first, so that they
+ * get measured. Nodes are keyed by their target URL.
+ */
+public class NodeHealthTracker {
+
+    private static final double ALPHA = 0.3;
+    private static final double MIN_HEALTH = 0.05;
+
+    private final int excludeAfterUnhealthyProbes;
+    private final Clock clock;
+    private final Map<String, Score> scores = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a tracker.
+     *
+     * @param excludeAfterUnhealthyProbes number of consecutive unhealthy probes after which a node is excluded from
+     *                                    ranked node lists until it is healthy again. 0 never excludes nodes.
+     * @param clock                       clock.
+     */
+    public NodeHealthTracker(int excludeAfterUnhealthyProbes, Clock clock) {
+        if (excludeAfterUnhealthyProbes < 0) {
+            throw new IllegalArgumentException("excludeAfterUnhealthyProbes must not be negative but was " + excludeAfterUnhealthyProbes);
+        }
+        this.excludeAfterUnhealthyProbes = excludeAfterUnhealthyProbes;
+        this.clock = clock;
+    }
+
+    public void recordProbe(String targetUrl, boolean healthy, Duration latency) {
+        var now = clock.instant();
+        scores.compute(targetUrl, (url, score) -> (score != null ? score : Score.UNKNOWN).probed(healthy, latency, now));
+    }
+
+    public void recordCrawl(String targetUrl, boolean succeeded) {
+        scores.compute(targetUrl, (url, score) -> (score != null ? score : Score.UNKNOWN).crawled(succeeded));
+    }
+
+    /**
+     * Orders the given nodes by their score, best first, leaving out nodes that have been unhealthy for too many
+     * consecutive probes. Scores of nodes that are not part of the list are dropped.
+     */
+    public List<FederatedCacheNode> rank(List<FederatedCacheNode> nodes) {
+        var targetUrls = nodes.stream().map(FederatedCacheNode::getTargetUrl).collect(Collectors.toSet());
+        scores.keySet().retainAll(targetUrls);
+        return nodes.stream()
+                .filter(node -> !isExcluded(scores.get(node.getTargetUrl())))
+                .sorted(Comparator.comparingDouble(node -> cost(scores.get(node.getTargetUrl()))))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Lists the scores of all known nodes, best first.
+     */
+    public List<NodeHealth> getHealth() {
+        return scores.entrySet().stream()
+                .sorted(Comparator.comparingDouble(entry -> cost(entry.getValue())))
+                .map(entry -> {
+                    var score = entry.getValue();
+                    return new NodeHealth(entry.getKey(), score.health, score.latencyMillis, score.consecutiveUnhealthyProbes,
+                            isExcluded(score), score.lastProbeAt);
+                })
+                .collect(Collectors.toList());
+    }
+
+    private boolean isExcluded(Score score) {
+        return excludeAfterUnhealthyProbes > 0 && score != null && score.consecutiveUnhealthyProbes >= excludeAfterUnhealthyProbes;
+    }
+
+    private static double cost(Score score) {
+        if (score == null || score.samples == 0) {
+            return 0;
+        }
+        return Math.max(score.latencyMillis, 1) / Math.max(score.health, MIN_HEALTH);
+    }
+
+    private static double average(double current, double sample, int samples) {
+        return samples == 0 ? sample : ALPHA * sample + (1 - ALPHA) * current;
+    }
+
+    private static class Score {
+        private static final Score UNKNOWN = new Score(1, 0, 0, 0, 0, null);
+
+        private final double health;
+        private final double latencyMillis;
+        private final int samples;
+        private final int latencySamples;
+        private final int consecutiveUnhealthyProbes;
+        private final Instant lastProbeAt;
+
+        Score(double health, double latencyMillis, int samples, int latencySamples, int consecutiveUnhealthyProbes, Instant lastProbeAt) {
+            this.health = health;
+            this.latencyMillis = latencyMillis;
+            this.samples = samples;
+            this.latencySamples = latencySamples;
+            this.consecutiveUnhealthyProbes = consecutiveUnhealthyProbes;
+            this.lastProbeAt = lastProbeAt;
+        }
+
+        Score probed(boolean healthy, Duration latency, Instant now) {
+            return new Score(average(health, healthy ? 1 : 0, samples),
+                    average(latencyMillis, latency.toMillis(), latencySamples),
+                    samples + 1, latencySamples + 1,
+                    healthy ? 0 : consecutiveUnhealthyProbes + 1,
+                    now);
+        }
+
+        Score crawled(boolean succeeded) {
+            return new Score(average(health, succeeded ? 1 : 0, samples), latencyMillis, samples + 1, latencySamples, consecutiveUnhealthyProbes, lastProbeAt);
+        }
+    }
+}
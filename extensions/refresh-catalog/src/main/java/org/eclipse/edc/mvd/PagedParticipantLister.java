@@ -0,0 +1,166 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.eclipse.edc.registration.client.api.RegistryApi;
+import org.eclipse.edc.registration.client.models.ParticipantDto;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.iam.TokenParameters;
+import org.eclipse.edc.spi.iam.TokenRepresentation;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * Lists the dataspace participants page by page from the paged participant listing of the Registration Service, so
+ * that only one page of participants is held in memory at a time.
+ * <p>
+ * Every iteration walks the listing from the first page, following the cursor returned with each page. Requests are
+ * authenticated like the ones of the Registration Service client. If the Registration Service does not offer the
+ * paged listing, the participants are listed in a single response through {@link RegistryApi} instead, and the paged
+ * listing is not asked for again.
+ */
+public class PagedParticipantLister implements Iterable<List<ParticipantDto>> {
+
+    static final String PAGES_PATH = "registry/participant-pages";
+    private static final int NOT_FOUND = 404;
+
+    private final OkHttpClient httpClient;
+    private final String registrationServiceApiUrl;
+    private final Function<TokenParameters, Result<TokenRepresentation>> credentialsProvider;
+    private final ObjectMapper mapper;
+    private final int pageSize;
+    private final RegistryApi fallback;
+    private final Monitor monitor;
+    private volatile boolean pagingUnsupported;
+
+    public PagedParticipantLister(OkHttpClient httpClient, String registrationServiceApiUrl, Function<TokenParameters, Result<TokenRepresentation>> credentialsProvider,
+                                  ObjectMapper mapper, int pageSize, RegistryApi fallback, Monitor monitor) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be at least 1 but was " + pageSize);
+        }
+        this.httpClient = httpClient;
+        this.registrationServiceApiUrl = registrationServiceApiUrl;
+        this.credentialsProvider = credentialsProvider;
+        this.mapper = mapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.pageSize = pageSize;
+        this.fallback = fallback;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Iterator<List<ParticipantDto>> iterator() {
+        return new PageIterator();
+    }
+
+    /**
+     * Fetches one page.
+     *
+     * @return the page, or null if the Registration Service does not offer the paged listing.
+     */
+    private Page fetch(String cursor) {
+        var url = HttpUrl.get(registrationServiceApiUrl).newBuilder()
+                .addPathSegments(PAGES_PATH)
+                .addQueryParameter("limit", String.valueOf(pageSize));
+        if (cursor != null) {
+            url.addQueryParameter("after", cursor);
+        }
+        var token = credentialsProvider.apply(TokenParameters.Builder.newInstance().audience(registrationServiceApiUrl).build());
+        if (token.failed()) {
+            throw new EdcException("Failed to obtain credentials for the Registration Service: " + token.getFailureDetail());
+        }
+        var request = new Request.Builder()
+                .url(url.build())
+                .header("Authorization", "Bearer " + token.getContent().getToken())
+                .get()
+                .build();
+
+        try (var response = httpClient.newCall(request).execute()) {
+            if (response.code() == NOT_FOUND && cursor == null) {
+                return null;
+            }
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new EdcException(format("Failed to list participants from %s: HTTP %d", request.url(), response.code()));
+            }
+            return mapper.readValue(response.body().byteStream(), Page.class);
+        } catch (IOException ex) {
+            throw new EdcException(format("Failed to list participants from %s: %s", request.url(), ex.getMessage()), ex);
+        }
+    }
+
+    private class PageIterator implements Iterator<List<ParticipantDto>> {
+        private List<ParticipantDto> next;
+        private String cursor;
+        private boolean exhausted;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !exhausted) {
+                advance();
+            }
+            return next != null;
+        }
+
+        @Override
+        public List<ParticipantDto> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            var page = next;
+            next = null;
+            return page;
+        }
+
+        private void advance() {
+            var page = pagingUnsupported ? null : fetch(cursor);
+            if (page == null) {
+                if (!pagingUnsupported) {
+                    pagingUnsupported = true;
+                    monitor.warning("Registration Service offers no paged participant listing, listing all participants at once from now on");
+                }
+                next = fallback.listParticipants();
+                exhausted = true;
+                return;
+            }
+            cursor = page.nextCursor;
+            exhausted = cursor == null;
+            // an empty page only ever terminates the listing
+            next = page.participants != null && !page.participants.isEmpty() ? page.participants : null;
+            if (next == null && !exhausted) {
+                throw new EdcException("Registration Service returned an empty participant page with a next cursor");
+            }
+        }
+    }
+
+    /**
+     * A page as returned by the Registration Service.
+     */
+    private static class Page {
+        public List<ParticipantDto> participants;
+        public String nextCursor;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Tracks participants whose DID could not be resolved, so that they are not retried on every directory refresh.
+ * <p>
+ * Every participant has a circuit breaker. It stays {@link State#CLOSED} until {@code failureThreshold} consecutive
+ * resolutions have failed, then it opens and the participant is skipped until its retry time. The retry delay grows
+ * exponentially with the number of failures, up to {@code maxBackoff}, and is jittered so that participants that
+ * failed together are not retried together. Once the retry time has passed, a single trial resolution is let through
+ * ({@link State#HALF_OPEN}): if it succeeds the breaker closes, otherwise it opens again with a longer delay.
+ */
+public class ParticipantQuarantine {
+
+    private final Map<String, FailureRecord> failures = new ConcurrentHashMap<>();
+    private final int failureThreshold;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Clock clock;
+    private final DoubleSupplier jitter;
+    private final Monitor monitor;
+
+    public ParticipantQuarantine(int failureThreshold, Duration initialBackoff, Duration maxBackoff, Clock clock, Monitor monitor) {
+        this(failureThreshold, initialBackoff, maxBackoff, clock, () -> ThreadLocalRandom.current().nextDouble(), monitor);
+    }
+
+    ParticipantQuarantine(int failureThreshold, Duration initialBackoff, Duration maxBackoff, Clock clock, DoubleSupplier jitter, Monitor monitor) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be at least 1 but was " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.clock = clock;
+        this.jitter = jitter;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Whether the DID of the participant may be resolved now. Moves an open breaker whose retry time has passed to
+     * {@link State#HALF_OPEN}.
+     */
+    public boolean allowAttempt(String did) {
+        var record = failures.get(did);
+        if (record == null) {
+            return true;
+        }
+        synchronized (record) {
+            switch (record.state) {
+                case OPEN:
+                    if (clock.instant().isBefore(record.retryAt)) {
+                        return false;
+                    }
+                    record.state = State.HALF_OPEN;
+                    return true;
+                case HALF_OPEN:
+                case CLOSED:
+                default:
+                    return true;
+            }
+        }
+    }
+
+    /**
+     * Closes the breaker of the participant and forgets its failures.
+     */
+    public void recordSuccess(String did) {
+        var record = failures.remove(did);
+        if (record != null && record.state != State.CLOSED) {
+            monitor.info(format("Participant %s resolved again after %d failure(s), leaving quarantine", did, record.consecutiveFailures));
+        }
+    }
+
+    /**
+     * Records a failed resolution of the participant, opening its breaker once the failure threshold is reached.
+     */
+    public void recordFailure(String did, String reason) {
+        var record = failures.computeIfAbsent(did, d -> new FailureRecord());
+        synchronized (record) {
+            record.consecutiveFailures++;
+            record.lastFailure = reason;
+            if (record.state == State.HALF_OPEN || record.consecutiveFailures >= failureThreshold) {
+                var delay = backoff(record.consecutiveFailures - failureThreshold);
+                record.state = State.OPEN;
+                record.retryAt = clock.instant().plus(delay);
+                monitor.warning(format("Participant %s failed to resolve %d time(s), skipping it until %s: %s", did, record.consecutiveFailures, record.retryAt, reason));
+            }
+        }
+    }
+
+    /**
+     * Forgets the failures of all participants that are not in the given set, e.g. because they left the registry.
+     */
+    public void retainOnly(Set<String> dids) {
+        failures.keySet().retainAll(dids);
+    }
+
+    /**
+     * Returns the participants that currently have failures recorded, ordered by their next retry time.
+     */
+    public List<QuarantinedParticipant> getQuarantined() {
+        return failures.entrySet().stream()
+                .map(entry -> {
+                    var record = entry.getValue();
+                    synchronized (record) {
+                        return new QuarantinedParticipant(entry.getKey(), record.state.name(), record.consecutiveFailures, record.lastFailure, record.retryAt);
+                    }
+                })
+                .sorted(Comparator.comparing(QuarantinedParticipant::getRetryAt, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Exponential backoff with "equal jitter": half of the delay is fixed, the other half random.
+     */
+    private Duration backoff(int exponent) {
+        var maxMillis = maxBackoff.toMillis();
+        var delayMillis = initialBackoff.toMillis() << Math.min(Math.max(exponent, 0), 30);
+        if (delayMillis <= 0 || delayMillis > maxMillis) {
+            delayMillis = maxMillis;
+        }
+        var half = delayMillis / 2;
+        return Duration.ofMillis(half + (long) (half * jitter.getAsDouble()));
+    }
+
+    enum State {
+        /**
+         * Resolution is attempted on every refresh.
+         */
+        CLOSED,
+        /**
+         * The participant is skipped until its retry time.
+         */
+        OPEN,
+        /**
+         * A single trial resolution is being made after the retry time has passed.
+         */
+        HALF_OPEN
+    }
+
+    private static class FailureRecord {
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private String lastFailure;
+        private Instant retryAt;
+    }
+}
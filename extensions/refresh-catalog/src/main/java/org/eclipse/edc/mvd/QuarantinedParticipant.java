@@ -0,0 +1,63 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import java.time.Instant;
+
+/**
+ * A participant whose DID failed to resolve, as reported by the {@link ParticipantQuarantine}.
+ */
+public class QuarantinedParticipant {
+
+    private final String did;
+    private final String state;
+    private final int consecutiveFailures;
+    private final String lastFailure;
+    private final Instant retryAt;
+
+    public QuarantinedParticipant(String did, String state, int consecutiveFailures, String lastFailure, Instant retryAt) {
+        this.did = did;
+        this.state = state;
+        this.consecutiveFailures = consecutiveFailures;
+        this.lastFailure = lastFailure;
+        this.retryAt = retryAt;
+    }
+
+    public String getDid() {
+        return did;
+    }
+
+    /**
+     * State of the participant's circuit breaker: CLOSED, OPEN or HALF_OPEN.
+     */
+    public String getState() {
+        return state;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public String getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * Time from which the participant is resolved again, null while the breaker is closed.
+     */
+    public Instant getRetryAt() {
+        return retryAt;
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Looks up the nodes of the participants registered in the federated cache node directory, e.g. to check that a
+ * request comes from a registered participant.
+ */
+@FunctionalInterface
+public interface RegisteredNodeLookup {
+
+    /**
+     * Returns the node of the registered participant with the given DID, or null if it is not registered.
+     */
+    @Nullable
+    FederatedCacheNode getRegisteredNode(String did);
+}
@@ -19,22 +19,101 @@ import org.eclipse.edc.catalog.spi.FederatedCacheNodeDirectory;
 import org.eclipse.edc.registration.client.api.RegistryApi;
 import org.eclipse.edc.registration.client.models.ParticipantDto;
 import org.eclipse.edc.spi.monitor.Monitor;
-import org.eclipse.edc.spi.result.AbstractResult;
+import org.eclipse.edc.spi.result.Result;
+import org.jetbrains.annotations.Nullable;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static java.lang.String.format;
+
 /**
  * Federated cache directory using Registration Service as backend.
+ * <p>
+ * When a cache TTL is configured, the last successfully resolved node list is kept in memory and served to callers.
+ * Once the TTL has elapsed, the list is refreshed in the background while callers keep receiving the stale list, so
+ * only the very first call blocks on the Registration Service and the DID hosts. Refreshes are single-flight: callers
+ * that need a refresh while one is in flight share its result instead of starting their own.
+ * <p>
+ * When a {@link ConcurrentNodeResolver} is configured, the participants' DIDs are resolved concurrently. Participants
+ * whose resolution misses its timeout are served from the previous refresh, if they were resolved back then.
+ * <p>
+ * Refreshes are incremental: the participant list is compared with the previous refresh by DID and participant status,
+ * and only new or changed participants are resolved again. The differences are published to the
+ * {@link NodeDirectoryListener}s registered with the {@link NodeDirectoryObservable}.
+ * <p>
+ * Participants whose resolution keeps failing are skipped according to the {@link ParticipantQuarantine}, if one is
+ * configured. A quarantined participant keeps the node it had in the previous refresh, if any.
+ * <p>
+ * With a {@link NodeDirectorySnapshotStore}, the node list is persisted whenever it changes and loaded again when the
+ * directory is built, so that a restarted connector serves the last good nodes right away and an unavailable
+ * Registration Service degrades to stale nodes instead of an empty list.
+ * <p>
+ * Nodes can also be inserted locally through {@link #insert(FederatedCacheNode)}. They are kept in a
+ * {@link LocalNodeOverlay} and merged into the registered nodes on every read, replacing registered nodes with the same
+ * name, until they expire or are removed.
+ * <p>
+ * With a {@link CrawlScheduler}, {@link #getAll()} only returns the nodes that are due for crawling, so that nodes with
+ * a rarely changing catalog are crawled less often than the crawler runs.
+ * <p>
+ * With a {@link PagedParticipantLister}, the participants are listed and resolved page by page, so that memory use
+ * does not grow with the size of the participant listing beyond the resulting nodes.
+ * <p>
+ * With a {@link CrawlShard}, only the participants assigned to this replica are resolved and returned, so that
+ * horizontally scaled consumer connectors split the crawl targets among themselves. Locally inserted nodes are not
+ * sharded.
+ * <p>
+ * With a {@link NodeHealthTracker}, {@link #getAll()} orders the nodes by their health and latency score, best first,
+ * and leaves out nodes that failed too many consecutive probes.
  */
-public class RegistrationServiceNodeDirectory implements FederatedCacheNodeDirectory {
+public class RegistrationServiceNodeDirectory implements FederatedCacheNodeDirectory, NodeDirectoryStream, RegisteredNodeLookup {
 
-    private final RegistryApi apiClient;
-    private final FederatedCacheNodeResolver resolver;
-    private final Monitor monitor;
+    private final AtomicReference<CompletableFuture<List<FederatedCacheNode>>> inFlight = new AtomicReference<>();
+    private RegistryApi apiClient;
+    private PagedParticipantLister participantPager;
+    private FederatedCacheNodeResolver resolver;
+    private ConcurrentNodeResolver concurrentResolver;
+    private Monitor monitor;
+    private Duration cacheTtl = Duration.ZERO;
+    private int streamBufferSize = Flow.defaultBufferSize();
+    private Executor refreshExecutor = Runnable::run;
+    private Clock clock = Clock.systemUTC();
+    private Duration resyncInterval = Duration.ZERO;
+    private NodeDirectoryObservable observable;
+    private ParticipantQuarantine quarantine;
+    private NodeDirectorySnapshotStore snapshotStore;
+    private LocalNodeOverlay overlay;
+    private Duration localNodeTtl = Duration.ZERO;
+    private NodeDirectoryMetrics metrics = NodeDirectoryMetrics.noop();
+    private CrawlScheduler crawlScheduler;
+    private CrawlShard shard;
+    private NodeHealthTracker healthTracker;
+    private volatile CachedNodes cachedNodes;
 
     /**
-     * Constructs {@link RegistrationServiceNodeDirectory}
+     * Constructs {@link RegistrationServiceNodeDirectory} without caching: every call to {@link #getAll()} queries the
+     * Registration Service.
      *
      * @param monitor   monitor
      * @param apiClient RegistrationService API client.
@@ -44,24 +123,646 @@ public class RegistrationServiceNodeDirectory implements FederatedCacheNodeDirec
         this.apiClient = apiClient;
         this.resolver = resolver;
         this.monitor = monitor;
+        this.overlay = new LocalNodeOverlay(clock);
+    }
+
+    private RegistrationServiceNodeDirectory() {
     }
 
     @Override
     public List<FederatedCacheNode> getAll() {
+        var nodes = getKnownNodes();
+        if (healthTracker != null) {
+            nodes = healthTracker.rank(nodes);
+        }
+        return crawlScheduler != null ? crawlScheduler.selectDue(nodes) : nodes;
+    }
+
+    /**
+     * Inserts a node into the local overlay, using the default time-to-live of the overlay nodes.
+     */
+    @Override
+    public void insert(FederatedCacheNode federatedCacheNode) {
+        overlay.put(federatedCacheNode, localNodeTtl);
+    }
+
+    /**
+     * Inserts a node into the local overlay.
+     *
+     * @param federatedCacheNode the node, replacing any node with the same name.
+     * @param ttl                time after which the node expires, {@link Duration#ZERO} to keep it until removed.
+     */
+    public void insert(FederatedCacheNode federatedCacheNode, Duration ttl) {
+        overlay.put(federatedCacheNode, ttl);
+    }
+
+    /**
+     * Removes a node from the local overlay. Nodes coming from the Registration Service cannot be removed.
+     *
+     * @return whether the overlay contained such a node.
+     */
+    public boolean remove(String name) {
+        return overlay.remove(name);
+    }
+
+    /**
+     * Streams the nodes of the directory, emitting each node as soon as it is known instead of after all participants
+     * have been resolved, so that consumers can start working on the first nodes while later DIDs are still resolving.
+     * <p>
+     * Locally inserted nodes are emitted first. If the cached node list is fresh, it is emitted right away; otherwise
+     * a refresh is started and the nodes taken over from the previous refresh are emitted immediately, followed by
+     * each newly resolved node as its DID resolves. If a refresh is already in flight, its nodes are emitted when it
+     * completes. Every subscription gets its own stream, which completes once all nodes have been emitted. Like
+     * {@link #getKnownNodes()}, the stream is neither ordered by health nor restricted by the crawl schedule.
+     * <p>
+     * Nodes are buffered per subscription up to the stream buffer size. A subscriber that falls further behind is
+     * failed with an {@link IllegalStateException} rather than holding up the refresh shared with other callers.
+     */
+    @Override
+    public Flow.Publisher<FederatedCacheNode> stream() {
+        return subscriber -> {
+            var publisher = new SubmissionPublisher<FederatedCacheNode>(ForkJoinPool.commonPool(), streamBufferSize);
+            publisher.subscribe(subscriber);
+            var emitter = new NodeEmitter(publisher, overlay.getNodes());
+
+            var current = cachedNodes;
+            if (current != null && !cacheTtl.isZero() && !cacheTtl.isNegative() && !current.isExpired(clock.instant())) {
+                current.nodes.forEach(emitter);
+                emitter.close();
+                return;
+            }
+            sharedRefresh(refreshExecutor, emitter).whenComplete((nodes, failure) -> {
+                var remaining = nodes;
+                if (failure != null) {
+                    monitor.severe("RegistrationServiceNodeDirectory.stream() threw an exception: " + failure.getMessage());
+                    var fallback = cachedNodes;
+                    remaining = fallback != null ? fallback.nodes : List.of();
+                }
+                // nodes of a refresh joined while in flight have not been emitted yet, all others are skipped
+                remaining.forEach(emitter);
+                emitter.close();
+            });
+        };
+    }
+
+    /**
+     * Returns all registered and locally inserted nodes, regardless of their health and crawl schedule.
+     */
+    List<FederatedCacheNode> getKnownNodes() {
+        return overlay.mergeInto(getRegisteredNodes());
+    }
+
+    @Override
+    @Nullable
+    public FederatedCacheNode getRegisteredNode(String did) {
+        if (cachedNodes == null) {
+            getRegisteredNodes();
+        }
+        var current = cachedNodes;
+        var entry = current != null ? current.entries.get(did) : null;
+        return entry != null ? entry.node : null;
+    }
+
+    private List<FederatedCacheNode> getRegisteredNodes() {
+        if (cacheTtl.isZero() || cacheTtl.isNegative()) {
+            return awaitRefresh();
+        }
+
+        var current = cachedNodes;
+        if (current == null) {
+            // cold cache: nothing to serve yet, the caller has to wait for the first listing
+            return awaitRefresh();
+        }
+        if (current.isExpired(clock.instant())) {
+            sharedRefresh(refreshExecutor);
+        }
+        return current.nodes;
+    }
+
+    /**
+     * Refreshes on the calling thread, or waits for the refresh already in flight.
+     */
+    private List<FederatedCacheNode> awaitRefresh() {
         try {
-            return apiClient.listParticipants().stream()
-                    .map(resolver::toFederatedCacheNode)
-                    .filter(AbstractResult::succeeded)
-                    .map(AbstractResult::getContent)
-                    .collect(Collectors.toList());
+            return sharedRefresh(Runnable::run).join();
+        } catch (CompletionException | CancellationException ex) {
+            monitor.severe("RegistrationServiceNodeDirectory.getAll() threw an exception: " + ex.getMessage());
+            var current = cachedNodes;
+            return current != null ? current.nodes : List.of();
+        }
+    }
+
+    /**
+     * Starts a refresh on the given executor, unless one is already in flight. Either way, returns the future of the
+     * refresh in flight, so that concurrent callers share a single registry listing and DID resolution run.
+     */
+    private CompletableFuture<List<FederatedCacheNode>> sharedRefresh(Executor executor) {
+        return sharedRefresh(executor, node -> {
+        });
+    }
+
+    /**
+     * Like {@link #sharedRefresh(Executor)}, additionally passing every node to the given callback as soon as it is
+     * known, if this call starts the refresh. Callers joining a refresh in flight only get its result.
+     */
+    private CompletableFuture<List<FederatedCacheNode>> sharedRefresh(Executor executor, Consumer<FederatedCacheNode> onNode) {
+        var promise = new CompletableFuture<List<FederatedCacheNode>>();
+        var existing = inFlight.compareAndExchange(null, promise);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    promise.complete(refresh(onNode));
+                } catch (Throwable ex) {
+                    promise.completeExceptionally(ex);
+                } finally {
+                    inFlight.compareAndSet(promise, null);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            inFlight.compareAndSet(promise, null);
+            promise.completeExceptionally(ex);
+            monitor.warning("RegistrationServiceNodeDirectory: refresh rejected, serving cached nodes", ex);
+        }
+        return promise;
+    }
+
+    /**
+     * Lists the participants and resolves the nodes of those that are new, changed their status, or whose node is
+     * older than the resync interval. All other nodes are taken over from the previous refresh. On success the result
+     * replaces the cached node list and the listeners are notified about the differences, on failure the last good
+     * node list is returned, or an empty list if there is none.
+     *
+     * @param onNode called with every node of the new node list as soon as it is known: first with the nodes taken over
+     *               from the previous refresh, then with each node as its DID resolves.
+     */
+    private List<FederatedCacheNode> refresh(Consumer<FederatedCacheNode> onNode) {
+        try {
+            var now = clock.instant();
+            var previous = cachedNodes != null ? cachedNodes.entries : Map.<String, NodeEntry>of();
+            var entries = new LinkedHashMap<String, NodeEntry>();
+            var listed = 0;
+            var resolved = 0;
+            var listedDids = new HashSet<String>();
+
+            // participants are processed page by page, so that only the current page is held in memory besides the nodes.
+            // Listing happens when the iterator is created or advanced, so the timer covers both.
+            var start = System.nanoTime();
+            var pages = participantPages().iterator();
+            while (pages.hasNext()) {
+                var page = ownedParticipants(pages.next());
+                metrics.recordListParticipants(start);
+                listed += page.size();
+                if (quarantine != null) {
+                    page.forEach(participant -> listedDids.add(participant.getDid()));
+                }
+                resolved += refreshPage(page, previous, entries, now, onNode);
+                start = System.nanoTime();
+            }
+            if (quarantine != null) {
+                // participants that left the registry would otherwise keep their failure records forever
+                quarantine.retainOnly(listedDids);
+            }
+
+            var snapshot = new CachedNodes(entries, now.plus(cacheTtl));
+            cachedNodes = snapshot;
+            metrics.recordRefreshSuccess(snapshot.nodes.size());
+            if (publishChanges(previous, entries) && snapshotStore != null) {
+                snapshotStore.save(toSnapshot(entries));
+            }
+            var participantCount = listed;
+            var resolvedCount = resolved;
+            monitor.debug(() -> format("RegistrationServiceNodeDirectory: %d participant(s), %d resolved, %d node(s)", participantCount, resolvedCount, snapshot.nodes.size()));
+            return snapshot.nodes;
         } catch (Exception ex) {
+            metrics.recordRefreshFailure();
             monitor.severe("RegistrationServiceNodeDirectory.getAll() threw an exception: " + ex.getMessage());
-            return List.of();
+            var current = cachedNodes;
+            return current != null ? current.nodes : List.of();
         }
     }
 
-    @Override
-    public void insert(FederatedCacheNode federatedCacheNode) {
-        throw new UnsupportedOperationException();
+    private Iterable<List<ParticipantDto>> participantPages() {
+        if (participantPager != null) {
+            return participantPager;
+        }
+        return () -> List.of(apiClient.listParticipants()).iterator();
+    }
+
+    /**
+     * Resolves the outdated participants of one page and adds the nodes of all participants of the page to the given
+     * entries.
+     *
+     * @return the number of participants that were resolved.
+     */
+    private int refreshPage(List<ParticipantDto> participants, Map<String, NodeEntry> previous, Map<String, NodeEntry> entries, Instant now, Consumer<FederatedCacheNode> onNode) {
+        var outdated = participants.stream()
+                .filter(participant -> needsResolution(participant, previous.get(participant.getDid()), now))
+                .filter(participant -> quarantine == null || quarantine.allowAttempt(participant.getDid()))
+                .collect(Collectors.toList());
+        var outdatedDids = outdated.stream().map(ParticipantDto::getDid).collect(Collectors.toSet());
+        participants.stream()
+                .filter(participant -> !outdatedDids.contains(participant.getDid()))
+                .map(participant -> previous.get(participant.getDid()))
+                .filter(Objects::nonNull)
+                .forEach(entry -> onNode.accept(entry.node));
+        var resolutions = resolveAll(outdated, (did, result) -> {
+            if (result.succeeded()) {
+                onNode.accept(result.getContent());
+            }
+        });
+        recordOutcomes(outdated, resolutions);
+        var results = resolutions.getResults();
+
+        for (var participant : participants) {
+            var did = participant.getDid();
+            var previousEntry = previous.get(did);
+            var result = results.get(did);
+            if (result == null) {
+                // unchanged, or resolution missed its timeout or was never scheduled: keep the node of the previous refresh
+                if (previousEntry != null) {
+                    entries.put(did, previousEntry);
+                    if (outdatedDids.contains(did)) {
+                        onNode.accept(previousEntry.node);
+                    }
+                }
+            } else if (result.succeeded()) {
+                entries.put(did, new NodeEntry(statusOf(participant), result.getContent(), now));
+            }
+        }
+        return outdated.size();
+    }
+
+    private boolean needsResolution(ParticipantDto participant, NodeEntry previousEntry, Instant now) {
+        return previousEntry == null ||
+                !Objects.equals(previousEntry.status, statusOf(participant)) ||
+                (!resyncInterval.isZero() && !now.isBefore(previousEntry.resolvedAt.plus(resyncInterval)));
+    }
+
+    private List<ParticipantDto> ownedParticipants(List<ParticipantDto> participants) {
+        if (shard == null) {
+            return participants;
+        }
+        var assignment = shard.currentAssignment();
+        return participants.stream()
+                .filter(participant -> assignment.owns(participant.getDid()))
+                .collect(Collectors.toList());
+    }
+
+    private ConcurrentNodeResolver.Resolutions resolveAll(List<ParticipantDto> participants, BiConsumer<String, Result<FederatedCacheNode>> onResult) {
+        if (participants.isEmpty()) {
+            return new ConcurrentNodeResolver.Resolutions(Map.of(), Set.of());
+        }
+        if (concurrentResolver != null) {
+            return concurrentResolver.resolve(participants, onResult);
+        }
+        // resolve host by host, so that consecutive requests reuse the keep-alive connection to a DID host
+        var results = new HashMap<String, Result<FederatedCacheNode>>();
+        ConcurrentNodeResolver.groupByHost(participants).values().forEach(group -> group.forEach(participant -> {
+            var result = resolver.toFederatedCacheNode(participant);
+            results.put(participant.getDid(), result);
+            onResult.accept(participant.getDid(), result);
+        }));
+        return new ConcurrentNodeResolver.Resolutions(results, results.keySet());
+    }
+
+    private void recordOutcomes(List<ParticipantDto> attempted, ConcurrentNodeResolver.Resolutions resolutions) {
+        if (quarantine == null) {
+            return;
+        }
+        for (var participant : attempted) {
+            var did = participant.getDid();
+            var result = resolutions.getResults().get(did);
+            if (result == null) {
+                // participants left out when the deadline passed were not contacted and are tried again next refresh
+                if (resolutions.isScheduled(did)) {
+                    quarantine.recordFailure(did, "resolution timed out");
+                }
+            } else if (result.succeeded()) {
+                quarantine.recordSuccess(did);
+            } else {
+                quarantine.recordFailure(did, result.getFailureDetail());
+            }
+        }
+    }
+
+    /**
+     * Notifies the listeners about the differences between two refreshes.
+     *
+     * @return whether there were any differences.
+     */
+    private boolean publishChanges(Map<String, NodeEntry> previous, Map<String, NodeEntry> current) {
+        var changed = false;
+        for (var entry : current.entrySet()) {
+            var did = entry.getKey();
+            var node = entry.getValue().node;
+            var previousEntry = previous.get(did);
+            if (previousEntry == null) {
+                changed = true;
+                notifyListeners(listener -> listener.added(did, node));
+            } else if (previousEntry != entry.getValue()) {
+                changed = true;
+                if (!sameNode(previousEntry.node, node)) {
+                    notifyListeners(listener -> listener.changed(did, previousEntry.node, node));
+                }
+            }
+        }
+        for (var entry : previous.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                changed = true;
+                notifyListeners(listener -> listener.removed(entry.getKey(), entry.getValue().node));
+            }
+        }
+        return changed;
+    }
+
+    private void notifyListeners(Consumer<NodeDirectoryListener> event) {
+        if (observable == null) {
+            return;
+        }
+        observable.invokeForEach(listener -> {
+            try {
+                event.accept(listener);
+            } catch (Exception ex) {
+                monitor.warning("RegistrationServiceNodeDirectory: node directory listener failed", ex);
+            }
+        });
+    }
+
+    private void loadSnapshot() {
+        var entries = new LinkedHashMap<String, NodeEntry>();
+        for (var entry : snapshotStore.load()) {
+            var node = new FederatedCacheNode(entry.getName(), entry.getTargetUrl(), entry.getSupportedProtocols());
+            entries.put(entry.getDid(), new NodeEntry(entry.getStatus(), node, entry.getResolvedAt()));
+        }
+        if (!entries.isEmpty()) {
+            // already expired, so that the first call serves the snapshot and triggers a refresh
+            cachedNodes = new CachedNodes(entries, Instant.MIN);
+        }
+    }
+
+    private static List<NodeDirectorySnapshotStore.Entry> toSnapshot(Map<String, NodeEntry> entries) {
+        return entries.entrySet().stream()
+                .map(entry -> {
+                    var node = entry.getValue().node;
+                    return new NodeDirectorySnapshotStore.Entry(entry.getKey(), entry.getValue().status, node.getName(), node.getTargetUrl(), node.getSupportedProtocols(), entry.getValue().resolvedAt);
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static boolean sameNode(FederatedCacheNode previous, FederatedCacheNode current) {
+        return previous == current ||
+                Objects.equals(previous.getName(), current.getName()) &&
+                        Objects.equals(previous.getTargetUrl(), current.getTargetUrl()) &&
+                        Objects.equals(previous.getSupportedProtocols(), current.getSupportedProtocols());
+    }
+
+    private static String statusOf(ParticipantDto participant) {
+        return participant.getStatus() != null ? participant.getStatus().toString() : null;
+    }
+
+    private static class NodeEntry {
+        private final String status;
+        private final FederatedCacheNode node;
+        private final Instant resolvedAt;
+
+        NodeEntry(String status, FederatedCacheNode node, Instant resolvedAt) {
+            this.status = status;
+            this.node = node;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+
+    private static class CachedNodes {
+        private final Map<String, NodeEntry> entries;
+        private final List<FederatedCacheNode> nodes;
+        private final Instant expiresAt;
+
+        CachedNodes(LinkedHashMap<String, NodeEntry> entries, Instant expiresAt) {
+            this.entries = Collections.unmodifiableMap(entries);
+            this.nodes = entries.values().stream().map(entry -> entry.node).collect(Collectors.toUnmodifiableList());
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(Instant now) {
+            return !now.isBefore(expiresAt);
+        }
+    }
+
+    /**
+     * Emits nodes to a publisher: locally inserted nodes first, then every other node once, skipping nodes replaced
+     * by a locally inserted node with the same name. Nodes arriving after the emitter was closed are ignored.
+     */
+    private static class NodeEmitter implements Consumer<FederatedCacheNode> {
+        private final SubmissionPublisher<FederatedCacheNode> publisher;
+        private final Set<String> emitted = new HashSet<>();
+        private boolean closed;
+
+        NodeEmitter(SubmissionPublisher<FederatedCacheNode> publisher, List<FederatedCacheNode> localNodes) {
+            this.publisher = publisher;
+            localNodes.forEach(this);
+        }
+
+        @Override
+        public synchronized void accept(FederatedCacheNode node) {
+            if (closed || !emitted.add(node.getName())) {
+                return;
+            }
+            // never block: submitting is done on the refresh thread shared with other callers
+            if (publisher.offer(node, (subscriber, dropped) -> false) < 0) {
+                closed = true;
+                publisher.closeExceptionally(new IllegalStateException("Node stream subscriber fell more than " + publisher.getMaxBufferCapacity() + " nodes behind"));
+            }
+        }
+
+        synchronized void close() {
+            if (!closed) {
+                closed = true;
+                publisher.close();
+            }
+        }
+    }
+
+    public static class Builder {
+        private final RegistrationServiceNodeDirectory directory;
+
+        private Builder() {
+            directory = new RegistrationServiceNodeDirectory();
+        }
+
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        /**
+         * RegistrationService API client.
+         */
+        public Builder apiClient(RegistryApi apiClient) {
+            directory.apiClient = apiClient;
+            return this;
+        }
+
+        /**
+         * Lists the participants page by page instead of in a single response. Optional, {@link RegistryApi} is used
+         * if not set.
+         */
+        public Builder participantPager(PagedParticipantLister participantPager) {
+            directory.participantPager = participantPager;
+            return this;
+        }
+
+        /**
+         * Gets {@link FederatedCacheNode} from {@link ParticipantDto}, used when no concurrent resolver is set.
+         */
+        public Builder resolver(FederatedCacheNodeResolver resolver) {
+            directory.resolver = resolver;
+            return this;
+        }
+
+        /**
+         * Resolves the participants concurrently. Optional, participants are resolved one by one if not set.
+         */
+        public Builder concurrentResolver(ConcurrentNodeResolver concurrentResolver) {
+            directory.concurrentResolver = concurrentResolver;
+            return this;
+        }
+
+        public Builder monitor(Monitor monitor) {
+            directory.monitor = monitor;
+            return this;
+        }
+
+        /**
+         * Time after which the cached node list is refreshed. {@link Duration#ZERO} disables caching.
+         */
+        public Builder cacheTtl(Duration cacheTtl) {
+            directory.cacheTtl = cacheTtl;
+            return this;
+        }
+
+        /**
+         * Executor running the background refreshes.
+         */
+        public Builder refreshExecutor(Executor refreshExecutor) {
+            directory.refreshExecutor = refreshExecutor;
+            return this;
+        }
+
+        /**
+         * Time after which an unchanged participant's DID is resolved again anyway, so that DID document changes are
+         * picked up. {@link Duration#ZERO} only resolves new or changed participants.
+         */
+        public Builder resyncInterval(Duration resyncInterval) {
+            directory.resyncInterval = resyncInterval;
+            return this;
+        }
+
+        /**
+         * Listeners notified about added, removed and changed nodes. Optional.
+         */
+        public Builder observable(NodeDirectoryObservable observable) {
+            directory.observable = observable;
+            return this;
+        }
+
+        /**
+         * Skips participants whose resolution keeps failing. Optional, all participants are attempted if not set.
+         */
+        public Builder quarantine(ParticipantQuarantine quarantine) {
+            directory.quarantine = quarantine;
+            return this;
+        }
+
+        /**
+         * Persists the node list across restarts. Optional.
+         */
+        public Builder snapshotStore(NodeDirectorySnapshotStore snapshotStore) {
+            directory.snapshotStore = snapshotStore;
+            return this;
+        }
+
+        /**
+         * Maximum number of nodes buffered per subscription of {@link RegistrationServiceNodeDirectory#stream()}.
+         * Optional, defaults to {@link Flow#defaultBufferSize()}.
+         */
+        public Builder streamBufferSize(int streamBufferSize) {
+            directory.streamBufferSize = streamBufferSize;
+            return this;
+        }
+
+        /**
+         * Locally inserted nodes merged into the node list. Optional, an empty overlay is used if not set.
+         */
+        public Builder overlay(LocalNodeOverlay overlay) {
+            directory.overlay = overlay;
+            return this;
+        }
+
+        /**
+         * Time-to-live of the nodes inserted through {@link RegistrationServiceNodeDirectory#insert(FederatedCacheNode)}.
+         * {@link Duration#ZERO} keeps them until they are removed.
+         */
+        public Builder localNodeTtl(Duration localNodeTtl) {
+            directory.localNodeTtl = localNodeTtl;
+            return this;
+        }
+
+        /**
+         * Restricts {@link RegistrationServiceNodeDirectory#getAll()} to the nodes due for crawling. Optional, all
+         * nodes are returned if not set.
+         */
+        public Builder crawlScheduler(CrawlScheduler crawlScheduler) {
+            directory.crawlScheduler = crawlScheduler;
+            return this;
+        }
+
+        /**
+         * Restricts the registered participants to the share of this replica. Optional, all participants are used if
+         * not set.
+         */
+        public Builder shard(CrawlShard shard) {
+            directory.shard = shard;
+            return this;
+        }
+
+        /**
+         * Orders the nodes by health and latency and excludes unhealthy ones. Optional, nodes are returned in registry
+         * order if not set.
+         */
+        public Builder healthTracker(NodeHealthTracker healthTracker) {
+            directory.healthTracker = healthTracker;
+            return this;
+        }
+
+        public Builder metrics(NodeDirectoryMetrics metrics) {
+            directory.metrics = metrics;
+            return this;
+        }
+
+        public Builder clock(Clock clock) {
+            directory.clock = clock;
+            return this;
+        }
+
+        public RegistrationServiceNodeDirectory build() {
+            Objects.requireNonNull(directory.apiClient, "apiClient");
+            Objects.requireNonNull(directory.resolver, "resolver");
+            Objects.requireNonNull(directory.monitor, "monitor");
+            Objects.requireNonNull(directory.cacheTtl, "cacheTtl");
+            Objects.requireNonNull(directory.refreshExecutor, "refreshExecutor");
+            Objects.requireNonNull(directory.clock, "clock");
+            Objects.requireNonNull(directory.resyncInterval, "resyncInterval");
+            Objects.requireNonNull(directory.localNodeTtl, "localNodeTtl");
+            Objects.requireNonNull(directory.metrics, "metrics");
+            if (directory.overlay == null) {
+                directory.overlay = new LocalNodeOverlay(directory.clock);
+            }
+            if (directory.snapshotStore != null) {
+                directory.loadSnapshot();
+            }
+            return directory;
+        }
     }
 }
@@ -14,18 +14,46 @@
 
 package org.eclipse.edc.mvd;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.Metrics;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
 import org.eclipse.edc.catalog.spi.FederatedCacheNodeDirectory;
+import org.eclipse.edc.catalog.spi.FederatedCacheStore;
 import org.eclipse.edc.iam.did.spi.resolution.DidResolverRegistry;
 import org.eclipse.edc.registration.client.ApiClientFactory;
 import org.eclipse.edc.registration.client.api.RegistryApi;
 import org.eclipse.edc.runtime.metamodel.annotation.Inject;
 import org.eclipse.edc.runtime.metamodel.annotation.Provider;
 import org.eclipse.edc.runtime.metamodel.annotation.Setting;
+import org.eclipse.edc.spi.EdcException;
 import org.eclipse.edc.spi.iam.IdentityService;
 import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ExecutorInstrumentation;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.spi.types.TypeManager;
+import org.eclipse.edc.web.spi.WebService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
 
 
 /**
@@ -37,6 +65,140 @@ public class RegistrationServiceNodeDirectoryExtension implements ServiceExtensi
     private static final String REGISTRATION_SERVICE_API_URL = "registration.service.api.url";
     private static final String REGISTRATION_SERVICE_API_URL_DEFAULT = "http://localhost:8182/authority";
 
+    @Setting(value = "Number of participants listed per request to the paged participant listing of the Registration Service. 0, the default, lists all participants in a single request.")
+    private static final String DIRECTORY_PAGE_SIZE = "registration.service.directory.page.size";
+    private static final int DIRECTORY_PAGE_SIZE_DEFAULT = 0;
+
+    @Setting(value = "Seconds after which the cached federated cache node list is refreshed in the background. 0 disables caching.")
+    private static final String DIRECTORY_CACHE_TTL_SECONDS = "registration.service.directory.cache.ttl.seconds";
+    private static final long DIRECTORY_CACHE_TTL_SECONDS_DEFAULT = 30;
+
+    @Setting(value = "Maximum number of participant DIDs resolved concurrently. 1 resolves the participants one by one.")
+    private static final String RESOLUTION_PARALLELISM = "registration.service.directory.resolution.parallelism";
+    private static final int RESOLUTION_PARALLELISM_DEFAULT = 1;
+
+    @Setting(value = "Milliseconds after which the resolution of a single participant DID is abandoned.")
+    private static final String RESOLUTION_DID_TIMEOUT_MILLIS = "registration.service.directory.resolution.did.timeout.millis";
+    private static final long RESOLUTION_DID_TIMEOUT_MILLIS_DEFAULT = 5_000;
+
+    @Setting(value = "Milliseconds after which a directory refresh stops waiting for outstanding DID resolutions.")
+    private static final String RESOLUTION_DEADLINE_MILLIS = "registration.service.directory.resolution.deadline.millis";
+    private static final long RESOLUTION_DEADLINE_MILLIS_DEFAULT = 20_000;
+
+    @Setting(value = "Maximum number of did:web DID documents kept in the DID document cache. 0 disables the cache.")
+    private static final String DID_CACHE_SIZE = "registration.service.directory.did.cache.size";
+    private static final int DID_CACHE_SIZE_DEFAULT = 1_000;
+
+    @Setting(value = "Seconds a cached DID document is considered fresh when the DID host sends no Cache-Control max-age.")
+    private static final String DID_CACHE_DEFAULT_MAX_AGE_SECONDS = "registration.service.directory.did.cache.default.max.age.seconds";
+    private static final long DID_CACHE_DEFAULT_MAX_AGE_SECONDS_DEFAULT = 0;
+
+    @Setting(value = "Maximum number of DID documents fetched concurrently from the same did:web host. 0 disables the per-host cap.")
+    private static final String DID_MAX_REQUESTS_PER_HOST = "registration.service.directory.did.max.requests.per.host";
+    private static final int DID_MAX_REQUESTS_PER_HOST_DEFAULT = 4;
+
+    @Setting(value = "Maximum number of idle connections to did:web hosts kept in the connection pool.")
+    private static final String DID_MAX_IDLE_CONNECTIONS = "registration.service.directory.did.max.idle.connections";
+    private static final int DID_MAX_IDLE_CONNECTIONS_DEFAULT = 16;
+
+    @Setting(value = "Seconds an idle connection to a did:web host is kept alive for reuse.")
+    private static final String DID_KEEP_ALIVE_SECONDS = "registration.service.directory.did.keep.alive.seconds";
+    private static final long DID_KEEP_ALIVE_SECONDS_DEFAULT = 300;
+
+    private static final String DID_WEB_USE_HTTPS = "edc.iam.did.web.use.https";
+
+    @Setting(value = "Seconds after which the DID of an unchanged participant is resolved again. 0 only resolves new or changed participants.")
+    private static final String DIRECTORY_RESYNC_SECONDS = "registration.service.directory.resync.seconds";
+    private static final long DIRECTORY_RESYNC_SECONDS_DEFAULT = 3_600;
+
+    @Setting(value = "Number of consecutive failed resolutions after which a participant is quarantined.")
+    private static final String QUARANTINE_FAILURE_THRESHOLD = "registration.service.directory.quarantine.failure.threshold";
+    private static final int QUARANTINE_FAILURE_THRESHOLD_DEFAULT = 2;
+
+    @Setting(value = "Seconds a participant is quarantined after reaching the failure threshold. Doubles with every further failure.")
+    private static final String QUARANTINE_INITIAL_BACKOFF_SECONDS = "registration.service.directory.quarantine.initial.backoff.seconds";
+    private static final long QUARANTINE_INITIAL_BACKOFF_SECONDS_DEFAULT = 30;
+
+    @Setting(value = "Maximum number of seconds a participant is quarantined.")
+    private static final String QUARANTINE_MAX_BACKOFF_SECONDS = "registration.service.directory.quarantine.max.backoff.seconds";
+    private static final long QUARANTINE_MAX_BACKOFF_SECONDS_DEFAULT = 3_600;
+
+    @Setting(value = "File the node directory persists its last good node list to, so it survives restarts. Not persisted if unset.")
+    private static final String SNAPSHOT_PATH = "registration.service.directory.snapshot.path";
+
+    @Setting(value = "Seconds after which nodes inserted into the directory expire. 0 keeps them until they are removed.")
+    private static final String LOCAL_NODE_TTL_SECONDS = "registration.service.directory.local.node.ttl.seconds";
+    private static final long LOCAL_NODE_TTL_SECONDS_DEFAULT = 0;
+
+    @Setting(value = "JSON file with an array of federated cache nodes that are always part of the directory, in addition to the registered ones.")
+    private static final String STATIC_NODES_PATH = "registration.service.directory.static.nodes.path";
+
+    @Setting(value = "Context alias of the web context exposing the node directory API.")
+    private static final String NODE_DIRECTORY_API_CONTEXT = "registration.service.directory.api.context";
+    private static final String NODE_DIRECTORY_API_CONTEXT_DEFAULT = "management";
+
+    @Setting(value = "Whether nodes are crawled at adaptive intervals depending on how often their catalog changes, instead of on every crawler run.")
+    private static final String CRAWL_ADAPTIVE = "registration.service.directory.crawl.adaptive";
+
+    @Setting(value = "Minimum seconds between two crawls of a node with adaptive crawl scheduling, used for nodes whose catalog keeps changing.")
+    private static final String CRAWL_MIN_INTERVAL_SECONDS = "registration.service.directory.crawl.min.interval.seconds";
+    private static final long CRAWL_MIN_INTERVAL_SECONDS_DEFAULT = 10;
+
+    @Setting(value = "Maximum seconds between two crawls of a node with adaptive crawl scheduling, reached by nodes whose catalog does not change.")
+    private static final String CRAWL_MAX_INTERVAL_SECONDS = "registration.service.directory.crawl.max.interval.seconds";
+    private static final long CRAWL_MAX_INTERVAL_SECONDS_DEFAULT = 600;
+
+    @Setting(value = "Id of this connector replica when crawl targets are sharded across replicas. Sharding is disabled if unset.")
+    private static final String SHARD_REPLICA_ID = "registration.service.directory.shard.replica.id";
+
+    @Setting(value = "Comma-separated ids of all connector replicas sharing the crawl targets, including this one.")
+    private static final String SHARD_REPLICAS = "registration.service.directory.shard.replicas";
+
+    @Setting(value = "File listing the ids of all connector replicas sharing the crawl targets, one per line. Takes precedence over the replica list setting and is re-read when modified.")
+    private static final String SHARD_MEMBERSHIP_FILE = "registration.service.directory.shard.membership.file";
+
+    @Setting(value = "Number of positions of every replica on the consistent hash ring.")
+    private static final String SHARD_VIRTUAL_NODES = "registration.service.directory.shard.virtual.nodes";
+    private static final int SHARD_VIRTUAL_NODES_DEFAULT = 128;
+
+    @Setting(value = "Seconds between two health probes of the IDS endpoints of all nodes. Nodes are ordered by health and latency if set, 0 disables probing.")
+    private static final String HEALTH_PROBE_INTERVAL_SECONDS = "registration.service.directory.health.probe.interval.seconds";
+    private static final long HEALTH_PROBE_INTERVAL_SECONDS_DEFAULT = 0;
+
+    @Setting(value = "Milliseconds after which a health probe counts as failed.")
+    private static final String HEALTH_PROBE_TIMEOUT_MILLIS = "registration.service.directory.health.probe.timeout.millis";
+    private static final long HEALTH_PROBE_TIMEOUT_MILLIS_DEFAULT = 2_000;
+
+    @Setting(value = "Number of consecutive unhealthy probes after which a node is left out of the node list until it is healthy again. 0 never leaves nodes out.")
+    private static final String HEALTH_EXCLUDE_AFTER_UNHEALTHY_PROBES = "registration.service.directory.health.exclude.after.unhealthy.probes";
+    private static final int HEALTH_EXCLUDE_AFTER_UNHEALTHY_PROBES_DEFAULT = 0;
+
+    @Setting(value = "Comma-separated asset properties whose values are indexed in the federated catalog cache, in addition to the asset id and originator.")
+    private static final String CATALOG_INDEXED_PROPERTIES = "registration.service.directory.catalog.indexed.properties";
+    private static final String CATALOG_INDEXED_PROPERTIES_DEFAULT = "asset:prop:name,asset:prop:contenttype";
+
+    @Setting(value = "Form the federated catalog cache holds contract offers in: 'heap' as they are, 'compact' serialized and compressed on the heap, 'offheap' serialized and compressed outside of the heap.")
+    private static final String CATALOG_STORAGE = "registration.service.directory.catalog.storage";
+    private static final String CATALOG_STORAGE_DEFAULT = "heap";
+
+    @Setting(value = "Maximum number of bytes of all compact contract offers in the federated catalog cache. The catalogs of the nodes crawled least recently are evicted beyond. 0 for no limit.")
+    private static final String CATALOG_MAX_BYTES = "registration.service.directory.catalog.max.bytes";
+    private static final long CATALOG_MAX_BYTES_DEFAULT = 256L * 1024 * 1024;
+
+    @Setting(value = "URL of the catalog notification API of this connector, as reachable by other connectors. If set, this connector subscribes to the catalog changes of all nodes and crawls subscribed nodes only when they change or at the maximum crawl interval.")
+    private static final String CATALOG_NOTIFICATION_CALLBACK_URL = "registration.service.directory.catalog.notifications.callback.url";
+
+    @Setting(value = "Seconds between two renewals of the catalog change subscriptions of this connector. Must be shorter than the subscription lease of the providers.")
+    private static final String CATALOG_SUBSCRIPTION_RENEW_SECONDS = "registration.service.directory.catalog.subscriptions.renew.seconds";
+    private static final long CATALOG_SUBSCRIPTION_RENEW_SECONDS_DEFAULT = 300;
+
+    @Setting(value = "Context alias of the web context exposing the catalog notification API to other connectors.")
+    private static final String CATALOG_NOTIFICATION_API_CONTEXT = "registration.service.directory.catalog.notifications.api.context";
+    private static final String CATALOG_NOTIFICATION_API_CONTEXT_DEFAULT = "ids";
+
+    private static final TypeReference<List<FederatedCacheNode>> STATIC_NODES = new TypeReference<>() {
+    };
+
     @Inject
     private Monitor monitor;
 
@@ -49,21 +211,277 @@ public class RegistrationServiceNodeDirectoryExtension implements ServiceExtensi
     @Inject
     private DidResolverRegistry didResolverRegistry;
 
+    @Inject
+    private ExecutorInstrumentation executorInstrumentation;
+
+    @Inject
+    private Clock clock;
+
+    @Inject
+    private OkHttpClient httpClient;
+
+    @Inject
+    private WebService webService;
+
+    private final NodeDirectoryObservable observable = new NodeDirectoryObservable();
     private String registrationServiceApiUrl;
+    private int pageSize;
+    private Duration directoryCacheTtl;
+    private ExecutorService refreshExecutor;
+    private ExecutorService resolutionExecutor;
+    private int resolutionParallelism;
+    private Duration didTimeout;
+    private Duration resolutionDeadline;
+    private int didCacheSize;
+    private Duration didCacheDefaultMaxAge;
+    private boolean didWebUseHttps;
+    private int didMaxRequestsPerHost;
+    private OkHttpClient didHttpClient;
+    private Duration resyncInterval;
+    private ParticipantQuarantine quarantine;
+    private NodeDirectorySnapshotStore snapshotStore;
+    private LocalNodeOverlay overlay;
+    private Duration localNodeTtl;
+    private CrawlScheduler crawlScheduler;
+    private CrawlShard shard;
+    private NodeHealthTracker healthTracker;
+    private Duration healthProbeInterval;
+    private Duration healthProbeTimeout;
+    private ScheduledExecutorService healthProbeExecutor;
+    private ScheduledExecutorService catalogNotificationExecutor;
+    private CatalogSubscriber catalogSubscriber;
+    private Duration catalogSubscriptionRenewInterval;
+    private RegistrationServiceNodeDirectory directory;
+    private NodeAwareFederatedCacheStore federatedCacheStore;
 
     @Override
     public void initialize(ServiceExtensionContext context) {
         registrationServiceApiUrl = context.getSetting(
                 REGISTRATION_SERVICE_API_URL, REGISTRATION_SERVICE_API_URL_DEFAULT);
+        pageSize = context.getSetting(DIRECTORY_PAGE_SIZE, DIRECTORY_PAGE_SIZE_DEFAULT);
+        directoryCacheTtl = Duration.ofSeconds(context.getSetting(DIRECTORY_CACHE_TTL_SECONDS, DIRECTORY_CACHE_TTL_SECONDS_DEFAULT));
+        refreshExecutor = executorInstrumentation.instrument(Executors.newSingleThreadExecutor(), "RegistrationServiceNodeDirectory");
+
+        resolutionParallelism = context.getSetting(RESOLUTION_PARALLELISM, RESOLUTION_PARALLELISM_DEFAULT);
+        didTimeout = Duration.ofMillis(context.getSetting(RESOLUTION_DID_TIMEOUT_MILLIS, RESOLUTION_DID_TIMEOUT_MILLIS_DEFAULT));
+        resolutionDeadline = Duration.ofMillis(context.getSetting(RESOLUTION_DEADLINE_MILLIS, RESOLUTION_DEADLINE_MILLIS_DEFAULT));
+        didCacheSize = context.getSetting(DID_CACHE_SIZE, DID_CACHE_SIZE_DEFAULT);
+        didCacheDefaultMaxAge = Duration.ofSeconds(context.getSetting(DID_CACHE_DEFAULT_MAX_AGE_SECONDS, DID_CACHE_DEFAULT_MAX_AGE_SECONDS_DEFAULT));
+        didWebUseHttps = context.getSetting(DID_WEB_USE_HTTPS, true);
+        didMaxRequestsPerHost = context.getSetting(DID_MAX_REQUESTS_PER_HOST, DID_MAX_REQUESTS_PER_HOST_DEFAULT);
+        // dedicated pool so that connections to DID hosts are kept alive between refreshes; HTTP/2 is negotiated where the host supports it
+        didHttpClient = httpClient.newBuilder()
+                .connectionPool(new ConnectionPool(
+                        context.getSetting(DID_MAX_IDLE_CONNECTIONS, DID_MAX_IDLE_CONNECTIONS_DEFAULT),
+                        context.getSetting(DID_KEEP_ALIVE_SECONDS, DID_KEEP_ALIVE_SECONDS_DEFAULT), TimeUnit.SECONDS))
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .callTimeout(didTimeout)
+                .build();
+        resyncInterval = Duration.ofSeconds(context.getSetting(DIRECTORY_RESYNC_SECONDS, DIRECTORY_RESYNC_SECONDS_DEFAULT));
+        quarantine = new ParticipantQuarantine(
+                context.getSetting(QUARANTINE_FAILURE_THRESHOLD, QUARANTINE_FAILURE_THRESHOLD_DEFAULT),
+                Duration.ofSeconds(context.getSetting(QUARANTINE_INITIAL_BACKOFF_SECONDS, QUARANTINE_INITIAL_BACKOFF_SECONDS_DEFAULT)),
+                Duration.ofSeconds(context.getSetting(QUARANTINE_MAX_BACKOFF_SECONDS, QUARANTINE_MAX_BACKOFF_SECONDS_DEFAULT)),
+                clock, monitor);
+        var snapshotPath = context.getSetting(SNAPSHOT_PATH, null);
+        if (snapshotPath != null) {
+            snapshotStore = new NodeDirectorySnapshotStore(Path.of(snapshotPath), typeManager.getMapper(), monitor);
+        }
+        localNodeTtl = Duration.ofSeconds(context.getSetting(LOCAL_NODE_TTL_SECONDS, LOCAL_NODE_TTL_SECONDS_DEFAULT));
+        overlay = new LocalNodeOverlay(clock);
+        loadStaticNodes(context.getSetting(STATIC_NODES_PATH, null));
+        var notificationCallbackUrl = context.getSetting(CATALOG_NOTIFICATION_CALLBACK_URL, null);
+        // subscribed nodes are only crawled on demand, which needs per-node crawl scheduling
+        if (context.getSetting(CRAWL_ADAPTIVE, false) || notificationCallbackUrl != null) {
+            crawlScheduler = new CrawlScheduler(
+                    Duration.ofSeconds(context.getSetting(CRAWL_MIN_INTERVAL_SECONDS, CRAWL_MIN_INTERVAL_SECONDS_DEFAULT)),
+                    Duration.ofSeconds(context.getSetting(CRAWL_MAX_INTERVAL_SECONDS, CRAWL_MAX_INTERVAL_SECONDS_DEFAULT)),
+                    clock, monitor);
+        }
+        shard = createShard(context);
+        healthProbeInterval = Duration.ofSeconds(context.getSetting(HEALTH_PROBE_INTERVAL_SECONDS, HEALTH_PROBE_INTERVAL_SECONDS_DEFAULT));
+        healthProbeTimeout = Duration.ofMillis(context.getSetting(HEALTH_PROBE_TIMEOUT_MILLIS, HEALTH_PROBE_TIMEOUT_MILLIS_DEFAULT));
+        if (!healthProbeInterval.isZero()) {
+            healthTracker = new NodeHealthTracker(context.getSetting(HEALTH_EXCLUDE_AFTER_UNHEALTHY_PROBES, HEALTH_EXCLUDE_AFTER_UNHEALTHY_PROBES_DEFAULT), clock);
+            healthProbeExecutor = executorInstrumentation.instrument(Executors.newSingleThreadScheduledExecutor(), "NodeHealthProber");
+        }
+        webService.registerResource(context.getSetting(NODE_DIRECTORY_API_CONTEXT, NODE_DIRECTORY_API_CONTEXT_DEFAULT), new NodeDirectoryApiController(quarantine, overlay, crawlScheduler, healthTracker));
+        if (notificationCallbackUrl != null) {
+            initializeCatalogSubscriber(context, notificationCallbackUrl);
+        }
+
+        var indexedProperties = Arrays.stream(context.getSetting(CATALOG_INDEXED_PROPERTIES, CATALOG_INDEXED_PROPERTIES_DEFAULT).split(","))
+                .map(String::trim)
+                .filter(property -> !property.isEmpty())
+                .collect(Collectors.toSet());
+        var storage = context.getSetting(CATALOG_STORAGE, CATALOG_STORAGE_DEFAULT);
+        CompactOfferCodec codec;
+        switch (storage) {
+            case "heap":
+                codec = null;
+                break;
+            case "compact":
+                codec = new CompactOfferCodec(typeManager.getMapper(), false);
+                break;
+            case "offheap":
+                codec = new CompactOfferCodec(typeManager.getMapper(), true);
+                break;
+            default:
+                throw new EdcException(format("Invalid value '%s' of setting %s, expected one of heap, compact or offheap", storage, CATALOG_STORAGE));
+        }
+        federatedCacheStore = new NodeAwareFederatedCacheStore(new CatalogContentHasher(typeManager.getMapper()), crawlScheduler, healthTracker, indexedProperties,
+                codec, codec != null ? context.getSetting(CATALOG_MAX_BYTES, CATALOG_MAX_BYTES_DEFAULT) : 0, monitor);
+
+        if (resolutionParallelism > 1) {
+            // resolutions that missed their timeout give up their slot while their thread is still being interrupted, so the
+            // pool has room for as many abandoned resolutions again; beyond that the refresh thread resolves by itself
+            var pool = new ThreadPoolExecutor(resolutionParallelism, resolutionParallelism * 2, 60, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), new ThreadPoolExecutor.CallerRunsPolicy());
+            resolutionExecutor = executorInstrumentation.instrument(pool, "FederatedCacheNodeResolution");
+        }
+    }
+
+    @Override
+    public void start() {
+        if (healthProbeExecutor != null && directory != null) {
+            var probeClient = httpClient.newBuilder().callTimeout(healthProbeTimeout).build();
+            var prober = new NodeHealthProber(directory::getKnownNodes, probeClient, healthTracker, monitor);
+            healthProbeExecutor.scheduleWithFixedDelay(prober, 0, healthProbeInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        if (catalogSubscriber != null) {
+            catalogNotificationExecutor.scheduleWithFixedDelay(catalogSubscriber, 0, catalogSubscriptionRenewInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+        if (resolutionExecutor != null) {
+            resolutionExecutor.shutdownNow();
+        }
+        if (healthProbeExecutor != null) {
+            healthProbeExecutor.shutdownNow();
+        }
+        if (catalogNotificationExecutor != null) {
+            catalogNotificationExecutor.shutdownNow();
+        }
+        if (didHttpClient != null) {
+            didHttpClient.connectionPool().evictAll();
+        }
+    }
+
+    /**
+     * Sets up subscribing to the catalog changes of the other nodes, which are then crawled when they change.
+     */
+    private void initializeCatalogSubscriber(ServiceExtensionContext context, String callbackUrl) {
+        catalogNotificationExecutor = executorInstrumentation.instrument(Executors.newSingleThreadScheduledExecutor(), "CatalogSubscriber");
+        catalogSubscriptionRenewInterval = Duration.ofSeconds(context.getSetting(CATALOG_SUBSCRIPTION_RENEW_SECONDS, CATALOG_SUBSCRIPTION_RENEW_SECONDS_DEFAULT));
+        catalogSubscriber = new CatalogSubscriber(() -> directory().getKnownNodes(), callbackUrl, identityService::obtainClientCredentials,
+                httpClient, typeManager.getMapper(), crawlScheduler, monitor);
+        webService.registerResource(context.getSetting(CATALOG_NOTIFICATION_API_CONTEXT, CATALOG_NOTIFICATION_API_CONTEXT_DEFAULT),
+                new CatalogNotificationApiController(catalogSubscriber, crawlScheduler));
+    }
+
+    @Provider
+    public NodeDirectoryObservable nodeDirectoryObservable() {
+        return observable;
     }
 
     @Provider
     public FederatedCacheNodeDirectory federatedCacheNodeDirectory() {
+        return directory();
+    }
+
+    @Provider
+    public NodeDirectoryStream nodeDirectoryStream() {
+        return directory();
+    }
+
+    private synchronized RegistrationServiceNodeDirectory directory() {
+        if (directory != null) {
+            return directory;
+        }
         var apiClient = ApiClientFactory.createApiClient(registrationServiceApiUrl, identityService::obtainClientCredentials);
         var registryApiClient = new RegistryApi(apiClient);
-        var resolver = new FederatedCacheNodeResolver(didResolverRegistry, monitor);
-        return new RegistrationServiceNodeDirectory(registryApiClient, resolver, monitor);
+        CachingWebDidResolver webDidResolver = null;
+        if (didCacheSize > 0) {
+            webDidResolver = new CachingWebDidResolver(didHttpClient, typeManager, new DidDocumentCache(didCacheSize), didWebUseHttps, didCacheDefaultMaxAge, clock, monitor);
+        }
+        var metrics = new NodeDirectoryMetrics(Metrics.globalRegistry, clock);
+        var resolver = new FederatedCacheNodeResolver(didResolverRegistry, webDidResolver, monitor, metrics);
+        var builder = RegistrationServiceNodeDirectory.Builder.newInstance()
+                .apiClient(registryApiClient)
+                .resolver(resolver)
+                .monitor(monitor)
+                .cacheTtl(directoryCacheTtl)
+                .refreshExecutor(refreshExecutor)
+                .resyncInterval(resyncInterval)
+                .observable(observable)
+                .quarantine(quarantine)
+                .snapshotStore(snapshotStore)
+                .overlay(overlay)
+                .localNodeTtl(localNodeTtl)
+                .crawlScheduler(crawlScheduler)
+                .shard(shard)
+                .healthTracker(healthTracker)
+                .metrics(metrics)
+                .clock(clock);
+        if (resolutionExecutor != null) {
+            builder.concurrentResolver(new ConcurrentNodeResolver(resolver, resolutionExecutor, resolutionParallelism, didTimeout, resolutionDeadline, didMaxRequestsPerHost, clock, monitor));
+        }
+        if (pageSize > 0) {
+            builder.participantPager(new PagedParticipantLister(httpClient, registrationServiceApiUrl, identityService::obtainClientCredentials, typeManager.getMapper(), pageSize, registryApiClient, monitor));
+        }
+        directory = builder.build();
+        return directory;
     }
-}
 
+    @Provider
+    public RegisteredNodeLookup registeredNodeLookup() {
+        return directory();
+    }
 
+    @Provider
+    public FederatedCacheStore federatedCacheStore() {
+        return federatedCacheStore;
+    }
+
+    @Provider
+    public NodeAwareFederatedCacheStore nodeAwareFederatedCacheStore() {
+        return federatedCacheStore;
+    }
+
+    private CrawlShard createShard(ServiceExtensionContext context) {
+        var replicaId = context.getSetting(SHARD_REPLICA_ID, null);
+        if (replicaId == null) {
+            return null;
+        }
+        Supplier<Set<String>> membership;
+        var membershipFile = context.getSetting(SHARD_MEMBERSHIP_FILE, null);
+        if (membershipFile != null) {
+            membership = new ReplicaMembershipFile(Path.of(membershipFile), monitor);
+        } else {
+            var replicas = Arrays.stream(context.getSetting(SHARD_REPLICAS, replicaId).split(","))
+                    .map(String::trim)
+                    .filter(id -> !id.isEmpty())
+                    .collect(Collectors.toUnmodifiableSet());
+            membership = () -> replicas;
+        }
+        return new CrawlShard(replicaId, membership, context.getSetting(SHARD_VIRTUAL_NODES, SHARD_VIRTUAL_NODES_DEFAULT), monitor);
+    }
+
+    private void loadStaticNodes(String path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            var nodes = typeManager.getMapper().readValue(Path.of(path).toFile(), STATIC_NODES);
+            nodes.forEach(node -> overlay.put(node, null));
+            monitor.info(format("Loaded %d static federated cache node(s) from %s", nodes.size(), path));
+        } catch (IOException ex) {
+            throw new EdcException(format("Failed to load static federated cache nodes from %s", path), ex);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Replica membership read from a text file with one replica id per line, standing in for a membership service.
+ * Blank lines and lines starting with {@code #} are ignored. The file is read again whenever it was modified; if it
+ * cannot be read, the last membership read is kept.
+ */
+class ReplicaMembershipFile implements Supplier<Set<String>> {
+
+    private final Path path;
+    private final Monitor monitor;
+    private FileTime lastModified;
+    private Set<String> members = Set.of();
+
+    ReplicaMembershipFile(Path path, Monitor monitor) {
+        this.path = path;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public synchronized Set<String> get() {
+        try {
+            var modified = Files.getLastModifiedTime(path);
+            if (!modified.equals(lastModified)) {
+                members = Files.readAllLines(path).stream()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .collect(Collectors.toUnmodifiableSet());
+                lastModified = modified;
+            }
+        } catch (IOException ex) {
+            monitor.warning(format("Failed to read replica membership from %s, keeping %s", path, members), ex);
+        }
+        return members;
+    }
+}
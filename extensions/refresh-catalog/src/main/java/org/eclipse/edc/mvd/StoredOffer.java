@@ -0,0 +1,51 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.connector.contract.spi.types.offer.ContractOffer;
+
+/**
+ * A contract offer as held by the {@link NodeAwareFederatedCacheStore}, either as the offer itself or in a compact
+ * form that is materialized on access.
+ */
+interface StoredOffer {
+
+    /**
+     * Returns the offer.
+     */
+    ContractOffer materialize();
+
+    /**
+     * Number of bytes the compact form takes up, 0 for offers held as they are.
+     */
+    int byteSize();
+
+    /**
+     * Holds an offer as it is.
+     */
+    static StoredOffer of(ContractOffer offer) {
+        return new StoredOffer() {
+            @Override
+            public ContractOffer materialize() {
+                return offer;
+            }
+
+            @Override
+            public int byteSize() {
+                return 0;
+            }
+        };
+    }
+}
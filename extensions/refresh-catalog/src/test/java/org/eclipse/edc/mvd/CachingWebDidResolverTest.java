@@ -0,0 +1,161 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.eclipse.edc.iam.did.spi.document.DidDocument;
+import org.eclipse.edc.iam.did.spi.document.Service;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CachingWebDidResolverTest {
+
+    private static final String DID = "did:web:did-server:company1";
+    private static final String IDS_URL = "http://company1:8282/api/v1/ids/data";
+
+    private final TypeManager typeManager = new TypeManager();
+    private final Monitor monitor = mock(Monitor.class);
+    private final Clock clock = mock(Clock.class);
+    private final List<Request> requests = new ArrayList<>();
+
+    @ParameterizedTest
+    @CsvSource({
+            "did:web:example.com, true, https://example.com/.well-known/did.json",
+            "did:web:did-server:company1, false, http://did-server/company1/did.json",
+            "did:web:localhost%3A8080:user:alice, true, https://localhost:8080/user/alice/did.json"
+    })
+    void toDocumentUrl(String did, boolean useHttps, String expectedUrl) {
+        assertThat(CachingWebDidResolver.toDocumentUrl(did, useHttps)).isEqualTo(expectedUrl);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "did:web:example.com, example.com",
+            "did:web:did-server:company1, did-server",
+            "did:web:localhost%3A8080:user:alice, localhost:8080"
+    })
+    void hostOf(String did, String expectedHost) {
+        assertThat(CachingWebDidResolver.hostOf(did)).isEqualTo(expectedHost);
+    }
+
+    @Test
+    void hostOf_nonWebDid() {
+        assertThat(CachingWebDidResolver.hostOf("did:example:123")).isNull();
+    }
+
+    @Test
+    void resolve_freshEntryServedWithoutRequest() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        var resolver = resolver(request -> response(request, 200, didDocumentJson()).header("Cache-Control", "max-age=60").build());
+
+        var first = resolver.resolve(DID);
+        var second = resolver.resolve(DID);
+
+        assertThat(first.succeeded()).isTrue();
+        assertThat(first.getContent().getIdsUrl()).contains(IDS_URL);
+        assertThat(second.getContent()).isSameAs(first.getContent());
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    void resolve_staleEntryRevalidatedWithConditionalGet() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        var resolver = resolver(request -> request.header("If-None-Match") == null ?
+                response(request, 200, didDocumentJson()).header("ETag", "\"v1\"").build() :
+                response(request, 304, "").build());
+
+        var first = resolver.resolve(DID);
+        when(clock.instant()).thenReturn(Instant.EPOCH.plusSeconds(1));
+        var second = resolver.resolve(DID);
+
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(1).header("If-None-Match")).isEqualTo("\"v1\"");
+        assertThat(second.succeeded()).isTrue();
+        assertThat(second.getContent().getDocument()).isSameAs(first.getContent().getDocument());
+        assertThat(second.getContent().getIdsUrl()).contains(IDS_URL);
+    }
+
+    @Test
+    void resolve_httpError() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        var resolver = resolver(request -> response(request, 404, "").build());
+
+        assertThat(resolver.resolve(DID).failed()).isTrue();
+    }
+
+    @Test
+    void cache_evictsLeastRecentlyUsed() {
+        var cache = new DidDocumentCache(2);
+        var entry = new DidDocumentCache.Entry(didDocument(), null, null, Instant.EPOCH);
+
+        cache.put("did:web:a", entry);
+        cache.put("did:web:b", entry);
+        cache.get("did:web:a");
+        cache.put("did:web:c", entry);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("did:web:a")).isNotNull();
+        assertThat(cache.get("did:web:b")).isNull();
+    }
+
+    private CachingWebDidResolver resolver(Function<Request, Response> server) {
+        var httpClient = new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    requests.add(chain.request());
+                    return server.apply(chain.request());
+                })
+                .build();
+        return new CachingWebDidResolver(httpClient, typeManager, new DidDocumentCache(10), false, Duration.ZERO, clock, monitor);
+    }
+
+    private Response.Builder response(Request request, int code, String body) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("message")
+                .body(ResponseBody.create(body, MediaType.get("application/json")));
+    }
+
+    private DidDocument didDocument() {
+        return DidDocument.Builder.newInstance()
+                .id(DID)
+                .service(List.of(new Service("#ids", FederatedCacheNodeResolver.IDS_MESSAGING, IDS_URL)))
+                .build();
+    }
+
+    private String didDocumentJson() {
+        return typeManager.writeValueAsString(didDocument());
+    }
+}
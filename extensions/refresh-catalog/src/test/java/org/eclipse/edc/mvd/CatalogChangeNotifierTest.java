@@ -0,0 +1,123 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.edc.mvd;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import org.eclipse.edc.spi.event.asset.AssetCreated;
+import org.eclipse.edc.spi.event.asset.AssetDeleted;
+import org.eclipse.edc.spi.event.policydefinition.PolicyDefinitionDeleted;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogChangeNotifierTest {
+
+    private static final String TARGET_URL = "http://provider:8282/api/v1/ids/data";
+    private static final String CALLBACK_URL = "http://consumer:8282/api/v1/ids/catalog-notifications";
+
+    private final Clock clock = mock(Clock.class);
+    private final ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+    private final BlockingQueue<Request> delivered = new LinkedBlockingQueue<>();
+    private final CatalogSubscriptionRegistry registry = new CatalogSubscriptionRegistry(Duration.ofSeconds(60), 10, clock);
+    private CatalogChangeNotifier notifier;
+
+    @BeforeEach
+    void setUp() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        var httpClient = new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    delivered.add(chain.request());
+                    return new Response.Builder()
+                            .request(chain.request())
+                            .protocol(Protocol.HTTP_1_1)
+                            .code(204)
+                            .message("No Content")
+                            .body(ResponseBody.create(new byte[0], null))
+                            .build();
+                })
+                .build();
+        notifier = new CatalogChangeNotifier(registry, httpClient, new TypeManager().getMapper(), executor, Duration.ofSeconds(1), mock(Monitor.class));
+    }
+
+    @Test
+    void on_coalescesChangesUntilNotified() {
+        notifier.on(mock(AssetCreated.class));
+        notifier.on(mock(AssetDeleted.class));
+
+        verify(executor, times(1)).schedule(any(Runnable.class), eq(1000L), eq(TimeUnit.MILLISECONDS));
+
+        notifier.notifySubscribers();
+        notifier.on(mock(AssetCreated.class));
+
+        verify(executor, times(2)).schedule(any(Runnable.class), eq(1000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void on_policyDefinitionChange_schedulesNotification() {
+        notifier.on(mock(PolicyDefinitionDeleted.class));
+
+        verify(executor).schedule(any(Runnable.class), eq(1000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void notifySubscribers_postsTokenAndTargetUrlToCallback() throws InterruptedException, IOException {
+        registry.subscribe("did:web:consumer", new CatalogSubscription(CALLBACK_URL, TARGET_URL, "secret"));
+
+        notifier.notifySubscribers();
+
+        var request = delivered.poll(5, TimeUnit.SECONDS);
+        assertThat(request).isNotNull();
+        assertThat(request.url().toString()).isEqualTo(CALLBACK_URL);
+        assertThat(request.header(CatalogChangeNotification.TOKEN_HEADER)).isEqualTo("secret");
+        var body = new Buffer();
+        request.body().writeTo(body);
+        assertThat(body.readString(UTF_8)).isEqualTo("{\"targetUrl\":\"" + TARGET_URL + "\"}");
+    }
+
+    @Test
+    void notifySubscribers_skipsExpiredSubscriptions() throws InterruptedException {
+        registry.subscribe("did:web:consumer", new CatalogSubscription(CALLBACK_URL, TARGET_URL, "secret"));
+
+        when(clock.instant()).thenReturn(Instant.EPOCH.plusSeconds(60));
+        notifier.notifySubscribers();
+
+        assertThat(delivered.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+}
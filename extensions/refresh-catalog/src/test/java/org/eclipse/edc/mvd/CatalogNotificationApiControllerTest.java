@@ -0,0 +1,54 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.edc.mvd;
+
+import jakarta.ws.rs.ForbiddenException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogNotificationApiControllerTest {
+
+    private static final String TARGET_URL = "http://provider:8282/api/v1/ids/data";
+
+    private final CatalogSubscriber subscriber = mock(CatalogSubscriber.class);
+    private final CrawlScheduler scheduler = mock(CrawlScheduler.class);
+    private final CatalogNotificationApiController controller = new CatalogNotificationApiController(subscriber, scheduler);
+
+    @Test
+    void notifyChange_marksSubscribedNodeDue() {
+        when(subscriber.verify(TARGET_URL, "secret")).thenReturn(true);
+
+        controller.notifyChange(new CatalogChangeNotification(TARGET_URL), "secret");
+
+        verify(scheduler).markDue(TARGET_URL);
+    }
+
+    @Test
+    void notifyChange_rejectsUnknownToken() {
+        when(subscriber.verify(TARGET_URL, "secret")).thenReturn(true);
+
+        assertThatThrownBy(() -> controller.notifyChange(new CatalogChangeNotification(TARGET_URL), "guessed")).isInstanceOf(ForbiddenException.class);
+        assertThatThrownBy(() -> controller.notifyChange(new CatalogChangeNotification(TARGET_URL), null)).isInstanceOf(ForbiddenException.class);
+        assertThatThrownBy(() -> controller.notifyChange(null, "secret")).isInstanceOf(ForbiddenException.class);
+        verify(scheduler, never()).markDue(anyString());
+    }
+}
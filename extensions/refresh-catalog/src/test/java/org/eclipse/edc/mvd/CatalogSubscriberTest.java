@@ -0,0 +1,102 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.edc.mvd;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.spi.iam.TokenParameters;
+import org.eclipse.edc.spi.iam.TokenRepresentation;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class CatalogSubscriberTest {
+
+    private static final String TARGET_URL = "http://provider:8282/api/v1/ids/data";
+    private static final String CALLBACK_URL = "http://consumer:8282/api/v1/ids/catalog-notifications";
+
+    private final CrawlScheduler scheduler = mock(CrawlScheduler.class);
+    private final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+    private final TypeManager typeManager = new TypeManager();
+
+    @Test
+    void run_subscribesWithCredentialsForTheNode() throws InterruptedException, IOException {
+        var subscriber = subscriber(parameters -> Result.success(TokenRepresentation.Builder.newInstance().token("token-for-" + parameters.getAudience()).build()));
+
+        subscriber.run();
+
+        var request = requests.poll(5, TimeUnit.SECONDS);
+        assertThat(request).isNotNull();
+        assertThat(request.url().toString()).isEqualTo("http://provider:8282/api/v1/ids/catalog-subscriptions");
+        assertThat(request.header("Authorization")).isEqualTo("Bearer token-for-" + TARGET_URL);
+        var body = new Buffer();
+        request.body().writeTo(body);
+        var subscription = typeManager.readValue(body.readString(UTF_8), CatalogSubscription.class);
+        assertThat(subscription.getCallbackUrl()).isEqualTo(CALLBACK_URL);
+        assertThat(subscription.getTargetUrl()).isEqualTo(TARGET_URL);
+        verify(scheduler, timeout(5000)).setSubscribed(TARGET_URL, true);
+
+        assertThat(subscriber.verify(TARGET_URL, subscription.getToken())).isTrue();
+        assertThat(subscriber.verify(TARGET_URL, "guessed")).isFalse();
+        assertThat(subscriber.verify("http://other:8282/api/v1/ids/data", subscription.getToken())).isFalse();
+    }
+
+    @Test
+    void run_withoutCredentials_staysUnsubscribed() throws InterruptedException {
+        var subscriber = subscriber(parameters -> Result.failure("no identity"));
+
+        subscriber.run();
+
+        verify(scheduler).setSubscribed(TARGET_URL, false);
+        assertThat(requests.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    private CatalogSubscriber subscriber(Function<TokenParameters, Result<TokenRepresentation>> credentialsProvider) {
+        var httpClient = new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    requests.add(chain.request());
+                    return new Response.Builder()
+                            .request(chain.request())
+                            .protocol(Protocol.HTTP_1_1)
+                            .code(204)
+                            .message("No Content")
+                            .body(ResponseBody.create(new byte[0], null))
+                            .build();
+                })
+                .build();
+        var node = new FederatedCacheNode("provider", TARGET_URL, List.of("ids-multipart"));
+        return new CatalogSubscriber(() -> List.of(node), CALLBACK_URL, credentialsProvider, httpClient, typeManager.getMapper(), scheduler, mock(Monitor.class));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.edc.mvd;
+
+import jakarta.ws.rs.ForbiddenException;
+import jakarta.ws.rs.NotAuthorizedException;
+import jakarta.ws.rs.NotFoundException;
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.spi.iam.ClaimToken;
+import org.eclipse.edc.spi.iam.IdentityService;
+import org.eclipse.edc.spi.iam.TokenRepresentation;
+import org.eclipse.edc.spi.result.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogSubscriptionApiControllerTest {
+
+    private static final String AUDIENCE = "http://provider:8282/api/v1/ids/data";
+    private static final String TARGET_URL = "http://provider:8282/api/v1/ids/data";
+    private static final String CONSUMER = "did:web:consumer";
+    private static final String CALLBACK_URL = "http://consumer:8282/api/v1/ids/catalog-notifications";
+    private static final String TOKEN_PREFIX = "verified-token-of:";
+
+    private final Clock clock = mock(Clock.class);
+    private final IdentityService identityService = mock(IdentityService.class);
+    private final CatalogSubscriptionRegistry registry = new CatalogSubscriptionRegistry(Duration.ofSeconds(60), 10, clock);
+    private final Map<String, FederatedCacheNode> registeredNodes = Map.of(
+            CONSUMER, new FederatedCacheNode("consumer", "http://consumer:8282/api/v1/ids/data", List.of("ids-multipart")),
+            "did:web:other", new FederatedCacheNode("other", "http://other:8282/api/v1/ids/data", List.of("ids-multipart")));
+    private final CatalogSubscriptionApiController controller = new CatalogSubscriptionApiController(registry, identityService, AUDIENCE,
+            registeredNodes::get);
+
+    @BeforeEach
+    void setUp() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        when(identityService.verifyJwtToken(any(), eq(AUDIENCE))).thenAnswer(i -> {
+            var token = i.getArgument(0, TokenRepresentation.class).getToken();
+            if (!token.startsWith(TOKEN_PREFIX)) {
+                return Result.failure("invalid token");
+            }
+            var claims = ClaimToken.Builder.newInstance();
+            var issuer = token.substring(TOKEN_PREFIX.length());
+            if (!issuer.isEmpty()) {
+                claims.claim("iss", issuer);
+            }
+            return Result.success(claims.build());
+        });
+    }
+
+    @Test
+    void subscribe_registersSubscriptionOfVerifiedParticipant() {
+        controller.subscribe(bearer(CONSUMER), new CatalogSubscription(CALLBACK_URL, TARGET_URL, "secret"));
+
+        assertThat(registry.getActive()).extracting(CatalogSubscription::getCallbackUrl).containsExactly(CALLBACK_URL);
+    }
+
+    @Test
+    void subscribe_rejectsMissingOrInvalidToken() {
+        var subscription = new CatalogSubscription(CALLBACK_URL, TARGET_URL, "secret");
+
+        assertThatThrownBy(() -> controller.subscribe(null, subscription)).isInstanceOf(NotAuthorizedException.class);
+        assertThatThrownBy(() -> controller.subscribe("Bearer forged-token", subscription)).isInstanceOf(NotAuthorizedException.class);
+        assertThatThrownBy(() -> controller.subscribe("Basic " + TOKEN_PREFIX + CONSUMER, subscription)).isInstanceOf(NotAuthorizedException.class);
+        assertThat(registry.getActive()).isEmpty();
+    }
+
+    @Test
+    void subscribe_rejectsVerifiedTokenWithoutIssuer() {
+        assertThatThrownBy(() -> controller.subscribe(bearer(""), new CatalogSubscription(CALLBACK_URL, TARGET_URL, "secret")))
+                .isInstanceOf(NotAuthorizedException.class);
+    }
+
+    @Test
+    void subscribe_rejectsCallbackOutsideRegisteredEndpoint() {
+        assertThatThrownBy(() -> controller.subscribe(bearer(CONSUMER),
+                new CatalogSubscription("http://169.254.169.254/latest/meta-data", TARGET_URL, "secret")))
+                .isInstanceOf(ForbiddenException.class);
+        assertThatThrownBy(() -> controller.subscribe(bearer(CONSUMER),
+                new CatalogSubscription("http://consumer:9999/api/v1/ids/catalog-notifications", TARGET_URL, "secret")))
+                .isInstanceOf(ForbiddenException.class);
+        assertThat(registry.getActive()).isEmpty();
+    }
+
+    @Test
+    void subscribe_rejectsUnregisteredParticipant() {
+        assertThatThrownBy(() -> controller.subscribe(bearer("did:web:stranger"), new CatalogSubscription(CALLBACK_URL, TARGET_URL, "secret")))
+                .isInstanceOf(ForbiddenException.class);
+    }
+
+    @Test
+    void unsubscribe_onlyRemovesOwnSubscriptions() {
+        controller.subscribe(bearer(CONSUMER), new CatalogSubscription(CALLBACK_URL, TARGET_URL, "secret"));
+
+        assertThatThrownBy(() -> controller.unsubscribe(bearer("did:web:other"), CALLBACK_URL, TARGET_URL)).isInstanceOf(NotFoundException.class);
+        assertThat(registry.getActive()).hasSize(1);
+
+        controller.unsubscribe(bearer(CONSUMER), CALLBACK_URL, TARGET_URL);
+        assertThat(registry.getActive()).isEmpty();
+    }
+
+    @Test
+    void isSameOrigin_comparesSchemeHostAndPort() {
+        assertThat(CatalogSubscriptionApiController.isSameOrigin("http://Consumer:80/notifications", "http://consumer/api/v1/ids/data")).isTrue();
+        assertThat(CatalogSubscriptionApiController.isSameOrigin("https://consumer/notifications", "http://consumer/api/v1/ids/data")).isFalse();
+        assertThat(CatalogSubscriptionApiController.isSameOrigin("http://consumer.evil/notifications", "http://consumer/api/v1/ids/data")).isFalse();
+    }
+
+    /**
+     * A token that the mocked identity service verifies as issued by the given participant.
+     */
+    private static String bearer(String issuer) {
+        return "Bearer " + TOKEN_PREFIX + issuer;
+    }
+}
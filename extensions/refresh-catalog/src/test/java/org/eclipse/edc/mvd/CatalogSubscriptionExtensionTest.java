@@ -0,0 +1,77 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.edc.mvd;
+
+import okhttp3.OkHttpClient;
+import org.eclipse.edc.junit.extensions.DependencyInjectionExtension;
+import org.eclipse.edc.spi.event.EventRouter;
+import org.eclipse.edc.spi.iam.IdentityService;
+import org.eclipse.edc.spi.system.ExecutorInstrumentation;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.system.injection.ObjectFactory;
+import org.eclipse.edc.web.spi.WebService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(DependencyInjectionExtension.class)
+class CatalogSubscriptionExtensionTest {
+
+    private final WebService webService = mock(WebService.class);
+    private final EventRouter eventRouter = mock(EventRouter.class);
+    private CatalogSubscriptionExtension extension;
+
+    @BeforeEach
+    void setUp(ServiceExtensionContext context, ObjectFactory factory) {
+        context.registerService(WebService.class, webService);
+        context.registerService(EventRouter.class, eventRouter);
+        context.registerService(OkHttpClient.class, new OkHttpClient());
+        context.registerService(ExecutorInstrumentation.class, ExecutorInstrumentation.noop());
+        context.registerService(IdentityService.class, mock(IdentityService.class));
+        context.registerService(RegisteredNodeLookup.class, did -> null);
+        extension = factory.constructInstance(CatalogSubscriptionExtension.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        extension.shutdown();
+    }
+
+    @Test
+    void initialize_disabledByDefault(ServiceExtensionContext context) {
+        extension.initialize(context);
+
+        verifyNoInteractions(webService, eventRouter);
+    }
+
+    @Test
+    void initialize_enabled_registersSubscriptionApiAndNotifier(ServiceExtensionContext context) {
+        when(context.getSetting("mvd.catalog.subscriptions.enabled", false)).thenReturn(true);
+
+        extension.initialize(context);
+
+        verify(webService).registerResource(eq("ids"), isA(CatalogSubscriptionApiController.class));
+        verify(eventRouter).register(isA(CatalogChangeNotifier.class));
+    }
+}
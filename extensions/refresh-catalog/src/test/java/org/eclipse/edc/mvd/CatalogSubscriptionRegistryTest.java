@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogSubscriptionRegistryTest {
+
+    private static final String TARGET_URL = "http://company1:8282/api/v1/ids/data";
+    private static final String PARTICIPANT = "did:web:consumer";
+
+    private final Clock clock = mock(Clock.class);
+    private final CatalogSubscriptionRegistry registry = new CatalogSubscriptionRegistry(Duration.ofSeconds(60), 2, clock);
+
+    @Test
+    void subscribe_expiresUnlessRenewed() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        registry.subscribe(PARTICIPANT, new CatalogSubscription("http://consumer1/notifications", TARGET_URL, "token1"));
+        registry.subscribe(PARTICIPANT, new CatalogSubscription("http://consumer2/notifications", TARGET_URL, "token2"));
+
+        when(clock.instant()).thenReturn(Instant.EPOCH.plusSeconds(30));
+        registry.subscribe(PARTICIPANT, new CatalogSubscription("http://consumer1/notifications", TARGET_URL, "token1"));
+
+        when(clock.instant()).thenReturn(Instant.EPOCH.plusSeconds(60));
+        assertThat(registry.getActive()).extracting(CatalogSubscription::getCallbackUrl).containsExactly("http://consumer1/notifications");
+    }
+
+    @Test
+    void subscribe_rejectsNewSubscriptionsBeyondMaximum() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+
+        assertThat(registry.subscribe(PARTICIPANT, new CatalogSubscription("http://consumer1/notifications", TARGET_URL, "token1"))).isTrue();
+        assertThat(registry.subscribe(PARTICIPANT, new CatalogSubscription("http://consumer2/notifications", TARGET_URL, "token2"))).isTrue();
+        assertThat(registry.subscribe(PARTICIPANT, new CatalogSubscription("http://consumer3/notifications", TARGET_URL, "token3"))).isFalse();
+        assertThat(registry.subscribe(PARTICIPANT, new CatalogSubscription("http://consumer1/notifications", TARGET_URL, "token1"))).isTrue();
+    }
+
+    @Test
+    void unsubscribe_removesSubscription() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        registry.subscribe(PARTICIPANT, new CatalogSubscription("http://consumer1/notifications", TARGET_URL, "token1"));
+
+        assertThat(registry.unsubscribe(PARTICIPANT, "http://consumer1/notifications", TARGET_URL)).isTrue();
+        assertThat(registry.unsubscribe(PARTICIPANT, "http://consumer1/notifications", TARGET_URL)).isFalse();
+        assertThat(registry.getActive()).isEmpty();
+    }
+
+    @Test
+    void unsubscribe_otherParticipant_keepsSubscription() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        registry.subscribe(PARTICIPANT, new CatalogSubscription("http://consumer1/notifications", TARGET_URL, "token1"));
+
+        assertThat(registry.unsubscribe("did:web:other", "http://consumer1/notifications", TARGET_URL)).isFalse();
+        assertThat(registry.getActive()).hasSize(1);
+    }
+
+    @Test
+    void subscriptionUrl_derivedFromIdsEndpoint() {
+        assertThat(CatalogSubscriber.subscriptionUrl(TARGET_URL)).isEqualTo("http://company1:8282/api/v1/ids/catalog-subscriptions");
+        assertThat(CatalogSubscriber.subscriptionUrl("http://company1:8282/api/v1/ids/")).isEqualTo("http://company1:8282/api/v1/ids/catalog-subscriptions");
+    }
+}
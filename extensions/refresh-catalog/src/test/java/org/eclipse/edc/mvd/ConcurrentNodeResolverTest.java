@@ -0,0 +1,240 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.registration.client.models.ParticipantDto;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConcurrentNodeResolverTest {
+
+    private final FederatedCacheNodeResolver resolver = mock(FederatedCacheNodeResolver.class);
+    private final Monitor monitor = mock(Monitor.class);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void resolve_allParticipants() {
+        var company1 = participant();
+        var company2 = participant();
+        var node1 = node();
+        var node2 = node();
+        when(resolver.toFederatedCacheNode(company1)).thenReturn(Result.success(node1));
+        when(resolver.toFederatedCacheNode(company2)).thenReturn(Result.failure("failure"));
+
+        var results = concurrentResolver(2, Duration.ofSeconds(5), Duration.ofSeconds(5)).resolve(List.of(company1, company2));
+
+        assertThat(results).containsOnlyKeys(company1.getDid(), company2.getDid());
+        assertThat(results.get(company1.getDid()).getContent()).isSameAs(node1);
+        assertThat(results.get(company2.getDid()).failed()).isTrue();
+    }
+
+    @Test
+    void resolve_dropsParticipantsMissingTheirTimeout() {
+        var fast = participant();
+        var slow = participant();
+        var node = node();
+        var release = new CountDownLatch(1);
+        when(resolver.toFederatedCacheNode(fast)).thenReturn(Result.success(node));
+        when(resolver.toFederatedCacheNode(slow)).thenAnswer(i -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Result.success(node());
+        });
+
+        var results = concurrentResolver(2, Duration.ofMillis(100), Duration.ofSeconds(5)).resolve(List.of(slow, fast));
+        release.countDown();
+
+        assertThat(results).containsOnlyKeys(fast.getDid());
+    }
+
+    @Test
+    void resolve_hangingResolution_releasesItsSlotOnTimeout() {
+        var hanging = participant("hanging.example.com", "company1");
+        var sameHost = participant("hanging.example.com", "company2");
+        var other = participant();
+        var release = new CountDownLatch(1);
+        when(resolver.toFederatedCacheNode(hanging)).thenAnswer(i -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Result.success(node());
+        });
+        when(resolver.toFederatedCacheNode(sameHost)).thenReturn(Result.success(node()));
+        when(resolver.toFederatedCacheNode(other)).thenReturn(Result.success(node()));
+        var concurrentResolver = new ConcurrentNodeResolver(resolver, executor, 1, Duration.ofMillis(100), Duration.ofSeconds(2), 1, Clock.systemUTC(), monitor);
+
+        try {
+            var results = concurrentResolver.resolve(List.of(hanging, sameHost, other));
+
+            assertThat(results).containsOnlyKeys(sameHost.getDid(), other.getDid());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void resolve_deadlineExceeded_reportsUnscheduledParticipants() {
+        var slow = participant();
+        var unscheduled = participant();
+        var release = new CountDownLatch(1);
+        when(resolver.toFederatedCacheNode(slow)).thenAnswer(i -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Result.success(node());
+        });
+        when(resolver.toFederatedCacheNode(unscheduled)).thenReturn(Result.success(node()));
+
+        try {
+            var resolutions = concurrentResolver(1, Duration.ofSeconds(5), Duration.ofMillis(100)).resolve(List.of(slow, unscheduled), (did, result) -> { });
+
+            assertThat(resolutions.getResults()).isEmpty();
+            assertThat(resolutions.isScheduled(slow.getDid())).isTrue();
+            assertThat(resolutions.isScheduled(unscheduled.getDid())).isFalse();
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void resolve_interruptsResolutionThatMissedItsTimeout() throws InterruptedException {
+        var hanging = participant();
+        var interrupted = new CountDownLatch(1);
+        when(resolver.toFederatedCacheNode(hanging)).thenAnswer(i -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return Result.failure("interrupted");
+        });
+
+        var results = concurrentResolver(1, Duration.ofMillis(100), Duration.ofSeconds(5)).resolve(List.of(hanging));
+
+        assertThat(results).isEmpty();
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void resolve_passesResultsToCallbackAsTheyComplete() {
+        var fast = participant();
+        var slow = participant();
+        var node = node();
+        var release = new CountDownLatch(1);
+        var callbacks = new ConcurrentHashMap<String, Result<FederatedCacheNode>>();
+        when(resolver.toFederatedCacheNode(fast)).thenAnswer(i -> {
+            release.countDown();
+            return Result.success(node);
+        });
+        when(resolver.toFederatedCacheNode(slow)).thenAnswer(i -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Result.failure("failure");
+        });
+
+        var results = concurrentResolver(2, Duration.ofSeconds(5), Duration.ofSeconds(5)).resolve(List.of(slow, fast), callbacks::put).getResults();
+
+        assertThat(callbacks).isEqualTo(results);
+    }
+
+    @Test
+    void resolve_neverExceedsParallelism() {
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        when(resolver.toFederatedCacheNode(any())).thenAnswer(i -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return Result.success(node());
+        });
+        var participants = List.of(participant(), participant(), participant(), participant(), participant(), participant());
+
+        var results = concurrentResolver(2, Duration.ofSeconds(5), Duration.ofSeconds(5)).resolve(participants);
+
+        assertThat(results).hasSize(participants.size());
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void resolve_neverExceedsMaxRequestsPerHost() {
+        var inFlight = new ConcurrentHashMap<String, AtomicInteger>();
+        var maxInFlight = new ConcurrentHashMap<String, AtomicInteger>();
+        when(resolver.toFederatedCacheNode(any())).thenAnswer(i -> {
+            var host = CachingWebDidResolver.hostOf(i.getArgument(0, ParticipantDto.class).getDid());
+            var current = inFlight.computeIfAbsent(host, h -> new AtomicInteger()).incrementAndGet();
+            maxInFlight.computeIfAbsent(host, h -> new AtomicInteger()).accumulateAndGet(current, Math::max);
+            Thread.sleep(20);
+            inFlight.get(host).decrementAndGet();
+            return Result.success(node());
+        });
+        var participants = List.of(participant("host1", "a"), participant("host1", "b"), participant("host1", "c"), participant("host1", "d"),
+                participant("host2", "a"), participant("host2", "b"));
+
+        var results = new ConcurrentNodeResolver(resolver, executor, 4, Duration.ofSeconds(5), Duration.ofSeconds(5), 1, Clock.systemUTC(), monitor)
+                .resolve(participants);
+
+        assertThat(results).hasSize(participants.size());
+        assertThat(maxInFlight.get("host1").get()).isEqualTo(1);
+        assertThat(maxInFlight.get("host2").get()).isEqualTo(1);
+    }
+
+    @Test
+    void groupByHost() {
+        var alice = participant("localhost%3A8080", "alice");
+        var other = new ParticipantDto().did("did:example:123");
+        var bob = participant("localhost%3A8080", "bob");
+
+        var groups = ConcurrentNodeResolver.groupByHost(List.of(alice, other, bob));
+
+        assertThat(groups).containsExactly(
+                entry("localhost:8080", List.of(alice, bob)),
+                entry("did:example:123", List.of(other)));
+    }
+
+    private ConcurrentNodeResolver concurrentResolver(int parallelism, Duration didTimeout, Duration deadline) {
+        return new ConcurrentNodeResolver(resolver, executor, parallelism, didTimeout, deadline, Clock.systemUTC(), monitor);
+    }
+
+    private FederatedCacheNode node() {
+        return new FederatedCacheNode("test-name", "http://test.target.url", List.of("ids-multipart"));
+    }
+
+    private ParticipantDto participant(String host, String name) {
+        return new ParticipantDto().did("did:web:" + host + ":" + name);
+    }
+
+    private ParticipantDto participant() {
+        return new ParticipantDto().did("did:web:test-domainname-" + UUID.randomUUID());
+    }
+}
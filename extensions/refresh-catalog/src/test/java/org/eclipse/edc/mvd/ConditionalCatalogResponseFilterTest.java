@@ -0,0 +1,216 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConditionalCatalogResponseFilterTest {
+
+    private static final String QUERY = "{\"criteria\":[]}";
+
+    private final AtomicLong version = new AtomicLong(1);
+    private final ConditionalCatalogResponseFilter filter = new ConditionalCatalogResponseFilter(version::get, new TypeManager().getMapper(), true, 8);
+
+    @Test
+    void filter_tagsResponseAndServesUnchangedCatalogPreSerialized() throws IOException {
+        var first = request(QUERY, null, null);
+        filter.filter(first);
+        verify(first, never()).abortWith(any());
+        var response = response(List.of("offer1"));
+        filter.filter(first, response);
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.ETAG)).isInstanceOf(EntityTag.class);
+
+        var second = request(QUERY, null, null);
+        filter.filter(second);
+        var aborted = abortedWith(second);
+        assertThat(aborted.getStatus()).isEqualTo(200);
+        assertThat(new String((byte[]) aborted.getEntity(), UTF_8)).isEqualTo("[\"offer1\"]");
+        assertThat(aborted.getEntityTag()).isEqualTo(response.getHeaders().getFirst(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void filter_answersMatchingIfNoneMatchOfGetWithNotModified() throws IOException {
+        var first = request("GET", null, null, null, null);
+        filter.filter(first);
+        var response = response(List.of("offer1"));
+        filter.filter(first, response);
+        var etag = (EntityTag) response.getHeaders().getFirst(HttpHeaders.ETAG);
+
+        var conditional = request("GET", null, "W/\"" + etag.getValue() + "\"", null, null);
+        filter.filter(conditional);
+
+        assertThat(abortedWith(conditional).getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void filter_ifNoneMatchOfPost_isAnsweredNormally() throws IOException {
+        var first = request(QUERY, null, null);
+        filter.filter(first);
+        var response = response(List.of("offer1"));
+        filter.filter(first, response);
+        var etag = (EntityTag) response.getHeaders().getFirst(HttpHeaders.ETAG);
+
+        var conditional = request(QUERY, "W/\"" + etag.getValue() + "\"", null);
+        filter.filter(conditional);
+        var wildcard = request(QUERY, "*", null);
+        filter.filter(wildcard);
+
+        assertThat(List.of(abortedWith(conditional), abortedWith(wildcard))).allSatisfy(aborted -> {
+            assertThat(aborted.getStatus()).isEqualTo(200);
+            assertThat(aborted.getEntityTag()).isEqualTo(etag);
+        });
+    }
+
+    @Test
+    void filter_otherCredentials_isNotServedCachedBody() throws IOException {
+        var first = request("POST", QUERY, null, null, "key1");
+        filter.filter(first);
+        var response = response(List.of("offer1"));
+        filter.filter(first, response);
+        var etag = (EntityTag) response.getHeaders().getFirst(HttpHeaders.ETAG);
+
+        var other = request("POST", QUERY, null, null, "key2");
+        filter.filter(other);
+        var otherResponse = response(List.of("offer1"));
+        filter.filter(other, otherResponse);
+
+        verify(other, never()).abortWith(any());
+        assertThat(otherResponse.getHeaders().getFirst(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void filter_changedCatalog_queriesAgain() throws IOException {
+        var first = request(QUERY, null, null);
+        filter.filter(first);
+        var response = response(List.of("offer1"));
+        filter.filter(first, response);
+        var etag = (EntityTag) response.getHeaders().getFirst(HttpHeaders.ETAG);
+
+        version.incrementAndGet();
+        var second = request(QUERY, "W/\"" + etag.getValue() + "\"", null);
+        filter.filter(second);
+
+        verify(second, never()).abortWith(any());
+    }
+
+    @Test
+    void filter_differentQuery_isTaggedDifferently() throws IOException {
+        var first = request(QUERY, null, null);
+        filter.filter(first);
+        var response = response(List.of("offer1"));
+        filter.filter(first, response);
+        var etag = (EntityTag) response.getHeaders().getFirst(HttpHeaders.ETAG);
+
+        var other = request("{\"criteria\":[{\"operandLeft\":\"asset:prop:id\",\"operator\":\"=\",\"operandRight\":\"1\"}]}", "W/\"" + etag.getValue() + "\"", null);
+        filter.filter(other);
+
+        verify(other, never()).abortWith(any());
+    }
+
+    @Test
+    void filter_compressesForClientsAcceptingGzip() throws IOException {
+        var first = request(QUERY, null, null);
+        filter.filter(first);
+        filter.filter(first, response(List.of("offer1")));
+
+        var gzipped = request(QUERY, null, "gzip, deflate");
+        filter.filter(gzipped);
+
+        var aborted = abortedWith(gzipped);
+        assertThat(aborted.getHeaderString(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (var in = new GZIPInputStream(new ByteArrayInputStream((byte[]) aborted.getEntity()))) {
+            assertThat(new String(in.readAllBytes(), UTF_8)).isEqualTo("[\"offer1\"]");
+        }
+    }
+
+    @Test
+    void matches_acceptsWeakAndWildcardTags() {
+        var etag = new EntityTag("1-abc", true);
+
+        assertThat(ConditionalCatalogResponseFilter.matches("\"0-abc\", W/\"1-abc\"", etag)).isTrue();
+        assertThat(ConditionalCatalogResponseFilter.matches("*", etag)).isTrue();
+        assertThat(ConditionalCatalogResponseFilter.matches("\"1-abd\"", etag)).isFalse();
+        assertThat(ConditionalCatalogResponseFilter.matches(null, etag)).isFalse();
+    }
+
+    private ContainerRequestContext request(String body, String ifNoneMatch, String acceptEncoding) throws IOException {
+        return request("POST", body, ifNoneMatch, acceptEncoding, null);
+    }
+
+    private ContainerRequestContext request(String method, String body, String ifNoneMatch, String acceptEncoding, String apiKey) throws IOException {
+        var request = mock(ContainerRequestContext.class);
+        var uriInfo = mock(UriInfo.class);
+        Map<String, Object> properties = new HashMap<>();
+        when(uriInfo.getPath()).thenReturn("federatedcatalog");
+        when(uriInfo.getRequestUri()).thenReturn(URI.create("http://localhost:8181/api/federatedcatalog"));
+        when(request.getUriInfo()).thenReturn(uriInfo);
+        when(request.getMethod()).thenReturn(method);
+        when(request.hasEntity()).thenReturn(body != null);
+        if (body != null) {
+            when(request.getEntityStream()).thenReturn(new ByteArrayInputStream(body.getBytes(UTF_8)));
+        }
+        when(request.getHeaderString("X-Api-Key")).thenReturn(apiKey);
+        when(request.getHeaderString(HttpHeaders.IF_NONE_MATCH)).thenReturn(ifNoneMatch);
+        when(request.getHeaderString(HttpHeaders.ACCEPT_ENCODING)).thenReturn(acceptEncoding);
+        doAnswer(invocation -> properties.put(invocation.getArgument(0), invocation.getArgument(1))).when(request).setProperty(anyString(), any());
+        when(request.getProperty(anyString())).thenAnswer(invocation -> properties.get(invocation.<String>getArgument(0)));
+        return request;
+    }
+
+    private ContainerResponseContext response(Object entity) {
+        var response = mock(ContainerResponseContext.class);
+        var headers = new MultivaluedHashMap<String, Object>();
+        when(response.getStatus()).thenReturn(200);
+        when(response.hasEntity()).thenReturn(true);
+        when(response.getEntity()).thenReturn(entity);
+        when(response.getHeaders()).thenReturn(headers);
+        return response;
+    }
+
+    private Response abortedWith(ContainerRequestContext request) {
+        var captor = ArgumentCaptor.forClass(Response.class);
+        verify(request).abortWith(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> KEYS = IntStream.range(0, 1000).mapToObj(i -> "did:web:did-server:company" + i).collect(Collectors.toList());
+
+    @Test
+    void ownerOf_spreadsKeysAcrossMembers() {
+        var ring = new ConsistentHashRing(List.of("replica1", "replica2", "replica3"), 128);
+
+        var counts = KEYS.stream().collect(Collectors.groupingBy(ring::ownerOf, Collectors.counting()));
+
+        assertThat(counts).containsOnlyKeys("replica1", "replica2", "replica3");
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(200L, 470L));
+    }
+
+    @Test
+    void ownerOf_independentOfMemberOrder() {
+        var ring1 = new ConsistentHashRing(List.of("replica1", "replica2", "replica3"), 16);
+        var ring2 = new ConsistentHashRing(List.of("replica3", "replica1", "replica2"), 16);
+
+        assertThat(KEYS).allSatisfy(key -> assertThat(ring1.ownerOf(key)).isEqualTo(ring2.ownerOf(key)));
+    }
+
+    @Test
+    void addingMember_onlyMovesKeysToNewMember() {
+        var before = new ConsistentHashRing(List.of("replica1", "replica2", "replica3"), 128);
+        var after = new ConsistentHashRing(List.of("replica1", "replica2", "replica3", "replica4"), 128);
+
+        var moved = KEYS.stream().filter(key -> !before.ownerOf(key).equals(after.ownerOf(key))).collect(Collectors.toList());
+
+        assertThat(moved).allSatisfy(key -> assertThat(after.ownerOf(key)).isEqualTo("replica4"));
+        assertThat(moved.size()).isBetween(150, 350);
+    }
+
+    @Test
+    void ownerOf_emptyRing() {
+        assertThat(new ConsistentHashRing(List.of(), 128).ownerOf("key")).isNull();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CrawlSchedulerTest {
+
+    private static final FederatedCacheNode NODE1 = new FederatedCacheNode("company1", "http://company1:8282/api/v1/ids/data", List.of("ids-multipart"));
+    private static final FederatedCacheNode NODE2 = new FederatedCacheNode("company2", "http://company2:8282/api/v1/ids/data", List.of("ids-multipart"));
+
+    private final Clock clock = mock(Clock.class);
+    private final CrawlScheduler scheduler = new CrawlScheduler(Duration.ofSeconds(10), Duration.ofSeconds(40), clock, mock(Monitor.class));
+
+    @Test
+    void selectDue_newNodesAreDue() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+
+        assertThat(scheduler.selectDue(List.of(NODE1, NODE2))).containsExactly(NODE1, NODE2);
+        assertThat(scheduler.getRound()).containsExactlyInAnyOrder(NODE1.getTargetUrl(), NODE2.getTargetUrl());
+    }
+
+    @Test
+    void unchangedCatalog_backsOffUpToMaxInterval() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        scheduler.recordCatalog(NODE1.getTargetUrl(), "hash");
+        scheduler.recordCatalog(NODE1.getTargetUrl(), "hash");
+        scheduler.recordCatalog(NODE1.getTargetUrl(), "hash");
+        scheduler.recordCatalog(NODE1.getTargetUrl(), "hash");
+
+        assertThat(scheduler.getSchedules()).singleElement().satisfies(schedule -> {
+            assertThat(schedule.getIntervalSeconds()).isEqualTo(40);
+            assertThat(schedule.getUnchangedCrawls()).isEqualTo(3);
+        });
+
+        when(clock.instant()).thenReturn(Instant.EPOCH.plusSeconds(39));
+        assertThat(scheduler.selectDue(List.of(NODE1, NODE2))).containsExactly(NODE2);
+
+        when(clock.instant()).thenReturn(Instant.EPOCH.plusSeconds(40));
+        assertThat(scheduler.selectDue(List.of(NODE1, NODE2))).containsExactly(NODE1, NODE2);
+    }
+
+    @Test
+    void subscribedNode_crawledAtMaxIntervalUntilMarkedDue() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        scheduler.setSubscribed(NODE1.getTargetUrl(), true);
+        scheduler.recordCatalog(NODE1.getTargetUrl(), "hash1");
+
+        when(clock.instant()).thenReturn(Instant.EPOCH.plusSeconds(39));
+        assertThat(scheduler.selectDue(List.of(NODE1))).isEmpty();
+
+        scheduler.markDue(NODE1.getTargetUrl());
+        assertThat(scheduler.selectDue(List.of(NODE1))).containsExactly(NODE1);
+    }
+
+    @Test
+    void changedCatalog_crawledMoreOften() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        scheduler.recordCatalog(NODE1.getTargetUrl(), "hash1");
+        scheduler.recordCatalog(NODE1.getTargetUrl(), "hash1");
+        scheduler.recordCatalog(NODE1.getTargetUrl(), "hash1");
+
+        scheduler.recordCatalog(NODE1.getTargetUrl(), "hash2");
+
+        assertThat(scheduler.getSchedules()).singleElement().satisfies(schedule -> {
+            assertThat(schedule.getIntervalSeconds()).isEqualTo(20);
+            assertThat(schedule.getContentHash()).isEqualTo("hash2");
+            assertThat(schedule.getUnchangedCrawls()).isZero();
+        });
+    }
+
+    @Test
+    void markDue() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        scheduler.recordCatalog(NODE1.getTargetUrl(), "hash");
+
+        scheduler.markDue(NODE1.getTargetUrl());
+
+        assertThat(scheduler.selectDue(List.of(NODE1))).containsExactly(NODE1);
+    }
+
+    @Test
+    void selectDue_dropsSchedulesOfRemovedNodes() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        scheduler.recordCatalog(NODE1.getTargetUrl(), "hash");
+
+        scheduler.selectDue(List.of(NODE2));
+
+        assertThat(scheduler.getSchedules()).isEmpty();
+    }
+}
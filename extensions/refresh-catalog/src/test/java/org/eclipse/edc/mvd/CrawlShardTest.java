@@ -0,0 +1,91 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class CrawlShardTest {
+
+    private static final List<String> DIDS = IntStream.range(0, 100).mapToObj(i -> "did:web:did-server:company" + i).collect(Collectors.toList());
+
+    private final Monitor monitor = mock(Monitor.class);
+
+    @Test
+    void replicasSplitTargetsWithoutOverlap() {
+        var members = Set.of("replica1", "replica2");
+        var shard1 = new CrawlShard("replica1", () -> members, 128, monitor).currentAssignment();
+        var shard2 = new CrawlShard("replica2", () -> members, 128, monitor).currentAssignment();
+
+        assertThat(DIDS).allSatisfy(did -> assertThat(shard1.owns(did)).isNotEqualTo(shard2.owns(did)));
+        assertThat(DIDS.stream().filter(shard1::owns)).isNotEmpty();
+    }
+
+    @Test
+    void noMembers_ownsAllTargets() {
+        var assignment = new CrawlShard("replica1", Set::of, 128, monitor).currentAssignment();
+
+        assertThat(DIDS).allMatch(assignment::owns);
+    }
+
+    @Test
+    void notAMember_ownsNoTargets() {
+        var assignment = new CrawlShard("replica3", () -> Set.of("replica1", "replica2"), 128, monitor).currentAssignment();
+
+        assertThat(DIDS).noneMatch(assignment::owns);
+    }
+
+    @Test
+    void membershipFile_reloadedWhenModified(@TempDir Path tempDir) throws IOException {
+        var file = tempDir.resolve("replicas.txt");
+        Files.writeString(file, "# replicas\nreplica1\n\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.EPOCH));
+        var shard = new CrawlShard("replica1", new ReplicaMembershipFile(file, monitor), 128, monitor);
+
+        assertThat(DIDS).allMatch(shard.currentAssignment()::owns);
+
+        Files.writeString(file, "replica1\nreplica2\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.EPOCH.plusSeconds(1)));
+
+        var assignment = shard.currentAssignment();
+        assertThat(DIDS.stream().filter(assignment::owns).count()).isBetween(1L, 99L);
+    }
+
+    @Test
+    void membershipFile_keepsLastMembershipWhenUnreadable(@TempDir Path tempDir) throws IOException {
+        var file = tempDir.resolve("replicas.txt");
+        Files.writeString(file, "replica1\nreplica2\n");
+        var membership = new ReplicaMembershipFile(file, monitor);
+        assertThat(membership.get()).containsExactlyInAnyOrder("replica1", "replica2");
+
+        Files.delete(file);
+
+        assertThat(membership.get()).containsExactlyInAnyOrder("replica1", "replica2");
+    }
+}
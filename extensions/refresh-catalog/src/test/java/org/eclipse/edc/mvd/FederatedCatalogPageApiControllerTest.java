@@ -0,0 +1,105 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.edc.mvd;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.eclipse.edc.connector.contract.spi.types.offer.ContractOffer;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.eclipse.edc.spi.types.domain.asset.Asset;
+import org.glassfish.jersey.jdkhttp.JdkHttpServerFactory;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class FederatedCatalogPageApiControllerTest {
+
+    private static final String NODE_URL = "http://company1:8282/api/v1/ids/data";
+
+    private final TypeManager typeManager = new TypeManager();
+    private final NodeAwareFederatedCacheStore store = new NodeAwareFederatedCacheStore(new CatalogContentHasher(typeManager.getMapper()), null, null, mock(Monitor.class));
+    private final OkHttpClient httpClient = new OkHttpClient();
+    private HttpServer server;
+    private String pagesUrl;
+
+    @BeforeEach
+    void setUp() {
+        var config = new ResourceConfig()
+                .register(new FederatedCatalogPageApiController(store, 1000))
+                .register(new ConditionalCatalogResponseFilter(store::getVersion, typeManager.getMapper(), true, 8));
+        server = JdkHttpServerFactory.createHttpServer(URI.create("http://localhost:0/api/"), config);
+        pagesUrl = "http://localhost:" + server.getAddress().getPort() + "/api/federatedcatalog/pages";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void getFilteredCatalogPage_revalidatedWithNotModifiedUntilCatalogChanges() throws IOException {
+        store.save(offer("offer1", "asset1"));
+        store.save(offer("offer2", "asset2"));
+        var url = pagesUrl + "?filter=" + Asset.PROPERTY_ID + "=asset1";
+
+        String etag;
+        try (var response = httpClient.newCall(new Request.Builder().url(url).get().build()).execute()) {
+            assertThat(response.code()).isEqualTo(200);
+            var offers = typeManager.getMapper().readValue(response.body().string(), ContractOffer[].class);
+            assertThat(offers).extracting(ContractOffer::getId).containsExactly("offer1");
+            etag = response.header("ETag");
+        }
+        assertThat(etag).startsWith("W/\"");
+
+        try (var response = httpClient.newCall(new Request.Builder().url(url).header("If-None-Match", etag).get().build()).execute()) {
+            assertThat(response.code()).isEqualTo(304);
+        }
+
+        store.save(offer("offer3", "asset3"));
+        try (var response = httpClient.newCall(new Request.Builder().url(url).header("If-None-Match", etag).get().build()).execute()) {
+            assertThat(response.code()).isEqualTo(200);
+            assertThat(response.header("ETag")).isNotEqualTo(etag);
+        }
+    }
+
+    @Test
+    void getFilteredCatalogPage_malformedFilter_badRequest() throws IOException {
+        try (var response = httpClient.newCall(new Request.Builder().url(pagesUrl + "?filter=asset1").get().build()).execute()) {
+            assertThat(response.code()).isEqualTo(400);
+        }
+    }
+
+    private ContractOffer offer(String id, String assetId) {
+        return ContractOffer.Builder.newInstance()
+                .id(id)
+                .asset(Asset.Builder.newInstance().id(assetId).property(NodeAwareFederatedCacheStore.PROPERTY_ORIGINATOR, NODE_URL).build())
+                .policy(Policy.Builder.newInstance().build())
+                .contractStart(ZonedDateTime.now())
+                .contractEnd(ZonedDateTime.now().plusDays(1))
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.junit.extensions.DependencyInjectionExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.system.injection.ObjectFactory;
+import org.eclipse.edc.web.spi.WebService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(DependencyInjectionExtension.class)
+class FederatedCatalogPageApiExtensionTest {
+
+    private final WebService webService = mock(WebService.class);
+    private FederatedCatalogPageApiExtension extension;
+
+    @BeforeEach
+    void setUp(ServiceExtensionContext context, ObjectFactory factory) {
+        context.registerService(WebService.class, webService);
+        context.registerService(NodeAwareFederatedCacheStore.class, mock(NodeAwareFederatedCacheStore.class));
+        extension = factory.constructInstance(FederatedCatalogPageApiExtension.class);
+    }
+
+    @Test
+    void initialize_registersCatalogApiOnManagementContext(ServiceExtensionContext context) {
+        extension.initialize(context);
+
+        verify(webService).registerResource(eq("management"), isA(FederatedCatalogPageApiController.class));
+        verify(webService).registerResource(eq("management"), isA(ConditionalCatalogResponseFilter.class));
+    }
+}
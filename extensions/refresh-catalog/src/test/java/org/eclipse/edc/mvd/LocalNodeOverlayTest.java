@@ -0,0 +1,79 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LocalNodeOverlayTest {
+
+    private final Clock clock = mock(Clock.class);
+    private final LocalNodeOverlay overlay = new LocalNodeOverlay(clock);
+
+    @Test
+    void put_expiresAfterTtl() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        var expiring = node("expiring", "http://expiring");
+        var permanent = node("permanent", "http://permanent");
+
+        overlay.put(expiring, Duration.ofSeconds(10));
+        overlay.put(permanent, null);
+        assertThat(overlay.getNodes()).containsExactlyInAnyOrder(expiring, permanent);
+
+        when(clock.instant()).thenReturn(Instant.EPOCH.plusSeconds(10));
+        assertThat(overlay.getNodes()).containsExactly(permanent);
+    }
+
+    @Test
+    void remove() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        overlay.put(node("local", "http://local"), null);
+
+        assertThat(overlay.remove("local")).isTrue();
+        assertThat(overlay.remove("local")).isFalse();
+        assertThat(overlay.isEmpty()).isTrue();
+    }
+
+    @Test
+    void mergeInto_replacesNodesWithSameName() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        var registered1 = node("company1", "http://company1");
+        var registered2 = node("company2", "http://company2");
+        var local = node("company2", "http://company2.internal");
+        overlay.put(local, null);
+
+        assertThat(overlay.mergeInto(List.of(registered1, registered2))).containsExactly(registered1, local);
+    }
+
+    @Test
+    void mergeInto_emptyOverlayReturnsNodesUnchanged() {
+        var nodes = List.of(node("company1", "http://company1"));
+
+        assertThat(overlay.mergeInto(nodes)).isSameAs(nodes);
+    }
+
+    private FederatedCacheNode node(String name, String url) {
+        return new FederatedCacheNode(name, url, List.of("ids-multipart"));
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.connector.contract.spi.types.offer.ContractOffer;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.query.Criterion;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.eclipse.edc.spi.types.domain.asset.Asset;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NodeAwareFederatedCacheStoreTest {
+
+    private static final String NODE1_URL = "http://company1:8282/api/v1/ids/data";
+    private static final String NODE2_URL = "http://company2:8282/api/v1/ids/data";
+
+    private final Clock clock = mock(Clock.class);
+    private final CatalogContentHasher hasher = new CatalogContentHasher(new TypeManager().getMapper());
+
+    @Test
+    void query_matchesAssetProperties() {
+        var store = new NodeAwareFederatedCacheStore(hasher, null, null, mock(Monitor.class));
+        store.save(offer("offer1", "asset1", NODE1_URL));
+        store.save(offer("offer2", "asset2", NODE2_URL));
+
+        var result = store.query(List.of(new Criterion(Asset.PROPERTY_ID, "=", "asset2")));
+
+        assertThat(result).extracting(ContractOffer::getId).containsExactly("offer2");
+        assertThat(store.query(List.of())).hasSize(2);
+    }
+
+    @Test
+    void query_matchesAssetIdPrefix() {
+        var store = new NodeAwareFederatedCacheStore(hasher, null, null, mock(Monitor.class));
+        store.save(offer("offer1", "document-1", NODE1_URL));
+        store.save(offer("offer2", "document-2", NODE2_URL));
+        store.save(offer("offer3", "image-1", NODE1_URL));
+
+        var result = store.query(List.of(new Criterion(Asset.PROPERTY_ID, "like", "document-%")));
+
+        assertThat(result).extracting(ContractOffer::getId).containsExactly("offer1", "offer2");
+    }
+
+    @Test
+    void query_matchesOriginatorAndIndexedProperty() {
+        var store = new NodeAwareFederatedCacheStore(hasher, null, null, Set.of(Asset.PROPERTY_CONTENT_TYPE), mock(Monitor.class));
+        store.save(offer("offer1", "asset1", NODE1_URL, "text/csv"));
+        store.save(offer("offer2", "asset2", NODE1_URL, "application/json"));
+        store.save(offer("offer3", "asset3", NODE2_URL, "text/csv"));
+
+        var result = store.query(List.of(
+                new Criterion(NodeAwareFederatedCacheStore.PROPERTY_ORIGINATOR, "in", List.of(NODE1_URL)),
+                new Criterion(Asset.PROPERTY_CONTENT_TYPE, "=", "text/csv")));
+
+        assertThat(result).extracting(ContractOffer::getId).containsExactly("offer1");
+    }
+
+    @Test
+    void query_returnsStablePages() {
+        var store = new NodeAwareFederatedCacheStore(hasher, null, null, mock(Monitor.class));
+        store.save(offer("offer3", "asset3", NODE2_URL));
+        store.save(offer("offer2", "asset2", NODE1_URL));
+        store.save(offer("offer1", "asset1", NODE1_URL));
+
+        assertThat(store.query(List.of(), 0, 2)).extracting(ContractOffer::getId).containsExactly("offer1", "offer2");
+        assertThat(store.query(List.of(), 2, 2)).extracting(ContractOffer::getId).containsExactly("offer3");
+    }
+
+    @Test
+    void save_updatesIndexesOfReplacedOffer() {
+        var store = new NodeAwareFederatedCacheStore(hasher, null, null, Set.of(Asset.PROPERTY_CONTENT_TYPE), mock(Monitor.class));
+        store.save(offer("definition1:" + UUID.randomUUID(), "asset1", NODE1_URL, "text/csv"));
+        var replacement = offer("definition1:" + UUID.randomUUID(), "asset1", NODE1_URL, "application/json");
+        store.save(replacement);
+
+        assertThat(store.query(List.of())).hasSize(1);
+        assertThat(store.query(List.of(new Criterion(Asset.PROPERTY_CONTENT_TYPE, "=", "text/csv")))).isEmpty();
+        assertThat(store.query(List.of(new Criterion(Asset.PROPERTY_CONTENT_TYPE, "=", "application/json"))))
+                .extracting(ContractOffer::getId).containsExactly(replacement.getId());
+    }
+
+    @Test
+    void compactStorage_materializesOffersOnQuery() {
+        var codec = new CompactOfferCodec(new TypeManager().getMapper(), true);
+        var store = new NodeAwareFederatedCacheStore(hasher, null, null, Set.of(), codec, 0, mock(Monitor.class));
+        store.save(offer("offer1", "asset1", NODE1_URL));
+        store.save(offer("offer2", "asset2", NODE2_URL));
+
+        var result = store.query(List.of(new Criterion(Asset.PROPERTY_ID, "=", "asset2")));
+
+        assertThat(result).singleElement().satisfies(offer -> {
+            assertThat(offer.getId()).isEqualTo("offer2");
+            assertThat(offer.getAsset().getProperty(NodeAwareFederatedCacheStore.PROPERTY_ORIGINATOR)).isEqualTo(NODE2_URL);
+        });
+        assertThat(store.getStoredBytes()).isPositive();
+    }
+
+    @Test
+    void compactStorage_evictsLeastRecentlySavedCatalogsBeyondBudget() {
+        var codec = new CompactOfferCodec(new TypeManager().getMapper(), false);
+        var probe = new NodeAwareFederatedCacheStore(hasher, null, null, Set.of(), codec, 0, mock(Monitor.class));
+        probe.save(offer("offer1", "asset1", NODE1_URL));
+        var offerBytes = probe.getStoredBytes();
+        var store = new NodeAwareFederatedCacheStore(hasher, null, null, Set.of(), codec, offerBytes * 5 / 2, mock(Monitor.class));
+
+        store.save(offer("offer1", "asset1", NODE1_URL));
+        store.save(offer("offer2", "asset2", NODE2_URL));
+        var version = store.getVersion();
+        store.save(offer("offer3", "asset3", NODE1_URL.replace("company1", "company3")));
+
+        assertThat(store.getOffers(NODE1_URL)).isEmpty();
+        assertThat(store.getOffers(NODE2_URL)).hasSize(1);
+        assertThat(store.getStoredBytes()).isLessThanOrEqualTo(offerBytes * 5 / 2);
+        assertThat(store.getVersion()).isGreaterThan(version + 1);
+    }
+
+    @Test
+    void deleteExpired_withoutScheduler_deletesOffersNotSavedAgain() {
+        var store = new NodeAwareFederatedCacheStore(hasher, null, null, mock(Monitor.class));
+        store.save(offer("offer1", "asset1", NODE1_URL));
+        store.save(offer("offer2", "asset2", NODE2_URL));
+
+        store.expireAll();
+        store.save(offer("offer1", "asset1", NODE1_URL));
+        store.deleteExpired();
+
+        assertThat(store.query(List.of())).extracting(ContractOffer::getId).containsExactly("offer1");
+        assertThat(store.query(List.of(new Criterion(Asset.PROPERTY_ID, "=", "asset2")))).isEmpty();
+    }
+
+    @Test
+    void deleteExpired_withScheduler_keepsOffersOfSkippedNodes() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        var scheduler = new CrawlScheduler(Duration.ofSeconds(10), Duration.ofSeconds(60), clock, mock(Monitor.class));
+        var store = new NodeAwareFederatedCacheStore(hasher, scheduler, null, mock(Monitor.class));
+        store.save(offer("offer1", "asset1", NODE1_URL));
+        store.save(offer("offer2", "asset2", NODE2_URL));
+        scheduler.recordCatalog(NODE2_URL, "hash");
+
+        store.expireAll();
+        assertThat(scheduler.selectDue(List.of(node(NODE1_URL), node(NODE2_URL)))).extracting(FederatedCacheNode::getTargetUrl).containsExactly(NODE1_URL);
+        store.deleteExpired();
+
+        assertThat(store.getOffers(NODE1_URL)).isEmpty();
+        assertThat(store.getOffers(NODE2_URL)).extracting(ContractOffer::getId).containsExactly("offer2");
+    }
+
+    @Test
+    void deleteExpired_reportsContentHashOfCrawledNodes() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        var scheduler = new CrawlScheduler(Duration.ofSeconds(10), Duration.ofSeconds(60), clock, mock(Monitor.class));
+        var store = new NodeAwareFederatedCacheStore(hasher, scheduler, null, mock(Monitor.class));
+
+        for (var round = 0; round < 2; round++) {
+            store.expireAll();
+            scheduler.selectDue(List.of(node(NODE1_URL)));
+            store.save(offer("offer1", "asset1", NODE1_URL));
+            store.deleteExpired();
+            when(clock.instant()).thenReturn(Instant.EPOCH.plusSeconds(60));
+        }
+
+        assertThat(scheduler.getSchedules()).singleElement().satisfies(schedule -> {
+            assertThat(schedule.getUnchangedCrawls()).isEqualTo(1);
+            assertThat(schedule.getIntervalSeconds()).isEqualTo(20);
+        });
+    }
+
+    @Test
+    void deleteExpired_recrawlWithNewOfferIds_catalogUnchanged() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        var scheduler = new CrawlScheduler(Duration.ofSeconds(10), Duration.ofSeconds(60), clock, mock(Monitor.class));
+        var store = new NodeAwareFederatedCacheStore(hasher, scheduler, null, mock(Monitor.class));
+        var versions = new ArrayList<Long>();
+
+        for (var round = 0; round < 3; round++) {
+            store.expireAll();
+            scheduler.selectDue(List.of(node(NODE1_URL)));
+            // providers issue a new random offer id with every catalog request
+            store.save(offer("definition1:" + UUID.randomUUID(), "asset1", NODE1_URL));
+            store.save(offer("definition1:" + UUID.randomUUID(), "asset2", NODE1_URL));
+            store.deleteExpired();
+            versions.add(store.getVersion());
+            when(clock.instant()).thenReturn(Instant.EPOCH.plusSeconds(60L * (round + 1)));
+        }
+
+        assertThat(versions).containsOnly(versions.get(0));
+        assertThat(store.getOffers(NODE1_URL)).hasSize(2);
+        assertThat(scheduler.getSchedules()).singleElement().satisfies(schedule -> {
+            assertThat(schedule.getUnchangedCrawls()).isEqualTo(2);
+            assertThat(schedule.getIntervalSeconds()).isEqualTo(40);
+        });
+    }
+
+    @Test
+    void contentHash_ignoresRandomPartOfOfferId() {
+        var first = List.of(offer("definition1:" + UUID.randomUUID(), "asset1", NODE1_URL), offer("definition1:" + UUID.randomUUID(), "asset2", NODE1_URL));
+        var second = List.of(offer("definition1:" + UUID.randomUUID(), "asset1", NODE1_URL), offer("definition1:" + UUID.randomUUID(), "asset2", NODE1_URL));
+        var otherDefinition = List.of(offer("definition2:" + UUID.randomUUID(), "asset1", NODE1_URL), offer("definition2:" + UUID.randomUUID(), "asset2", NODE1_URL));
+
+        assertThat(hasher.hash(first)).isEqualTo(hasher.hash(second));
+        assertThat(hasher.hash(first)).isNotEqualTo(hasher.hash(otherDefinition));
+    }
+
+    @Test
+    void contentHash_ignoresOriginatorAndOrder() {
+        var first = List.of(offer("offer1", "asset1", NODE1_URL), offer("offer2", "asset2", NODE1_URL));
+        var second = List.of(offer("offer2", "asset2", NODE2_URL), offer("offer1", "asset1", NODE2_URL));
+
+        assertThat(hasher.hash(first)).isEqualTo(hasher.hash(second));
+        assertThat(hasher.hash(first)).isNotEqualTo(hasher.hash(first.subList(0, 1)));
+    }
+
+    private FederatedCacheNode node(String targetUrl) {
+        return new FederatedCacheNode(targetUrl, targetUrl, List.of("ids-multipart"));
+    }
+
+    private ContractOffer offer(String id, String assetId, String originator) {
+        return offer(id, assetId, originator, "application/octet-stream");
+    }
+
+    private ContractOffer offer(String id, String assetId, String originator, String contentType) {
+        return ContractOffer.Builder.newInstance()
+                .id(id)
+                .asset(Asset.Builder.newInstance().id(assetId).contentType(contentType).property(NodeAwareFederatedCacheStore.PROPERTY_ORIGINATOR, originator).build())
+                .policy(Policy.Builder.newInstance().build())
+                .contractStart(ZonedDateTime.now())
+                .contractEnd(ZonedDateTime.now().plusDays(1))
+                .build();
+    }
+}
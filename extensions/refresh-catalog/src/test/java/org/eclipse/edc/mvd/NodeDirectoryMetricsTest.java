@@ -0,0 +1,89 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.edc.registration.client.api.RegistryApi;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NodeDirectoryMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final NodeDirectoryMetrics metrics = new NodeDirectoryMetrics(registry, Clock.systemUTC());
+    private final RegistryApi registryApi = mock(RegistryApi.class);
+    private final FederatedCacheNodeResolver resolver = mock(FederatedCacheNodeResolver.class);
+
+    @Test
+    void refresh_recordsListingAndNodeCount() {
+        when(registryApi.listParticipants()).thenReturn(List.of());
+
+        directory().getAll();
+
+        assertThat(registry.get(NodeDirectoryMetrics.LIST_PARTICIPANTS).timer().count()).isEqualTo(1);
+        assertThat(registry.get(NodeDirectoryMetrics.NODES).gauge().value()).isEqualTo(0);
+        assertThat(registry.get(NodeDirectoryMetrics.SINCE_LAST_SUCCESS).gauge().value()).isNotNaN();
+        assertThat(registry.get(NodeDirectoryMetrics.REFRESH_FAILURES).counter().count()).isEqualTo(0);
+    }
+
+    @Test
+    void refresh_listingTimerCoversTheRegistrationServiceCall() {
+        when(registryApi.listParticipants()).thenAnswer(i -> {
+            Thread.sleep(50);
+            return List.of();
+        });
+
+        directory().getAll();
+
+        assertThat(registry.get(NodeDirectoryMetrics.LIST_PARTICIPANTS).timer().totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(50);
+    }
+
+    @Test
+    void refresh_recordsFailures() {
+        when(registryApi.listParticipants()).thenThrow(new RuntimeException("unavailable"));
+
+        directory().getAll();
+
+        assertThat(registry.get(NodeDirectoryMetrics.REFRESH_FAILURES).counter().count()).isEqualTo(1);
+        assertThat(registry.get(NodeDirectoryMetrics.SINCE_LAST_SUCCESS).gauge().value()).isNaN();
+    }
+
+    @Test
+    void recordDidResolution_taggedByOutcome() {
+        metrics.recordDidResolution(System.nanoTime(), true);
+        metrics.recordDidResolution(System.nanoTime(), false);
+        metrics.recordDidResolution(System.nanoTime(), false);
+
+        assertThat(registry.get(NodeDirectoryMetrics.DID_RESOLUTION).tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(registry.get(NodeDirectoryMetrics.DID_RESOLUTION).tag("outcome", "failure").timer().count()).isEqualTo(2);
+    }
+
+    private RegistrationServiceNodeDirectory directory() {
+        return RegistrationServiceNodeDirectory.Builder.newInstance()
+                .apiClient(registryApi)
+                .resolver(resolver)
+                .monitor(mock(Monitor.class))
+                .metrics(metrics)
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class NodeDirectorySnapshotStoreTest {
+
+    private final TypeManager typeManager = new TypeManager();
+    private final Monitor monitor = mock(Monitor.class);
+
+    @Test
+    void saveAndLoad(@TempDir Path directory) {
+        var store = new NodeDirectorySnapshotStore(directory.resolve("nodes.json.gz"), typeManager.getMapper(), monitor);
+        var entry = new NodeDirectorySnapshotStore.Entry("did:web:did-server:company1", "ONBOARDED", "did:web:did-server:company1",
+                "http://company1:8282/api/v1/ids/data", List.of("ids-multipart"), Instant.ofEpochSecond(1_000));
+
+        store.save(List.of(entry));
+
+        assertThat(store.load()).singleElement().usingRecursiveComparison().isEqualTo(entry);
+    }
+
+    @Test
+    void load_missingFile(@TempDir Path directory) {
+        var store = new NodeDirectorySnapshotStore(directory.resolve("nodes.json.gz"), typeManager.getMapper(), monitor);
+
+        assertThat(store.load()).isEmpty();
+    }
+
+    @Test
+    void load_corruptFile(@TempDir Path directory) throws Exception {
+        var path = directory.resolve("nodes.json.gz");
+        Files.writeString(path, "not a snapshot");
+        var store = new NodeDirectorySnapshotStore(path, typeManager.getMapper(), monitor);
+
+        assertThat(store.load()).isEmpty();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class NodeHealthProberTest {
+
+    private static final FederatedCacheNode HEALTHY = new FederatedCacheNode("healthy", "http://healthy:8282/api/v1/ids/data", List.of("ids-multipart"));
+    private static final FederatedCacheNode ERROR = new FederatedCacheNode("error", "http://error:8282/api/v1/ids/data", List.of("ids-multipart"));
+    private static final FederatedCacheNode DOWN = new FederatedCacheNode("down", "http://down:8282/api/v1/ids/data", List.of("ids-multipart"));
+
+    private final NodeHealthTracker tracker = mock(NodeHealthTracker.class);
+
+    @Test
+    void run_recordsProbeOutcomes() {
+        var httpClient = new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    var host = chain.request().url().host();
+                    if (host.equals("down")) {
+                        throw new IOException("connection refused");
+                    }
+                    return new Response.Builder()
+                            .request(chain.request())
+                            .protocol(Protocol.HTTP_1_1)
+                            .code(host.equals("error") ? 503 : 405)
+                            .message("message")
+                            .body(ResponseBody.create("", MediaType.get("application/json")))
+                            .build();
+                })
+                .build();
+
+        new NodeHealthProber(() -> List.of(HEALTHY, ERROR, DOWN), httpClient, tracker, mock(Monitor.class)).run();
+
+        verify(tracker, timeout(5_000)).recordProbe(eq(HEALTHY.getTargetUrl()), eq(true), any());
+        verify(tracker, timeout(5_000)).recordProbe(eq(ERROR.getTargetUrl()), eq(false), any());
+        verify(tracker, timeout(5_000)).recordProbe(eq(DOWN.getTargetUrl()), eq(false), any());
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.catalog.spi.FederatedCacheNode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NodeHealthTrackerTest {
+
+    private static final FederatedCacheNode FAST = node("fast");
+    private static final FederatedCacheNode SLOW = node("slow");
+    private static final FederatedCacheNode FAILING = node("failing");
+    private static final FederatedCacheNode UNKNOWN = node("unknown");
+
+    @Test
+    void rank_ordersByLatencyAndHealth() {
+        var tracker = new NodeHealthTracker(0, Clock.systemUTC());
+        tracker.recordProbe(SLOW.getTargetUrl(), true, Duration.ofMillis(500));
+        tracker.recordProbe(FAST.getTargetUrl(), true, Duration.ofMillis(20));
+        tracker.recordProbe(FAILING.getTargetUrl(), false, Duration.ofMillis(100));
+
+        assertThat(tracker.rank(List.of(FAILING, SLOW, FAST, UNKNOWN))).containsExactly(UNKNOWN, FAST, SLOW, FAILING);
+    }
+
+    @Test
+    void rank_excludesNodesAfterConsecutiveUnhealthyProbes() {
+        var tracker = new NodeHealthTracker(2, Clock.systemUTC());
+        tracker.recordProbe(FAILING.getTargetUrl(), false, Duration.ofMillis(100));
+        assertThat(tracker.rank(List.of(FAST, FAILING))).containsExactly(FAST, FAILING);
+
+        tracker.recordProbe(FAILING.getTargetUrl(), false, Duration.ofMillis(100));
+        assertThat(tracker.rank(List.of(FAST, FAILING))).containsExactly(FAST);
+        assertThat(tracker.getHealth()).singleElement().satisfies(health -> assertThat(health.isExcluded()).isTrue());
+
+        tracker.recordProbe(FAILING.getTargetUrl(), true, Duration.ofMillis(100));
+        assertThat(tracker.rank(List.of(FAST, FAILING))).containsExactly(FAST, FAILING);
+    }
+
+    @Test
+    void recordCrawl_improvesHealth() {
+        var tracker = new NodeHealthTracker(0, Clock.systemUTC());
+        tracker.recordProbe(FAILING.getTargetUrl(), false, Duration.ofMillis(100));
+        tracker.recordProbe(SLOW.getTargetUrl(), false, Duration.ofMillis(100));
+
+        tracker.recordCrawl(SLOW.getTargetUrl(), true);
+
+        assertThat(tracker.rank(List.of(FAILING, SLOW))).containsExactly(SLOW, FAILING);
+    }
+
+    @Test
+    void rank_dropsScoresOfRemovedNodes() {
+        var tracker = new NodeHealthTracker(0, Clock.systemUTC());
+        tracker.recordProbe(FAST.getTargetUrl(), true, Duration.ofMillis(20));
+
+        tracker.rank(List.of(SLOW));
+
+        assertThat(tracker.getHealth()).isEmpty();
+    }
+
+    private static FederatedCacheNode node(String name) {
+        return new FederatedCacheNode(name, "http://" + name + ":8282/api/v1/ids/data", List.of("ids-multipart"));
+    }
+}
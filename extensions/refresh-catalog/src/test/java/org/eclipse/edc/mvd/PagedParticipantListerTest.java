@@ -0,0 +1,127 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.eclipse.edc.registration.client.api.RegistryApi;
+import org.eclipse.edc.registration.client.models.ParticipantDto;
+import org.eclipse.edc.spi.EdcException;
+import org.eclipse.edc.spi.iam.TokenRepresentation;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.spi.types.TypeManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PagedParticipantListerTest {
+
+    private static final String API_URL = "http://registration-service:8182/authority";
+
+    private final RegistryApi registryApi = mock(RegistryApi.class);
+    private final Monitor monitor = mock(Monitor.class);
+    private final List<Request> requests = new ArrayList<>();
+
+    @Test
+    void iterator_followsCursorUntilLastPage() {
+        var lister = lister(request -> {
+            var after = request.url().queryParameter("after");
+            if (after == null) {
+                return response(request, 200, "{\"participants\":[{\"did\":\"did:web:a\"},{\"did\":\"did:web:b\"}],\"nextCursor\":\"did:web:b\"}");
+            }
+            return response(request, 200, "{\"participants\":[{\"did\":\"did:web:c\"}],\"nextCursor\":null}");
+        });
+
+        var pages = new ArrayList<List<String>>();
+        lister.forEach(page -> pages.add(page.stream().map(ParticipantDto::getDid).toList()));
+
+        assertThat(pages).containsExactly(List.of("did:web:a", "did:web:b"), List.of("did:web:c"));
+        assertThat(requests).hasSize(2).allSatisfy(request -> {
+            assertThat(request.url().encodedPath()).isEqualTo("/authority/registry/participant-pages");
+            assertThat(request.url().queryParameter("limit")).isEqualTo("2");
+            assertThat(request.header("Authorization")).isEqualTo("Bearer token");
+        });
+        assertThat(requests.get(1).url().queryParameter("after")).isEqualTo("did:web:b");
+    }
+
+    @Test
+    void iterator_fallsBackToFullListingWithoutPagedListing() {
+        var participant = new ParticipantDto().did("did:web:a");
+        when(registryApi.listParticipants()).thenReturn(List.of(participant));
+        var lister = lister(request -> response(request, 404, ""));
+
+        var pages = new ArrayList<List<ParticipantDto>>();
+        lister.forEach(pages::add);
+
+        assertThat(pages).containsExactly(List.of(participant));
+    }
+
+    @Test
+    void iterator_pagingUnsupported_notAskedForAgain() {
+        var participant = new ParticipantDto().did("did:web:a");
+        when(registryApi.listParticipants()).thenReturn(List.of(participant));
+        var lister = lister(request -> response(request, 404, ""));
+
+        lister.forEach(page -> { });
+        lister.forEach(page -> { });
+
+        assertThat(requests).hasSize(1);
+        verify(registryApi, times(2)).listParticipants();
+        verify(monitor, times(1)).warning(anyString());
+    }
+
+    @Test
+    void iterator_failsOnServerError() {
+        var lister = lister(request -> response(request, 500, ""));
+
+        assertThatThrownBy(() -> lister.iterator().hasNext()).isInstanceOf(EdcException.class);
+    }
+
+    private PagedParticipantLister lister(Function<Request, Response> server) {
+        var httpClient = new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    requests.add(chain.request());
+                    return server.apply(chain.request());
+                })
+                .build();
+        return new PagedParticipantLister(httpClient, API_URL, parameters -> Result.success(TokenRepresentation.Builder.newInstance().token("token").build()),
+                new TypeManager().getMapper(), 2, registryApi, monitor);
+    }
+
+    private Response response(Request request, int code, String body) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("message")
+                .body(ResponseBody.create(body, MediaType.get("application/json")))
+                .build();
+    }
+}
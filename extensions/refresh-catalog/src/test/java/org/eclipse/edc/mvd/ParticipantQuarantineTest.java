@@ -0,0 +1,102 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParticipantQuarantineTest {
+
+    private static final String DID = "did:web:did-server:company1";
+
+    private final Clock clock = mock(Clock.class);
+    private final ParticipantQuarantine quarantine = new ParticipantQuarantine(2, Duration.ofSeconds(10), Duration.ofSeconds(60), clock, () -> 1.0, mock(Monitor.class));
+
+    @Test
+    void allowAttempt_untilFailureThresholdReached() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+
+        quarantine.recordFailure(DID, "failure");
+        assertThat(quarantine.allowAttempt(DID)).isTrue();
+
+        quarantine.recordFailure(DID, "failure");
+        assertThat(quarantine.allowAttempt(DID)).isFalse();
+        assertThat(quarantine.getQuarantined()).singleElement()
+                .satisfies(participant -> {
+                    assertThat(participant.getDid()).isEqualTo(DID);
+                    assertThat(participant.getState()).isEqualTo("OPEN");
+                    assertThat(participant.getConsecutiveFailures()).isEqualTo(2);
+                    assertThat(participant.getRetryAt()).isEqualTo(Instant.EPOCH.plusSeconds(10));
+                });
+    }
+
+    @Test
+    void halfOpenTrialFailure_backsOffExponentially() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        quarantine.recordFailure(DID, "failure");
+        quarantine.recordFailure(DID, "failure");
+
+        when(clock.instant()).thenReturn(Instant.EPOCH.plusSeconds(10));
+        assertThat(quarantine.allowAttempt(DID)).isTrue();
+        assertThat(quarantine.getQuarantined().get(0).getState()).isEqualTo("HALF_OPEN");
+
+        quarantine.recordFailure(DID, "failure");
+        assertThat(quarantine.allowAttempt(DID)).isFalse();
+        assertThat(quarantine.getQuarantined().get(0).getRetryAt()).isEqualTo(Instant.EPOCH.plusSeconds(30));
+    }
+
+    @Test
+    void backoff_cappedAtMaximum() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        for (var i = 0; i < 20; i++) {
+            quarantine.recordFailure(DID, "failure");
+        }
+
+        assertThat(quarantine.getQuarantined().get(0).getRetryAt()).isEqualTo(Instant.EPOCH.plusSeconds(60));
+    }
+
+    @Test
+    void retainOnly_forgetsParticipantsNoLongerListed() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        var other = "did:web:did-server:company2";
+        quarantine.recordFailure(DID, "failure");
+        quarantine.recordFailure(other, "failure");
+
+        quarantine.retainOnly(Set.of(other));
+
+        assertThat(quarantine.getQuarantined()).extracting(QuarantinedParticipant::getDid).containsExactly(other);
+    }
+
+    @Test
+    void recordSuccess_closesBreaker() {
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        quarantine.recordFailure(DID, "failure");
+        quarantine.recordFailure(DID, "failure");
+
+        quarantine.recordSuccess(DID);
+
+        assertThat(quarantine.allowAttempt(DID)).isTrue();
+        assertThat(quarantine.getQuarantined()).isEmpty();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ *  Copyright (c) 2023 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+
+package org.eclipse.edc.mvd;
+
+import okhttp3.OkHttpClient;
+import org.eclipse.edc.iam.did.spi.resolution.DidResolverRegistry;
+import org.eclipse.edc.junit.extensions.DependencyInjectionExtension;
+import org.eclipse.edc.spi.iam.IdentityService;
+import org.eclipse.edc.spi.system.ExecutorInstrumentation;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.spi.system.injection.ObjectFactory;
+import org.eclipse.edc.web.spi.WebService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(DependencyInjectionExtension.class)
+class RegistrationServiceNodeDirectoryExtensionTest {
+
+    private final WebService webService = mock(WebService.class);
+    private RegistrationServiceNodeDirectoryExtension extension;
+
+    @BeforeEach
+    void setUp(ServiceExtensionContext context, ObjectFactory factory) {
+        context.registerService(WebService.class, webService);
+        context.registerService(OkHttpClient.class, new OkHttpClient());
+        context.registerService(ExecutorInstrumentation.class, ExecutorInstrumentation.noop());
+        context.registerService(IdentityService.class, mock(IdentityService.class));
+        context.registerService(DidResolverRegistry.class, mock(DidResolverRegistry.class));
+        extension = factory.constructInstance(RegistrationServiceNodeDirectoryExtension.class);
+    }
+
+    @Test
+    void initialize_registersNodeDirectoryApiAndProvidesCatalogStore(ServiceExtensionContext context) {
+        extension.initialize(context);
+
+        verify(webService).registerResource(eq("management"), isA(NodeDirectoryApiController.class));
+        assertThat(extension.nodeAwareFederatedCacheStore()).isSameAs(extension.federatedCacheStore());
+    }
+}
@@ -21,12 +21,33 @@ import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.result.Result;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class RegistrationServiceNodeDirectoryTest {
@@ -80,6 +101,464 @@ class RegistrationServiceNodeDirectoryTest {
                 .containsExactly(node1);
     }
 
+    @Test
+    void getAll_cached_servesWarmCacheWithoutQueryingRegistry() {
+        var clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        var service = cachingDirectory(Runnable::run, clock);
+
+        var company1 = getParticipant();
+        var node1 = node();
+        when(registryApi.listParticipants()).thenReturn(List.of(company1));
+        when(resolver.toFederatedCacheNode(company1)).thenReturn(Result.success(node1));
+
+        assertThat(service.getAll()).containsExactly(node1);
+        assertThat(service.getAll()).containsExactly(node1);
+        verify(registryApi, times(1)).listParticipants();
+    }
+
+    @Test
+    void getAll_cached_servesStaleNodesAndRefreshesInBackground() {
+        var clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        var backgroundTasks = new ArrayList<Runnable>();
+        var service = cachingDirectory(backgroundTasks::add, clock);
+
+        var company1 = getParticipant();
+        var company2 = getParticipant();
+        var node1 = node();
+        var node2 = node();
+        when(registryApi.listParticipants()).thenReturn(List.of(company1), List.of(company1, company2));
+        when(resolver.toFederatedCacheNode(company1)).thenReturn(Result.success(node1));
+        when(resolver.toFederatedCacheNode(company2)).thenReturn(Result.success(node2));
+
+        assertThat(service.getAll()).containsExactly(node1);
+
+        when(clock.instant()).thenReturn(Instant.EPOCH.plusSeconds(10));
+        assertThat(service.getAll()).containsExactly(node1);
+        assertThat(service.getAll()).containsExactly(node1);
+        assertThat(backgroundTasks).hasSize(1);
+
+        backgroundTasks.get(0).run();
+        assertThat(service.getAll()).containsExactly(node1, node2);
+    }
+
+    @Test
+    void getAll_cached_keepsLastGoodNodesWhenRegistryFails() {
+        var clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        var service = cachingDirectory(Runnable::run, clock);
+
+        var company1 = getParticipant();
+        var node1 = node();
+        when(registryApi.listParticipants()).thenReturn(List.of(company1)).thenThrow(new RuntimeException("unavailable"));
+        when(resolver.toFederatedCacheNode(company1)).thenReturn(Result.success(node1));
+
+        assertThat(service.getAll()).containsExactly(node1);
+
+        when(clock.instant()).thenReturn(Instant.EPOCH.plusSeconds(10));
+        assertThat(service.getAll()).containsExactly(node1);
+        assertThat(service.getAll()).containsExactly(node1);
+    }
+
+    @Test
+    void getAll_concurrent_fallsBackToPreviousNodeOnTimeout() {
+        var clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        var concurrentResolver = mock(ConcurrentNodeResolver.class);
+        var service = RegistrationServiceNodeDirectory.Builder.newInstance()
+                .apiClient(registryApi)
+                .resolver(resolver)
+                .concurrentResolver(concurrentResolver)
+                .monitor(monitor)
+                .resyncInterval(Duration.ofSeconds(1))
+                .clock(clock)
+                .build();
+
+        var company1 = getParticipant();
+        var company2 = getParticipant();
+        var node1 = node();
+        var node2 = node();
+        var participants = List.of(company1, company2);
+        when(registryApi.listParticipants()).thenReturn(participants);
+        when(concurrentResolver.resolve(eq(participants), any())).thenAnswer(resolving(
+                Map.of(company1.getDid(), Result.success(node1), company2.getDid(), Result.success(node2))))
+                .thenAnswer(resolving(Map.of(company1.getDid(), Result.success(node1))));
+
+        assertThat(service.getAll()).containsExactly(node1, node2);
+        when(clock.instant()).thenReturn(Instant.EPOCH.plusSeconds(1));
+        assertThat(service.getAll()).containsExactly(node1, node2);
+    }
+
+    @Test
+    void getAll_concurrent_doesNotQuarantineParticipantsNotScheduledBeforeDeadline() {
+        var concurrentResolver = mock(ConcurrentNodeResolver.class);
+        var quarantine = new ParticipantQuarantine(2, Duration.ofMinutes(1), Duration.ofMinutes(10), Clock.systemUTC(), monitor);
+        var service = RegistrationServiceNodeDirectory.Builder.newInstance()
+                .apiClient(registryApi)
+                .resolver(resolver)
+                .concurrentResolver(concurrentResolver)
+                .quarantine(quarantine)
+                .monitor(monitor)
+                .build();
+
+        var slow = getParticipant();
+        var unscheduled = getParticipant();
+        when(registryApi.listParticipants()).thenReturn(List.of(slow, unscheduled));
+        when(concurrentResolver.resolve(any(), any())).thenAnswer(resolving(Map.of(), Set.of(slow.getDid())));
+
+        service.getAll();
+        service.getAll();
+
+        assertThat(quarantine.getQuarantined())
+                .extracting(QuarantinedParticipant::getDid)
+                .containsExactly(slow.getDid());
+    }
+
+    @Test
+    void getAll_forgetsQuarantineOfParticipantsThatLeftTheRegistry() {
+        var quarantine = new ParticipantQuarantine(1, Duration.ofMinutes(1), Duration.ofMinutes(10), Clock.systemUTC(), monitor);
+        var service = RegistrationServiceNodeDirectory.Builder.newInstance()
+                .apiClient(registryApi)
+                .resolver(resolver)
+                .quarantine(quarantine)
+                .monitor(monitor)
+                .build();
+
+        var failing = getParticipant();
+        when(registryApi.listParticipants()).thenReturn(List.of(failing)).thenReturn(List.of());
+        when(resolver.toFederatedCacheNode(failing)).thenReturn(Result.failure("failure"));
+
+        service.getAll();
+        assertThat(quarantine.getQuarantined()).extracting(QuarantinedParticipant::getDid).containsExactly(failing.getDid());
+
+        service.getAll();
+        assertThat(quarantine.getQuarantined()).isEmpty();
+    }
+
+    @Test
+    void getAll_incremental_resolvesOnlyNewParticipantsAndPublishesChanges() {
+        var listener = mock(NodeDirectoryListener.class);
+        var observable = new NodeDirectoryObservable();
+        observable.registerListener(listener);
+        var service = RegistrationServiceNodeDirectory.Builder.newInstance()
+                .apiClient(registryApi)
+                .resolver(resolver)
+                .monitor(monitor)
+                .observable(observable)
+                .build();
+
+        var company1 = getParticipant();
+        var company2 = getParticipant();
+        var company3 = getParticipant();
+        var node1 = node();
+        var node2 = node();
+        var node3 = node();
+        when(registryApi.listParticipants()).thenReturn(List.of(company1, company2), List.of(company1, company3));
+        when(resolver.toFederatedCacheNode(company1)).thenReturn(Result.success(node1));
+        when(resolver.toFederatedCacheNode(company2)).thenReturn(Result.success(node2));
+        when(resolver.toFederatedCacheNode(company3)).thenReturn(Result.success(node3));
+
+        assertThat(service.getAll()).containsExactly(node1, node2);
+        assertThat(service.getAll()).containsExactly(node1, node3);
+
+        verify(resolver, times(1)).toFederatedCacheNode(company1);
+        verify(listener).added(company1.getDid(), node1);
+        verify(listener).added(company2.getDid(), node2);
+        verify(listener).added(company3.getDid(), node3);
+        verify(listener).removed(company2.getDid(), node2);
+        verify(listener, never()).changed(any(), any(), any());
+    }
+
+    @Test
+    void getAll_snapshot_servedWhileRegistryUnavailable() {
+        var snapshotStore = mock(NodeDirectorySnapshotStore.class);
+        var company1 = getParticipant();
+        when(snapshotStore.load()).thenReturn(List.of(new NodeDirectorySnapshotStore.Entry(company1.getDid(), null, "test-name",
+                "http://test.target.url", List.of("ids-multipart"), Instant.EPOCH)));
+        when(registryApi.listParticipants()).thenThrow(new RuntimeException("unavailable"));
+
+        var service = RegistrationServiceNodeDirectory.Builder.newInstance()
+                .apiClient(registryApi)
+                .resolver(resolver)
+                .monitor(monitor)
+                .snapshotStore(snapshotStore)
+                .build();
+
+        assertThat(service.getAll())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(node());
+    }
+
+    @Test
+    void getAll_snapshot_savedWhenNodesChange() {
+        var snapshotStore = mock(NodeDirectorySnapshotStore.class);
+        when(snapshotStore.load()).thenReturn(List.of());
+        var service = RegistrationServiceNodeDirectory.Builder.newInstance()
+                .apiClient(registryApi)
+                .resolver(resolver)
+                .monitor(monitor)
+                .snapshotStore(snapshotStore)
+                .build();
+
+        var company1 = getParticipant();
+        when(registryApi.listParticipants()).thenReturn(List.of(company1));
+        when(resolver.toFederatedCacheNode(company1)).thenReturn(Result.success(node()));
+
+        service.getAll();
+        service.getAll();
+
+        verify(snapshotStore, times(1)).save(any());
+    }
+
+    @Test
+    void insert_mergedWithRegisteredNodes() {
+        var service = new RegistrationServiceNodeDirectory(registryApi, resolver, monitor);
+
+        var company1 = getParticipant();
+        var node1 = node();
+        var localNode = new FederatedCacheNode("local", "http://local.target.url", List.of("ids-multipart"));
+        when(registryApi.listParticipants()).thenReturn(List.of(company1));
+        when(resolver.toFederatedCacheNode(company1)).thenReturn(Result.success(node1));
+
+        service.insert(localNode);
+        assertThat(service.getAll()).containsExactly(node1, localNode);
+
+        assertThat(service.remove("local")).isTrue();
+        assertThat(service.getAll()).containsExactly(node1);
+    }
+
+    @Test
+    void getAll_crawlScheduler_returnsOnlyDueNodes() {
+        var clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(Instant.EPOCH);
+        var scheduler = new CrawlScheduler(Duration.ofSeconds(10), Duration.ofSeconds(60), clock, monitor);
+        var service = RegistrationServiceNodeDirectory.Builder.newInstance()
+                .apiClient(registryApi)
+                .resolver(resolver)
+                .monitor(monitor)
+                .crawlScheduler(scheduler)
+                .build();
+
+        var company1 = getParticipant();
+        var company2 = getParticipant();
+        var node1 = new FederatedCacheNode("company1", "http://company1.target.url", List.of("ids-multipart"));
+        var node2 = new FederatedCacheNode("company2", "http://company2.target.url", List.of("ids-multipart"));
+        when(registryApi.listParticipants()).thenReturn(List.of(company1, company2));
+        when(resolver.toFederatedCacheNode(company1)).thenReturn(Result.success(node1));
+        when(resolver.toFederatedCacheNode(company2)).thenReturn(Result.success(node2));
+        scheduler.recordCatalog(node1.getTargetUrl(), "hash");
+
+        assertThat(service.getAll()).containsExactly(node2);
+    }
+
+    @Test
+    void getAll_shard_resolvesOnlyOwnedParticipants() {
+        var participants = new ArrayList<ParticipantDto>();
+        for (var i = 0; i < 20; i++) {
+            participants.add(getParticipant());
+        }
+        when(registryApi.listParticipants()).thenReturn(participants);
+        when(resolver.toFederatedCacheNode(any())).thenAnswer(i -> Result.success(node()));
+        var shard = new CrawlShard("replica1", () -> Set.of("replica1", "replica2"), 128, monitor);
+        var service = RegistrationServiceNodeDirectory.Builder.newInstance()
+                .apiClient(registryApi)
+                .resolver(resolver)
+                .monitor(monitor)
+                .shard(shard)
+                .build();
+
+        var nodes = service.getAll();
+
+        var assignment = shard.currentAssignment();
+        var owned = participants.stream().filter(participant -> assignment.owns(participant.getDid())).count();
+        assertThat(nodes).hasSize((int) owned);
+        verify(resolver, times((int) owned)).toFederatedCacheNode(any());
+    }
+
+    @Test
+    void stream_subscriberFallingBehindBuffer_failedWithoutBlocking() throws InterruptedException {
+        var service = RegistrationServiceNodeDirectory.Builder.newInstance()
+                .apiClient(registryApi)
+                .resolver(resolver)
+                .monitor(monitor)
+                .streamBufferSize(2)
+                .build();
+        when(registryApi.listParticipants()).thenReturn(List.of());
+        for (var i = 0; i < 5; i++) {
+            service.insert(new FederatedCacheNode("local" + i, "http://local" + i + ".target.url", List.of("ids-multipart")));
+        }
+
+        var failure = new LinkedBlockingQueue<Throwable>();
+        service.stream().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                // never requests any nodes
+            }
+
+            @Override
+            public void onNext(FederatedCacheNode item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                failure.add(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        assertThat(failure.poll(5, TimeUnit.SECONDS)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void stream_emitsNodesAsTheirDidsResolve() throws InterruptedException {
+        var executor = Executors.newSingleThreadExecutor();
+        var service = RegistrationServiceNodeDirectory.Builder.newInstance()
+                .apiClient(registryApi)
+                .resolver(resolver)
+                .monitor(monitor)
+                .refreshExecutor(executor)
+                .build();
+        var company1 = getParticipant();
+        var company2 = getParticipant();
+        var node1 = new FederatedCacheNode("company1", "http://company1.target.url", List.of("ids-multipart"));
+        var node2 = new FederatedCacheNode("company2", "http://company2.target.url", List.of("ids-multipart"));
+        var localNode = new FederatedCacheNode("local", "http://local.target.url", List.of("ids-multipart"));
+        var release = new CountDownLatch(1);
+        when(registryApi.listParticipants()).thenReturn(List.of(company1, company2));
+        when(resolver.toFederatedCacheNode(company1)).thenReturn(Result.success(node1));
+        when(resolver.toFederatedCacheNode(company2)).thenAnswer(i -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Result.success(node2);
+        });
+        service.insert(localNode);
+
+        var received = new LinkedBlockingQueue<FederatedCacheNode>();
+        var completed = new CountDownLatch(1);
+        service.stream().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(FederatedCacheNode item) {
+                received.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+                completed.countDown();
+            }
+        });
+
+        try {
+            assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(localNode);
+            assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(node1);
+            assertThat(completed.getCount()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(node2);
+            assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(received).isEmpty();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getAll_pagedListing_resolvesParticipantsOfAllPages() {
+        var pager = mock(PagedParticipantLister.class);
+        var company1 = getParticipant();
+        var company2 = getParticipant();
+        var node1 = new FederatedCacheNode("company1", "http://company1.target.url", List.of("ids-multipart"));
+        var node2 = new FederatedCacheNode("company2", "http://company2.target.url", List.of("ids-multipart"));
+        when(pager.iterator()).thenReturn(List.of(List.of(company1), List.of(company2)).iterator());
+        when(resolver.toFederatedCacheNode(company1)).thenReturn(Result.success(node1));
+        when(resolver.toFederatedCacheNode(company2)).thenReturn(Result.success(node2));
+        var service = RegistrationServiceNodeDirectory.Builder.newInstance()
+                .apiClient(registryApi)
+                .participantPager(pager)
+                .resolver(resolver)
+                .monitor(monitor)
+                .build();
+
+        assertThat(service.getAll()).containsExactly(node1, node2);
+        verify(registryApi, never()).listParticipants();
+    }
+
+    @Test
+    void getAll_concurrentCallersShareOneRefresh() throws Exception {
+        var service = new RegistrationServiceNodeDirectory(registryApi, resolver, monitor);
+
+        var company1 = getParticipant();
+        var node1 = node();
+        var listing = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(registryApi.listParticipants()).thenAnswer(i -> {
+            listing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return List.of(company1);
+        });
+        when(resolver.toFederatedCacheNode(company1)).thenReturn(Result.success(node1));
+
+        var first = CompletableFuture.supplyAsync(service::getAll);
+        assertThat(listing.await(10, TimeUnit.SECONDS)).isTrue();
+        var waiter = new Thread(() -> assertThat(service.getAll()).containsExactly(node1));
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).containsExactly(node1);
+        waiter.join(10_000);
+        verify(registryApi, times(1)).listParticipants();
+    }
+
+    private RegistrationServiceNodeDirectory cachingDirectory(Executor refreshExecutor, Clock clock) {
+        return RegistrationServiceNodeDirectory.Builder.newInstance()
+                .apiClient(registryApi)
+                .resolver(resolver)
+                .monitor(monitor)
+                .cacheTtl(Duration.ofSeconds(10))
+                .refreshExecutor(refreshExecutor)
+                .clock(clock)
+                .build();
+    }
+
+    /**
+     * Answers {@link ConcurrentNodeResolver#resolve(List, BiConsumer)} with the given results, reporting each of them to
+     * the result consumer like the resolver does. All participants count as scheduled.
+     */
+    @SuppressWarnings("unchecked")
+    private Answer<ConcurrentNodeResolver.Resolutions> resolving(Map<String, Result<FederatedCacheNode>> results) {
+        return invocation -> {
+            var participants = (List<ParticipantDto>) invocation.getArgument(0);
+            var scheduled = participants.stream().map(ParticipantDto::getDid).collect(Collectors.toSet());
+            return resolving(results, scheduled).answer(invocation);
+        };
+    }
+
+    /**
+     * Like {@link #resolving(Map)}, but only the given participants count as scheduled.
+     */
+    @SuppressWarnings("unchecked")
+    private Answer<ConcurrentNodeResolver.Resolutions> resolving(Map<String, Result<FederatedCacheNode>> results, Set<String> scheduled) {
+        return invocation -> {
+            var onResult = (BiConsumer<String, Result<FederatedCacheNode>>) invocation.getArgument(1);
+            results.forEach(onResult);
+            return new ConcurrentNodeResolver.Resolutions(results, scheduled);
+        };
+    }
+
     private FederatedCacheNode node() {
         return new FederatedCacheNode("test-name", "http://test.target.url", List.of("ids-multipart"));
     }
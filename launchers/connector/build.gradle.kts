@@ -26,6 +26,9 @@ dependencies {
 
     implementation(edc.core.controlplane)
     implementation(edc.api.observability)
+    implementation(edc.core.micrometer)
+    runtimeOnly(edc.micrometer.jetty)
+    runtimeOnly(edc.micrometer.jersey)
     implementation(edc.api.dataManagement)
     implementation(edc.config.filesystem)
     implementation(edc.ext.http)
@@ -22,6 +22,7 @@ dependencies {
     implementation(registrationService.core)
     implementation(registrationService.core.credential.service)
     implementation(registrationService.ext.api)
+    implementation(project(":extensions:participant-pages"))
 
     implementation(edc.identity.did.web)
     implementation(edc.identity.did.core)
@@ -24,6 +24,12 @@ dependencyResolutionManagement {
             from("org.eclipse.edc:edc-versions:0.0.1-20230301-SNAPSHOT")
             library("apache.commons.lang3", "org.apache.commons", "commons-lang3").version("3.12.0")
             library("gatling-highcharts", "io.gatling.highcharts", "gatling-charts-highcharts").version("3.7.5")
+            library("micrometer-core", "io.micrometer", "micrometer-core").version("1.10.4")
+            library("glassfish-jersey-common", "org.glassfish.jersey.core", "jersey-common").version("3.1.1")
+            library("glassfish-jersey-server", "org.glassfish.jersey.core", "jersey-server").version("3.1.1")
+            library("glassfish-jersey-jdkhttp", "org.glassfish.jersey.containers", "jersey-container-jdk-http").version("3.1.1")
+            library("glassfish-jersey-hk2", "org.glassfish.jersey.inject", "jersey-hk2").version("3.1.1")
+            library("jakarta-annotation-api", "jakarta.annotation", "jakarta.annotation-api").version("2.1.1")
         }
         create("identityHub") {
             version("identityHub", "0.0.1-20230301-SNAPSHOT")
@@ -69,10 +75,12 @@ dependencyResolutionManagement {
             library("boot", "org.eclipse.edc", "boot").versionRef("edc")
             library("junit", "org.eclipse.edc", "junit").versionRef("edc")
 
+            library("spi-policy", "org.eclipse.edc", "policy-spi").versionRef("edc")
             library("spi-policy-engine", "org.eclipse.edc", "policy-engine-spi").versionRef("edc")
             library("spi-contract", "org.eclipse.edc", "contract-spi").versionRef("edc")
             library("spi-ids", "org.eclipse.edc", "ids-spi").versionRef("edc")
             library("spi-dpf-selector", "org.eclipse.edc", "data-plane-selector-spi").versionRef("edc")
+            library("spi-web", "org.eclipse.edc", "web-spi").versionRef("edc")
 
             library("core-connector", "org.eclipse.edc", "connector-core").versionRef("edc")
             library("core-controlplane", "org.eclipse.edc", "control-plane-core").versionRef("edc")
@@ -143,3 +151,5 @@ include(":launchers:registrationservice")
 include(":system-tests")
 include(":extensions:refresh-catalog")
 include(":extensions:policies")
+include(":extensions:participant-pages")
+include(":benchmarks")